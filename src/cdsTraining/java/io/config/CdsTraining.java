@@ -0,0 +1,71 @@
+package io.config;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.ServletContextEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockFilterConfig;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletConfig;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.context.ContextLoaderListener;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.filter.DelegatingFilterProxy;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Training run for the AppCDS archive built by the {@code appCdsArchive} Gradle task. Boots the application
+ * the way {@link WebAppInitializer} does — root context, DispatcherServlet and the same filter chain — over
+ * the exploded war, serves the first request and exits, so that the JVM started with
+ * {@code -XX:ArchiveClassesAtExit} dumps every class the startup and the first page loaded.
+ * Needs the database configured for the application, since Flyway and Hibernate start with the root context.
+ */
+@Slf4j
+public final class CdsTraining {
+
+    private CdsTraining() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path webapp = Path.of(args[0]).toAbsolutePath();
+        String path = args.length > 1 ? args[1] : "/auth/login";
+        MockServletContext servletContext = new MockServletContext(webapp.toUri().toString());
+
+        AnnotationConfigWebApplicationContext root = new AnnotationConfigWebApplicationContext();
+        root.register(AppConfig.class, DataBaseConfig.class);
+        ContextLoaderListener listener = new ContextLoaderListener(root);
+        listener.contextInitialized(new ServletContextEvent(servletContext));
+
+        AnnotationConfigWebApplicationContext web = new AnnotationConfigWebApplicationContext();
+        web.register(WebConfig.class);
+        DispatcherServlet dispatcher = new DispatcherServlet(web);
+        dispatcher.init(new MockServletConfig(servletContext, "dispatcher"));
+
+        List<Filter> filters = List.of(
+                new DelegatingFilterProxy("clientIpFilter", root),
+                new ResourceUrlEncodingFilter(),
+                new DelegatingFilterProxy("readYourWritesFilter", root),
+                new DelegatingFilterProxy("sessionAuthFilter", root));
+        for (Filter filter : filters) {
+            filter.init(new MockFilterConfig(servletContext));
+        }
+
+        try {
+            MockHttpServletRequest request = new MockHttpServletRequest(servletContext, "GET", path);
+            request.setRemoteAddr("127.0.0.1");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            new MockFilterChain(dispatcher, filters.toArray(Filter[]::new)).doFilter(request, response);
+            log.info("CDS training: GET {} -> {}", path, response.getStatus());
+        } finally {
+            dispatcher.destroy();
+            listener.contextDestroyed(new ServletContextEvent(servletContext));
+        }
+        // non-daemon pools (schedulers, the HTTP client) must not keep the JVM from exiting and dumping the archive
+        System.exit(0);
+    }
+}
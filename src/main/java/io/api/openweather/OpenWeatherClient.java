@@ -18,6 +18,8 @@ import java.net.http.HttpResponse;
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Slf4j
 @Component
@@ -28,14 +30,12 @@ public class OpenWeatherClient {
 
     private final String base;
     private final String apiKey;
-    private final String lang;
     private final Duration timeout;
     private final int geocodeDefaultLimit;
 
     public OpenWeatherClient(
             @Value("${openweather.api.base}") String base,
             @Value("${openweather.api.key}") String apiKey,
-            @Value("${openweather.lang:ru}") String lang,
             @Value("${openweather.timeout-sec:5}") int timeoutSec,
             @Value("${openweather.geo.default-limit:5}") int geocodeDefaultLimit,
             ObjectMapper objectMapper
@@ -47,7 +47,6 @@ public class OpenWeatherClient {
                 .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
         this.base = trimTrailingSlash(base);
         this.apiKey = apiKey;
-        this.lang = lang;
         this.timeout = Duration.ofSeconds(timeoutSec);
         this.geocodeDefaultLimit = geocodeDefaultLimit;
     }
@@ -67,25 +66,24 @@ public class OpenWeatherClient {
         }
     }
 
+    /**
+     * Non-blocking variant: no thread is held while the request is in flight. Failures complete the future
+     * with a {@link WeatherException}.
+     */
+    public CompletableFuture<WeatherResponse> weatherAsync(double lat, double lon) {
+        URI uri = buildWeatherUri(lat, lon);
+        HttpRequest req = HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .GET().build();
+        return sendAsync(uri, req, WeatherResponse.class);
+    }
+
     public List<LocationResponse> geoCode(String query) throws InterruptedException {
         return geoCode(query, geocodeDefaultLimit);
     }
 
     public List<LocationResponse> geoCode(String query, int limit) throws InterruptedException {
-        String q = (query == null) ? "" : query.trim();
-        if (q.isEmpty()) {
-            throw new WeatherException("Geocode query must not be empty");
-        }
-        int lim = (limit > 0) ? limit : geocodeDefaultLimit;
-
-        URI uri = UriComponentsBuilder.fromUriString(base)
-                .path("/geo/1.0/direct")
-                .queryParam("q", q)
-                .queryParam("limit", lim)
-                .queryParam("appid", apiKey)
-                .encode()
-                .build()
-                .toUri();
+        URI uri = buildGeoCodeUri(query, limit);
 
         HttpRequest req = HttpRequest.newBuilder()
                 .uri(uri)
@@ -103,6 +101,46 @@ public class OpenWeatherClient {
         }
     }
 
+    public CompletableFuture<List<LocationResponse>> geoCodeAsync(String query) {
+        URI uri = buildGeoCodeUri(query, geocodeDefaultLimit);
+        HttpRequest req = HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .GET().build();
+        return sendAsync(uri, req, LocationResponse[].class).thenApply(Arrays::asList);
+    }
+
+    private <T> CompletableFuture<T> sendAsync(URI uri, HttpRequest req, Class<T> type) {
+        return http.sendAsync(req, HttpResponse.BodyHandlers.ofString()).handle((resp, ex) -> {
+            if (ex != null) {
+                Throwable cause = (ex instanceof CompletionException && ex.getCause() != null) ? ex.getCause() : ex;
+                throw new WeatherException("OpenWeather I/O error: " + cause.getMessage(), cause);
+            }
+            ensure2XXOrThrow(uri, resp);
+            try {
+                return om.readValue(resp.body(), type);
+            } catch (IOException e) {
+                throw new WeatherException("OpenWeather I/O error: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    private URI buildGeoCodeUri(String query, int limit) {
+        String q = (query == null) ? "" : query.trim();
+        if (q.isEmpty()) {
+            throw new WeatherException("Geocode query must not be empty");
+        }
+        int lim = (limit > 0) ? limit : geocodeDefaultLimit;
+
+        return UriComponentsBuilder.fromUriString(base)
+                .path("/geo/1.0/direct")
+                .queryParam("q", q)
+                .queryParam("limit", lim)
+                .queryParam("appid", apiKey)
+                .encode()
+                .build()
+                .toUri();
+    }
+
     private URI buildWeatherUri(double lat, double lon) {
         return UriComponentsBuilder.fromUriString(base)
                 .path("/data/2.5/weather")
@@ -110,7 +148,6 @@ public class OpenWeatherClient {
                 .queryParam("lon", lon)
                 .queryParam("units", "metric")
                 .queryParam("appid", apiKey)
-                .queryParam("lang", lang)
                 .encode()
                 .build()
                 .toUri();
@@ -0,0 +1,96 @@
+package io.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rendered location cards per user and dashboard page. A page is only served while its version — the
+ * page's location ids and the weather snapshot version behind each card — matches the current one, so a
+ * weather refresh re-renders on the next view. Adding or deleting a location evicts all of the user's pages
+ * outright. The size limit counts users, not pages.
+ */
+@Slf4j
+@Component
+public class DashboardFragmentCache {
+
+    private static final String FIRST_PAGE = "";
+
+    private final ConcurrentHashMap<Long, ConcurrentHashMap<String, Fragment>> entries = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private final int maxEntries;
+
+    public DashboardFragmentCache(@Value("${dashboard.fragment-cache.max-entries:10000}") int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @param cursor the page's cursor, {@code null} for the first page
+     * @return rendered HTML, or {@code null} when it has to be rendered for this version
+     */
+    public String get(Long userId, String cursor, String version) {
+        Map<String, Fragment> pages = entries.get(userId);
+        Fragment fragment = pages == null ? null : pages.get(pageKey(cursor));
+        if (fragment == null || !fragment.version().equals(version)) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return fragment.html();
+    }
+
+    public void put(Long userId, String cursor, String version, String html) {
+        if (entries.size() >= maxEntries && !entries.containsKey(userId)) {
+            evict();
+        }
+        entries.computeIfAbsent(userId, id -> new ConcurrentHashMap<>())
+                .put(pageKey(cursor), new Fragment(version, html));
+    }
+
+    public void evict(Long userId) {
+        entries.remove(userId);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long hitCount() {
+        return hits.get();
+    }
+
+    public long missCount() {
+        return misses.get();
+    }
+
+    private static String pageKey(String cursor) {
+        return cursor == null ? FIRST_PAGE : cursor;
+    }
+
+    private void evict() {
+        int excess = entries.size() - maxEntries + Math.max(1, maxEntries / 10);
+        Iterator<Long> it = entries.keySet().iterator();
+        while (excess-- > 0 && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+        log.debug("Dashboard fragment cache evicted down to {} entries", entries.size());
+    }
+
+    private record Fragment(String version, String html) {
+    }
+}
@@ -0,0 +1,255 @@
+package io.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Who cares about a coordinate: saved locations and their users by grid cell, for background jobs that
+ * start from coordinates rather than users. Each cell is one flat {@code long[]} of (location id, user id)
+ * pairs, so the index stays small with millions of locations.
+ * <p>
+ * Rebuilt from the database at startup and on resync while still serving the old contents; changes that
+ * arrive meanwhile are replayed on top of the new ones.
+ */
+@Slf4j
+@Component
+public class LocationCellIndex {
+
+    private static final long NO_SLOT = -1;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final double cellDegrees;
+
+    private Cells cells;
+    private final List<Rebuild> rebuilds = new ArrayList<>(1);
+
+    public LocationCellIndex(@Value("${location-index.cell-degrees:0.1}") double cellDegrees) {
+        if (!(cellDegrees > 0 && cellDegrees <= 180)) {
+            throw new IllegalArgumentException("location-index.cell-degrees must be in (0, 180]");
+        }
+        this.cellDegrees = cellDegrees;
+        this.cells = new Cells(16);
+    }
+
+    public long cellOf(double lat, double lon) {
+        long row = (long) Math.floor((lat + 90) / cellDegrees);
+        long column = (long) Math.floor((lon + 180) / cellDegrees);
+        return row << 32 | column;
+    }
+
+    public void add(long locationId, long userId, double lat, double lon) {
+        long cell = cellOf(lat, lon);
+        lock.writeLock().lock();
+        try {
+            cells.add(locationId, userId, cell);
+            for (Rebuild rebuild : rebuilds) {
+                rebuild.changes.add(new Change(locationId, userId, cell));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long locationId) {
+        lock.writeLock().lock();
+        try {
+            cells.remove(locationId);
+            for (Rebuild rebuild : rebuilds) {
+                rebuild.changes.add(new Change(locationId, 0, NO_SLOT));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long[] locationIdsAt(double lat, double lon) {
+        return column(cellOf(lat, lon), 0);
+    }
+
+    /**
+     * @return distinct ids of the users with a saved location in the cell of the coordinate, ascending
+     */
+    public long[] userIdsAt(double lat, double lon) {
+        long[] users = column(cellOf(lat, lon), 1);
+        Arrays.sort(users);
+        int distinct = 0;
+        for (int i = 0; i < users.length; i++) {
+            if (i == 0 || users[i] != users[i - 1]) {
+                users[distinct++] = users[i];
+            }
+        }
+        return Arrays.copyOf(users, distinct);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return cells.locationCells.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Starts collecting a replacement for the current contents; the index keeps serving the old ones until
+     * {@link #finishRebuild}. Rebuilds may overlap: each one keeps its own log of the changes made since it
+     * started, and whichever finishes last wins.
+     */
+    public Rebuild startRebuild(int expectedSize) {
+        lock.writeLock().lock();
+        try {
+            Rebuild rebuild = new Rebuild(new Cells(expectedSize));
+            rebuilds.add(rebuild);
+            return rebuild;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void finishRebuild(Rebuild rebuild) {
+        lock.writeLock().lock();
+        try {
+            rebuilds.remove(rebuild);
+            for (Change change : rebuild.changes) {
+                if (change.cell() == NO_SLOT) {
+                    rebuild.cells.remove(change.locationId());
+                } else {
+                    rebuild.cells.add(change.locationId(), change.userId(), change.cell());
+                }
+            }
+            log.debug("Location index rebuilt with {} locations, {} changes replayed",
+                    rebuild.cells.locationCells.size(), rebuild.changes.size());
+            cells = rebuild.cells;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void abortRebuild(Rebuild rebuild) {
+        lock.writeLock().lock();
+        try {
+            rebuilds.remove(rebuild);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private long[] column(long cell, int offset) {
+        lock.readLock().lock();
+        try {
+            return cells.column(cell, offset);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public final class Rebuild {
+
+        private final Cells cells;
+        private final List<Change> changes = new ArrayList<>();
+
+        private Rebuild(Cells cells) {
+            this.cells = cells;
+        }
+
+        public void add(long locationId, long userId, double lat, double lon) {
+            cells.add(locationId, userId, cellOf(lat, lon));
+        }
+    }
+
+    /**
+     * @param cell {@link #NO_SLOT} for a removal
+     */
+    private record Change(long locationId, long userId, long cell) {
+    }
+
+    /**
+     * Cell key -> slot; per slot a {@code long[]} of interleaved (location id, user id) pairs. Location id
+     * -> cell key for removals. Slots of emptied cells stay allocated and are reused when the cell fills up
+     * again.
+     */
+    private static final class Cells {
+
+        private final LongLongMap slotsByCell;
+        private final LongLongMap locationCells;
+        private long[][] pairs = new long[16][];
+        private int[] lengths = new int[16];
+        private int slotCount;
+
+        Cells(int expectedLocations) {
+            slotsByCell = new LongLongMap(Math.max(16, expectedLocations / 4));
+            locationCells = new LongLongMap(expectedLocations);
+        }
+
+        void add(long locationId, long userId, long cell) {
+            long previousCell = locationCells.get(locationId, NO_SLOT);
+            if (previousCell != NO_SLOT) {
+                removeFromCell(locationId, previousCell);
+            }
+            locationCells.put(locationId, cell);
+
+            int slot = (int) slotsByCell.get(cell, NO_SLOT);
+            if (slot == NO_SLOT) {
+                slot = newSlot();
+                slotsByCell.put(cell, slot);
+            }
+            long[] row = pairs[slot];
+            int length = lengths[slot];
+            if (length == row.length) {
+                row = pairs[slot] = Arrays.copyOf(row, row.length * 2);
+            }
+            row[length] = locationId;
+            row[length + 1] = userId;
+            lengths[slot] = length + 2;
+        }
+
+        void remove(long locationId) {
+            long cell = locationCells.remove(locationId, NO_SLOT);
+            if (cell != NO_SLOT) {
+                removeFromCell(locationId, cell);
+            }
+        }
+
+        long[] column(long cell, int offset) {
+            int slot = (int) slotsByCell.get(cell, NO_SLOT);
+            if (slot == NO_SLOT) {
+                return new long[0];
+            }
+            long[] row = pairs[slot];
+            long[] result = new long[lengths[slot] / 2];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = row[i * 2 + offset];
+            }
+            return result;
+        }
+
+        private void removeFromCell(long locationId, long cell) {
+            int slot = (int) slotsByCell.get(cell, NO_SLOT);
+            long[] row = pairs[slot];
+            int last = lengths[slot] - 2;
+            for (int i = 0; i <= last; i += 2) {
+                if (row[i] == locationId) {
+                    row[i] = row[last];
+                    row[i + 1] = row[last + 1];
+                    lengths[slot] = last;
+                    return;
+                }
+            }
+        }
+
+        private int newSlot() {
+            if (slotCount == pairs.length) {
+                pairs = Arrays.copyOf(pairs, slotCount * 2);
+                lengths = Arrays.copyOf(lengths, slotCount * 2);
+            }
+            pairs[slotCount] = new long[4];
+            return slotCount++;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package io.cache;
+
+import io.model.dto.LocationDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Every geocode result seen so far, indexed by normalized name for prefix lookups. Also remembers which
+ * queries have already been sent upstream, so type-ahead only goes to OpenWeather for unseen prefixes.
+ * Bounded: when it outgrows {@code suggest.trie.max-locations} locations or {@code suggest.trie.max-nodes} nodes
+ * it starts over. The node budget also covers queries that returned nothing, which add nodes but no locations.
+ */
+@Slf4j
+@Component
+public class LocationTrie {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int maxLocations;
+    private final int maxNodes;
+
+    private Node root = new Node();
+    private int size;
+    private int nodes;
+
+    public LocationTrie(@Value("${suggest.trie.max-locations:50000}") int maxLocations,
+                        @Value("${suggest.trie.max-nodes:300000}") int maxNodes) {
+        if (maxLocations <= 0 || maxNodes <= 0) {
+            throw new IllegalArgumentException("maxLocations and maxNodes must be positive");
+        }
+        this.maxLocations = maxLocations;
+        this.maxNodes = maxNodes;
+    }
+
+    public static String normalize(String text) {
+        return text == null ? "" : text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Records what OpenWeather returned for {@code query} and marks the query as seen.
+     */
+    public void record(String query, List<LocationDTO> results) {
+        lock.writeLock().lock();
+        try {
+            String key = normalize(query);
+            List<String> names = new ArrayList<>(results.size());
+            int newNodes = key.length();
+            for (LocationDTO location : results) {
+                String name = normalize(location.getName());
+                names.add(name);
+                newNodes += name.length();
+            }
+            if (size + results.size() > maxLocations || nodes + newNodes > maxNodes) {
+                log.debug("Location trie reached {} locations in {} nodes, starting over", size, nodes);
+                root = new Node();
+                size = 0;
+                nodes = 0;
+            }
+            nodeFor(key).queried = true;
+            for (int i = 0; i < results.size(); i++) {
+                LocationDTO location = results.get(i);
+                String name = names.get(i);
+                if (name.isEmpty()) {
+                    continue;
+                }
+                Node node = nodeFor(name);
+                if (node.locations == null) {
+                    node.locations = new ArrayList<>(1);
+                }
+                if (!node.locations.contains(location)) {
+                    node.locations.add(location);
+                    size++;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isQueried(String prefix) {
+        lock.readLock().lock();
+        try {
+            Node node = find(normalize(prefix));
+            return node != null && node.queried;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return up to {@code limit} locations whose name starts with {@code prefix}, shortest names first
+     */
+    public List<LocationDTO> startingWith(String prefix, int limit) {
+        lock.readLock().lock();
+        try {
+            List<LocationDTO> result = new ArrayList<>(limit);
+            Node start = find(normalize(prefix));
+            if (start == null) {
+                return result;
+            }
+            Deque<Node> queue = new ArrayDeque<>();
+            queue.add(start);
+            while (!queue.isEmpty() && result.size() < limit) {
+                Node node = queue.poll();
+                if (node.locations != null) {
+                    for (LocationDTO location : node.locations) {
+                        if (result.size() == limit) {
+                            break;
+                        }
+                        result.add(location);
+                    }
+                }
+                if (node.children != null) {
+                    queue.addAll(node.children.values());
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int nodeCount() {
+        lock.readLock().lock();
+        try {
+            return nodes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Node find(String key) {
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.children == null ? null : node.children.get(key.charAt(i));
+        }
+        return node;
+    }
+
+    private Node nodeFor(String key) {
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            if (node.children == null) {
+                node.children = new TreeMap<>();
+            }
+            Node child = node.children.get(key.charAt(i));
+            if (child == null) {
+                child = new Node();
+                node.children.put(key.charAt(i), child);
+                nodes++;
+            }
+            node = child;
+        }
+        return node;
+    }
+
+    private static final class Node {
+        TreeMap<Character, Node> children;
+        List<LocationDTO> locations;
+        boolean queried;
+    }
+}
@@ -0,0 +1,113 @@
+package io.cache;
+
+import io.security.BloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Recently rejected session cookies (malformed, unknown, expired or revoked), so that clients
+ * retrying a dead cookie in a loop never reach the DB. Tokens are stored as 64-bit hashes in two
+ * rotating generations; an entry lives between ttl/2 and ttl and the total size is bounded.
+ */
+@Slf4j
+@Component
+public class RejectedTokenCache {
+
+    private static final int MAX_TOKEN_LENGTH = 512;
+
+    private final int maxEntries;
+    private final Duration halfTtl;
+    private final Clock clock;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private volatile Set<Long> current = ConcurrentHashMap.newKeySet();
+    private volatile Set<Long> previous = ConcurrentHashMap.newKeySet();
+    private volatile Instant generationStartedAt;
+
+    @Autowired
+    public RejectedTokenCache(@Value("${server.session.rejected-cache.max-entries:50000}") int maxEntries,
+                              @Value("${server.session.rejected-cache.ttl-sec:60}") long ttlSec) {
+        this(maxEntries, Duration.ofSeconds(ttlSec), Clock.systemUTC());
+    }
+
+    RejectedTokenCache(int maxEntries, Duration ttl, Clock clock) {
+        if (maxEntries < 2) {
+            throw new IllegalArgumentException("maxEntries must be at least 2");
+        }
+        this.maxEntries = maxEntries;
+        this.halfTtl = ttl.dividedBy(2);
+        this.clock = clock;
+        this.generationStartedAt = clock.instant();
+    }
+
+    public boolean isRejected(String token) {
+        if (token.length() > MAX_TOKEN_LENGTH) {
+            hits.increment();
+            return true;
+        }
+        rotateIfDue();
+        long key = BloomFilter.hash64(token);
+        if (current.contains(key) || previous.contains(key)) {
+            hits.increment();
+            return true;
+        }
+        misses.increment();
+        return false;
+    }
+
+    public void reject(String token) {
+        if (token.length() > MAX_TOKEN_LENGTH) {
+            return;
+        }
+        rotateIfDue();
+        current.add(BloomFilter.hash64(token));
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public int size() {
+        return current.size() + previous.size();
+    }
+
+    public Stats stats() {
+        return new Stats(hitCount(), missCount(), size());
+    }
+
+    private void rotateIfDue() {
+        if (current.size() < maxEntries / 2 && clock.instant().isBefore(generationStartedAt.plus(halfTtl))) {
+            return;
+        }
+        synchronized (this) {
+            if (current.size() < maxEntries / 2 && clock.instant().isBefore(generationStartedAt.plus(halfTtl))) {
+                return;
+            }
+            previous = current;
+            current = ConcurrentHashMap.newKeySet();
+            generationStartedAt = clock.instant();
+        }
+        log.debug("Rejected-token cache rotated: hits={}, misses={}, size={}", hits.sum(), misses.sum(), size());
+    }
+
+    /**
+     * @param hits requests turned away without a DB lookup since startup
+     */
+    public record Stats(long hits, long misses, int size) {
+    }
+}
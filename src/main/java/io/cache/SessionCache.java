@@ -0,0 +1,121 @@
+package io.cache;
+
+import io.security.TokenDigest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded near-cache of session token -> (userId, expiresAt) in front of the sessions table.
+ * Entries are keyed by {@link TokenDigest}, which is also what other nodes send to invalidate them.
+ * Rejected tokens are kept separately in {@link RejectedTokenCache}.
+ */
+@Slf4j
+@Component
+public class SessionCache {
+
+    private final ConcurrentHashMap<String, CachedSession> entries = new ConcurrentHashMap<>();
+
+    private final int maxEntries;
+    private final Duration maxTtl;
+    private final Clock clock;
+
+    @Autowired
+    public SessionCache(@Value("${server.session.cache.max-entries:10000}") int maxEntries,
+                        @Value("${server.session.cache.max-ttl-sec:300}") long maxTtlSec) {
+        this(maxEntries, Duration.ofSeconds(maxTtlSec), Clock.systemUTC());
+    }
+
+    SessionCache(int maxEntries, Duration maxTtl, Clock clock) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.maxTtl = maxTtl;
+        this.clock = clock;
+    }
+
+    /**
+     * @return cached session, or {@code null} when the DB has to be consulted
+     */
+    public CachedSession get(UUID token) {
+        String key = key(token);
+        CachedSession cached = entries.get(key);
+        if (cached == null) {
+            return null;
+        }
+        if (!clock.instant().isBefore(cached.evictAt())) {
+            entries.remove(key, cached);
+            return null;
+        }
+        return cached;
+    }
+
+    public void putValid(UUID token, Long userId, Instant expiresAt) {
+        put(key(token), new CachedSession(userId, expiresAt, cappedEvictAt(expiresAt)));
+    }
+
+    public void extend(UUID token, Instant expiresAt) {
+        Instant evictAt = cappedEvictAt(expiresAt);
+        entries.computeIfPresent(key(token), (k, cached) -> new CachedSession(cached.userId(), expiresAt, evictAt));
+    }
+
+    public void invalidate(UUID token) {
+        entries.remove(key(token));
+    }
+
+    public void invalidateDigest(String tokenDigest) {
+        entries.remove(tokenDigest);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private Instant cappedEvictAt(Instant expiresAt) {
+        Instant cap = clock.instant().plus(maxTtl);
+        return expiresAt.isBefore(cap) ? expiresAt : cap;
+    }
+
+    private void put(String key, CachedSession value) {
+        if (entries.size() >= maxEntries) {
+            evict();
+        }
+        entries.put(key, value);
+    }
+
+    private static String key(UUID token) {
+        return TokenDigest.of(token.toString());
+    }
+
+    private void evict() {
+        Instant now = clock.instant();
+        entries.values().removeIf(e -> !now.isBefore(e.evictAt()));
+        if (entries.size() < maxEntries) {
+            return;
+        }
+
+        int excess = entries.size() - maxEntries + Math.max(1, maxEntries / 10);
+        Iterator<String> it = entries.keySet().iterator();
+        while (excess-- > 0 && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+        log.debug("Session cache evicted down to {} entries", entries.size());
+    }
+
+    public record CachedSession(Long userId, Instant expiresAt, Instant evictAt) {
+    }
+}
@@ -0,0 +1,157 @@
+package io.cache;
+
+import io.model.dto.WeatherDTO;
+import io.security.BloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Current weather per coordinates, refreshed from OpenWeather once the TTL runs out. The version of a
+ * snapshot is a hash of the weather itself, so every node that holds the same weather reports the same
+ * version, and a refresh that brings nothing new keeps it. Rendered fragments and API ETags are keyed by it.
+ */
+@Slf4j
+@Component
+public class WeatherCache {
+
+    private final ConcurrentHashMap<Coordinates, Snapshot> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Coordinates, CompletableFuture<Snapshot>> loading = new ConcurrentHashMap<>();
+
+    private final int maxEntries;
+    private final Duration ttl;
+    private final Clock clock;
+
+    @Autowired
+    public WeatherCache(@Value("${weather.cache.max-entries:10000}") int maxEntries,
+                        @Value("${weather.cache.ttl-sec:600}") long ttlSec) {
+        this(maxEntries, Duration.ofSeconds(ttlSec), Clock.systemUTC());
+    }
+
+    WeatherCache(int maxEntries, Duration ttl, Clock clock) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    /**
+     * @return fresh snapshot, or {@code null} when the weather has to be fetched again
+     */
+    public Snapshot get(double lat, double lon) {
+        Coordinates key = new Coordinates(lat, lon);
+        Snapshot cached = entries.get(key);
+        if (cached == null) {
+            return null;
+        }
+        if (!clock.instant().isBefore(cached.expiresAt())) {
+            entries.remove(key, cached);
+            return null;
+        }
+        return cached;
+    }
+
+    public Snapshot put(double lat, double lon, WeatherDTO weather) {
+        Snapshot snapshot = new Snapshot(weather, versionOf(weather), clock.instant().plus(ttl));
+        if (entries.size() >= maxEntries) {
+            evict();
+        }
+        entries.put(new Coordinates(lat, lon), snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Single-flight load: while weather for these coordinates is being fetched, every caller gets the same
+     * future instead of starting another request.
+     */
+    public CompletableFuture<Snapshot> getOrLoad(double lat, double lon, Supplier<CompletableFuture<WeatherDTO>> loader) {
+        Snapshot cached = get(lat, lon);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        Coordinates key = new Coordinates(lat, lon);
+        CompletableFuture<Snapshot> created = new CompletableFuture<>();
+        CompletableFuture<Snapshot> inFlight = loading.putIfAbsent(key, created);
+        if (inFlight != null) {
+            return inFlight;
+        }
+
+        try {
+            loader.get().whenComplete((weather, ex) -> {
+                if (ex != null) {
+                    loading.remove(key, created);
+                    created.completeExceptionally(ex);
+                    return;
+                }
+                // stored before the load is forgotten, so a caller in between never misses both
+                Snapshot snapshot = put(lat, lon, weather);
+                loading.remove(key, created);
+                created.complete(snapshot);
+            });
+        } catch (RuntimeException e) {
+            loading.remove(key, created);
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+
+    public int loadingCount() {
+        return loading.size();
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    static long versionOf(WeatherDTO weather) {
+        return BloomFilter.hash64(String.join("|",
+                String.valueOf(weather.getCityName()),
+                String.valueOf(weather.getCountryName()),
+                String.valueOf(weather.getFeelsLike()),
+                String.valueOf(weather.getTemperature()),
+                String.valueOf(weather.getHumidity()),
+                String.valueOf(weather.getConditionId()),
+                String.valueOf(weather.getIconUrl())));
+    }
+
+    private void evict() {
+        Instant now = clock.instant();
+        entries.values().removeIf(e -> !now.isBefore(e.expiresAt()));
+        if (entries.size() < maxEntries) {
+            return;
+        }
+
+        int excess = entries.size() - maxEntries + Math.max(1, maxEntries / 10);
+        Iterator<Coordinates> it = entries.keySet().iterator();
+        while (excess-- > 0 && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+        log.debug("Weather cache evicted down to {} entries", entries.size());
+    }
+
+    private record Coordinates(double lat, double lon) {
+    }
+
+    /**
+     * The weather DTO is shared between readers and must not be modified.
+     */
+    public record Snapshot(WeatherDTO weather, long version, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,28 @@
+package io.cache.invalidation;
+
+import io.cache.DashboardFragmentCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class DashboardFragmentInvalidator implements InvalidationListener {
+
+    private final DashboardFragmentCache fragmentCache;
+
+    @Override
+    public void onInvalidate(List<InvalidationEvent> events) {
+        for (InvalidationEvent event : events) {
+            if (event.type() == InvalidationEvent.Type.USER_LOCATIONS) {
+                fragmentCache.evict(Long.valueOf(event.key()));
+            }
+        }
+    }
+
+    @Override
+    public void onResync() {
+        fragmentCache.clear();
+    }
+}
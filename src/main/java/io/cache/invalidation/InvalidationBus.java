@@ -0,0 +1,209 @@
+package io.cache.invalidation;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Cross-node cache invalidation over PostgreSQL LISTEN/NOTIFY.
+ * Events published inside a transaction are sent as one batched NOTIFY right before commit, so Postgres
+ * delivers them only if the change is committed. Each node listens on a dedicated connection outside
+ * the pool and ignores its own notifications.
+ */
+@Slf4j
+@Component
+public class InvalidationBus {
+
+    static final String CHANNEL = "cache_invalidation";
+
+    // Postgres caps a payload at 8000 bytes
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+
+    private final SessionFactory sessionFactory;
+    private final List<InvalidationListener> listeners;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Value("${cache.invalidation.enabled:false}")
+    private boolean enabled;
+
+    @Value("${DB_URL:}")
+    private String dbUrl;
+
+    @Value("${DB_USER:}")
+    private String dbUser;
+
+    @Value("${DB_PASSWORD:}")
+    private String dbPassword;
+
+    @Value("${cache.invalidation.poll-ms:500}")
+    private int pollMs = 500;
+
+    @Value("${cache.invalidation.health-check-ms:30000}")
+    private long healthCheckMs = 30_000;
+
+    @Value("${cache.invalidation.max-backoff-ms:30000}")
+    private long maxBackoffMs = 30_000;
+
+    private PgNotifyListener pgListener;
+    private Thread listenerThread;
+
+    @Autowired
+    public InvalidationBus(SessionFactory sessionFactory, List<InvalidationListener> listeners) {
+        this.sessionFactory = sessionFactory;
+        this.listeners = listeners;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        pgListener = new PgNotifyListener(
+                this::connect,
+                CHANNEL, this::dispatch, this::resync, pollMs, healthCheckMs, maxBackoffMs);
+        listenerThread = new Thread(pgListener, "invalidation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+        log.info("Cache invalidation bus started (node {})", nodeId);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (pgListener != null) {
+            pgListener.stop();
+            listenerThread.join(5_000);
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        Properties props = new Properties();
+        props.setProperty("user", dbUser);
+        props.setProperty("password", dbPassword);
+        props.setProperty("ApplicationName", "cache-invalidation-listener");
+        return DriverManager.getConnection(dbUrl, props);
+    }
+
+    /**
+     * Queues the event for the current transaction; it is sent just before commit and dropped on rollback.
+     */
+    public void publish(InvalidationEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            log.warn("Invalidation {} published outside a transaction, not sent", event);
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Set<InvalidationEvent> pending = (Set<InvalidationEvent>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<InvalidationEvent> batch = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, batch);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    send(batch);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(InvalidationBus.this);
+                }
+            });
+            pending = batch;
+        }
+        pending.add(event);
+    }
+
+    private void send(Set<InvalidationEvent> events) {
+        for (String payload : encode(nodeId, events)) {
+            sessionFactory.getCurrentSession()
+                    .createNativeQuery("SELECT pg_notify(:channel, :payload)", Object.class)
+                    .setParameter("channel", CHANNEL)
+                    .setParameter("payload", payload)
+                    .getSingleResult();
+        }
+    }
+
+    /**
+     * Payloads are {@code <nodeId>} followed by one encoded event per line, split to fit the NOTIFY limit.
+     */
+    static List<String> encode(String nodeId, Iterable<InvalidationEvent> events) {
+        List<String> payloads = new ArrayList<>();
+        StringBuilder current = new StringBuilder(nodeId);
+        int lines = 0;
+        for (InvalidationEvent event : events) {
+            String line = "\n" + event.encode();
+            if (lines > 0 && utf8Length(current) + utf8Length(line) > MAX_PAYLOAD_BYTES) {
+                payloads.add(current.toString());
+                current = new StringBuilder(nodeId);
+                lines = 0;
+            }
+            current.append(line);
+            lines++;
+        }
+        if (lines > 0) {
+            payloads.add(current.toString());
+        }
+        return payloads;
+    }
+
+    void dispatch(List<String> payloads) {
+        List<InvalidationEvent> events = new ArrayList<>();
+        for (String payload : payloads) {
+            String[] lines = payload.split("\n");
+            if (lines.length < 2 || lines[0].equals(nodeId)) {
+                continue;
+            }
+            for (int i = 1; i < lines.length; i++) {
+                InvalidationEvent.decode(lines[i]).ifPresent(events::add);
+            }
+        }
+        if (events.isEmpty()) {
+            return;
+        }
+        for (InvalidationListener listener : listeners) {
+            try {
+                listener.onInvalidate(events);
+            } catch (RuntimeException e) {
+                log.warn("Invalidation listener {} failed", listener.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    void resync() {
+        for (InvalidationListener listener : listeners) {
+            try {
+                listener.onResync();
+            } catch (RuntimeException e) {
+                log.warn("Invalidation listener {} failed to resync", listener.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    String nodeId() {
+        return nodeId;
+    }
+
+    private static int utf8Length(CharSequence s) {
+        return s.toString().getBytes(StandardCharsets.UTF_8).length;
+    }
+}
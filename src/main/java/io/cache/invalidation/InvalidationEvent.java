@@ -0,0 +1,62 @@
+package io.cache.invalidation;
+
+import io.security.TokenDigest;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * A key that became stale on some node. Encoded on the wire as {@code <type>:<key>}.
+ */
+public record InvalidationEvent(Type type, String key) {
+
+    public enum Type {
+        /** a logged out session, keyed by the {@link TokenDigest} of its token */
+        SESSION,
+        /** a revoked signed token, keyed by {@code <tokenId>:<expiresAtEpochSec>} */
+        REVOKED_TOKEN,
+        /** a user whose saved locations changed */
+        USER_LOCATIONS,
+        /** a saved location, keyed by {@code <locationId>:<userId>:<lat>:<lon>} */
+        LOCATION_SAVED,
+        /** a deleted saved location, keyed by its id */
+        LOCATION_DELETED
+    }
+
+    // NOTIFY payloads can be read by any LISTENer and end up in statement logs, so never the token itself
+    public static InvalidationEvent session(String token) {
+        return new InvalidationEvent(Type.SESSION, TokenDigest.of(token));
+    }
+
+    public static InvalidationEvent revokedToken(String tokenId, Instant expiresAt) {
+        return new InvalidationEvent(Type.REVOKED_TOKEN, tokenId + ":" + expiresAt.getEpochSecond());
+    }
+
+    public static InvalidationEvent userLocations(Long userId) {
+        return new InvalidationEvent(Type.USER_LOCATIONS, userId.toString());
+    }
+
+    public static InvalidationEvent locationSaved(long locationId, long userId, double lat, double lon) {
+        return new InvalidationEvent(Type.LOCATION_SAVED, locationId + ":" + userId + ":" + lat + ":" + lon);
+    }
+
+    public static InvalidationEvent locationDeleted(long locationId) {
+        return new InvalidationEvent(Type.LOCATION_DELETED, Long.toString(locationId));
+    }
+
+    String encode() {
+        return type.name() + ":" + key;
+    }
+
+    static Optional<InvalidationEvent> decode(String line) {
+        int sep = line.indexOf(':');
+        if (sep <= 0) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new InvalidationEvent(Type.valueOf(line.substring(0, sep)), line.substring(sep + 1)));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package io.cache.invalidation;
+
+import java.util.List;
+
+/**
+ * Local cache that has to follow changes made on other nodes.
+ */
+public interface InvalidationListener {
+
+    /**
+     * Called with a batch of events published by other nodes.
+     */
+    void onInvalidate(List<InvalidationEvent> events);
+
+    /**
+     * Called after the listener connection was re-established; events may have been missed meanwhile.
+     */
+    void onResync();
+}
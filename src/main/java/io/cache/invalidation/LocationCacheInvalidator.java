@@ -0,0 +1,32 @@
+package io.cache.invalidation;
+
+import io.model.entity.Location;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Drops the per-user location query cache when locations change on another node. Query results are
+ * not addressable per user, so the whole region goes; it is cheap to rebuild.
+ */
+@Component
+@RequiredArgsConstructor
+public class LocationCacheInvalidator implements InvalidationListener {
+
+    private final SessionFactory sessionFactory;
+
+    @Override
+    public void onInvalidate(List<InvalidationEvent> events) {
+        if (events.stream().anyMatch(e -> e.type() == InvalidationEvent.Type.USER_LOCATIONS)) {
+            sessionFactory.getCache().evictQueryRegion(Location.BY_USER_QUERY_REGION);
+        }
+    }
+
+    @Override
+    public void onResync() {
+        sessionFactory.getCache().evictQueryRegion(Location.BY_USER_QUERY_REGION);
+        sessionFactory.getCache().evictEntityData(Location.class);
+    }
+}
@@ -0,0 +1,119 @@
+package io.cache.invalidation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+
+/**
+ * Holds one dedicated LISTEN connection, drains notifications in batches, and reconnects with
+ * exponential backoff when the connection drops.
+ */
+@Slf4j
+final class PgNotifyListener implements Runnable {
+
+    private final Callable<Connection> connector;
+    private final String channel;
+    private final Consumer<List<String>> onPayloads;
+    private final Runnable onResync;
+    private final int pollMs;
+    private final long healthCheckMs;
+    private final long maxBackoffMs;
+
+    private volatile boolean running = true;
+    private volatile Connection connection;
+
+    PgNotifyListener(Callable<Connection> connector, String channel, Consumer<List<String>> onPayloads,
+                     Runnable onResync, int pollMs, long healthCheckMs, long maxBackoffMs) {
+        this.connector = connector;
+        this.channel = channel;
+        this.onPayloads = onPayloads;
+        this.onResync = onResync;
+        this.pollMs = pollMs;
+        this.healthCheckMs = healthCheckMs;
+        this.maxBackoffMs = maxBackoffMs;
+    }
+
+    @Override
+    public void run() {
+        long backoffMs = 500;
+        boolean connectedBefore = false;
+
+        while (running) {
+            try (Connection c = connector.call()) {
+                connection = c;
+                try (Statement st = c.createStatement()) {
+                    st.execute("LISTEN " + channel);
+                }
+                if (connectedBefore) {
+                    log.info("Invalidation listener reconnected, resyncing local caches");
+                    onResync.run();
+                }
+                connectedBefore = true;
+                backoffMs = 500;
+                listen(c);
+            } catch (Exception e) {
+                if (!running) {
+                    break;
+                }
+                log.warn("Invalidation listener connection lost, reconnecting in {} ms: {}", backoffMs, e.toString());
+                sleep(backoffMs);
+                backoffMs = Math.min(backoffMs * 2, maxBackoffMs);
+            } finally {
+                connection = null;
+            }
+        }
+    }
+
+    void stop() {
+        running = false;
+        Connection c = connection;
+        if (c != null) {
+            try {
+                c.close();
+            } catch (SQLException ignored) {
+                // closing only to unblock the poll
+            }
+        }
+    }
+
+    private void listen(Connection c) throws SQLException {
+        PGConnection pg = c.unwrap(PGConnection.class);
+        long lastCheck = System.currentTimeMillis();
+
+        while (running) {
+            PGNotification[] notifications = pg.getNotifications(pollMs);
+            if (notifications != null && notifications.length > 0) {
+                List<String> payloads = new ArrayList<>(notifications.length);
+                for (PGNotification n : notifications) {
+                    payloads.add(n.getParameter());
+                }
+                onPayloads.accept(payloads);
+            }
+
+            // a silently dropped TCP connection never fails the poll itself
+            long now = System.currentTimeMillis();
+            if (now - lastCheck >= healthCheckMs) {
+                try (Statement st = c.createStatement()) {
+                    st.execute("SELECT 1");
+                }
+                lastCheck = now;
+            }
+        }
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package io.cache.invalidation;
+
+import io.cache.SessionCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class SessionCacheInvalidator implements InvalidationListener {
+
+    private final SessionCache sessionCache;
+
+    @Override
+    public void onInvalidate(List<InvalidationEvent> events) {
+        for (InvalidationEvent event : events) {
+            if (event.type() == InvalidationEvent.Type.SESSION) {
+                sessionCache.invalidateDigest(event.key());
+            }
+        }
+    }
+
+    @Override
+    public void onResync() {
+        sessionCache.clear();
+    }
+}
@@ -3,14 +3,19 @@ package io.config;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import jakarta.annotation.PreDestroy;
+import io.monitoring.SqlStatistics;
+import io.monitoring.SqlStatsDataSource;
 import lombok.extern.slf4j.Slf4j;
 import org.flywaydb.core.Flyway;
 import org.hibernate.SessionFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.orm.hibernate5.HibernateTransactionManager;
 import org.springframework.orm.hibernate5.LocalSessionFactoryBean;
 import org.springframework.transaction.PlatformTransactionManager;
@@ -25,7 +30,7 @@ import java.util.Properties;
 @PropertySource("classpath:application.properties")
 public class DataBaseConfig {
 
-    private HikariDataSource hikariDataSource;
+    private ReadWriteRoutingDataSource routingDataSource;
 
     @Value("${DB_URL}")
     private String dbUrl;
@@ -44,28 +49,66 @@ public class DataBaseConfig {
     @Value("${DB_DRIVER:}")
     private String dbDriver;
 
+    @Value("${DB_REPLICA_URL:}")
+    private String replicaUrl;
+
+    @Value("${DB_REPLICA_USER:${DB_USER}}")
+    private String replicaUser;
+
+    @Value("${DB_REPLICA_PASSWORD:${DB_PASSWORD}}")
+    private String replicaPassword;
+
+    @Value("${DB_REPLICA_POOL_SIZE:10}")
+    private int replicaPoolSize;
+
     @Bean
-    public DataSource dataSource() {
+    public ReadWriteRoutingDataSource routingDataSource() {
+        HikariDataSource primary = pool("primary", dbUrl, dbUser, dbPassword, 10);
+        HikariDataSource replica = null;
+        if (!replicaUrl.isBlank()) {
+            replica = pool("replica", replicaUrl, replicaUser, replicaPassword, replicaPoolSize);
+            replica.setReadOnly(true);
+        }
+
+        this.routingDataSource = new ReadWriteRoutingDataSource(primary, replica);
+        log.info("✅ HikariCP pools initialized (replica {}).", replica != null ? "enabled" : "disabled");
+
+        return this.routingDataSource;
+    }
+
+    /**
+     * Physical connections are only taken on the first statement, so a transaction that never touches
+     * the DB (e.g. a session cache hit) costs nothing, and read-only ones can be routed to the replica.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource,
+                                 SqlStatistics sqlStatistics,
+                                 @Value("${monitoring.sql.enabled:true}") boolean sqlStatsEnabled) {
+        DataSource target = sqlStatsEnabled
+                ? new SqlStatsDataSource(routingDataSource, sqlStatistics)
+                : routingDataSource;
+        return new LazyConnectionDataSourceProxy(target);
+    }
+
+    private HikariDataSource pool(String name, String url, String user, String password, int maxSize) {
         HikariConfig hikariConfig = new HikariConfig();
-        hikariConfig.setJdbcUrl(dbUrl);
-        hikariConfig.setUsername(dbUser);
-        hikariConfig.setPassword(dbPassword);
+        hikariConfig.setPoolName(name);
+        hikariConfig.setJdbcUrl(url);
+        hikariConfig.setUsername(user);
+        hikariConfig.setPassword(password);
         hikariConfig.setConnectionTimeout(30000);
-        hikariConfig.setMaximumPoolSize(10);
+        hikariConfig.setMaximumPoolSize(maxSize);
         hikariConfig.setDriverClassName(dbDriver);
-
-        this.hikariDataSource = new HikariDataSource(hikariConfig);
-        log.info("✅ HikariCP pool initialized.");
-
-        return this.hikariDataSource;
+        return new HikariDataSource(hikariConfig);
     }
 
     @PreDestroy
     public void destroy() {
-        if (hikariDataSource != null && !hikariDataSource.isClosed()) {
-            log.info("Closing HikariCP DataSource...");
-            hikariDataSource.close();
-            log.info("✅ HikariCP DataSource closed.");
+        if (routingDataSource != null) {
+            log.info("Closing HikariCP DataSources...");
+            routingDataSource.close();
+            log.info("✅ HikariCP DataSources closed.");
         }
     }
 
@@ -85,11 +128,15 @@ public class DataBaseConfig {
         return flyway;
     }
 
+    // schema validation must see the migrated schema; also keeps the startup phases in a fixed order
     @Bean
+    @DependsOn("flyway")
     public LocalSessionFactoryBean sessionFactoryBean(DataSource dataSource,
                                                       @Value("${hibernate.packagesToScan}") String packageToScan,
                                                       @Value("${hibernate.dialect}") String dialect,
-                                                      @Value("${hibernate.hbm2ddl.auto:validate}") String hbm2ddlAuto) {
+                                                      @Value("${hibernate.hbm2ddl.auto:validate}") String hbm2ddlAuto,
+                                                      @Value("${hibernate.generate_statistics:true}") boolean statistics,
+                                                      @Value("${hibernate.show_sql:false}") boolean showSql) {
         log.info("Session factory and migration started");
         LocalSessionFactoryBean factoryBean = new LocalSessionFactoryBean();
         factoryBean.setDataSource(dataSource);
@@ -97,9 +144,19 @@ public class DataBaseConfig {
 
         Properties properties = new Properties();
         properties.put("hibernate.dialect", dialect);
-        properties.put("hibernate.show_sql", true);
-        properties.put("hibernate.format_sql", true);
+        // per-statement timings come from SqlStatistics; blanket logging is for local debugging only
+        properties.put("hibernate.show_sql", showSql);
+        properties.put("hibernate.format_sql", showSql);
         properties.put("hibernate.hbm2ddl.auto", hbm2ddlAuto);
+
+        // regions are declared and bounded in ehcache.xml; an undeclared region is a startup error
+        properties.put("hibernate.cache.use_second_level_cache", true);
+        properties.put("hibernate.cache.use_query_cache", true);
+        properties.put("hibernate.cache.region.factory_class", "jcache");
+        properties.put("hibernate.javax.cache.provider", "org.ehcache.jsr107.EhcacheCachingProvider");
+        properties.put("hibernate.javax.cache.uri", "ehcache.xml");
+        properties.put("hibernate.javax.cache.missing_cache_strategy", "fail");
+        properties.put("hibernate.generate_statistics", statistics);
         factoryBean.setHibernateProperties(properties);
 
         return factoryBean;
@@ -0,0 +1,89 @@
+package io.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.Lifecycle;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Opt-in ({@code startup.lazy-init.enabled}) lazy initialization for beans that are not needed before the
+ * first request. Beans that do work on their own — scheduled jobs, lifecycle hooks, listeners, the pools and
+ * migrations — stay eager, as does anything named in {@code startup.lazy-init.eager}. Whatever the first
+ * request needs is pulled in by the filters, which stay eager too.
+ */
+@Slf4j
+public class LazyInitBeanFactoryPostProcessor implements BeanFactoryPostProcessor, EnvironmentAware {
+
+    private static final String DEFAULT_EAGER =
+            "sessionAuthFilter,readYourWritesFilter,sessionFactoryBean,transactionManager,templateEngine,viewResolver";
+
+    private static final List<Class<?>> EAGER_TYPES = List.of(
+            DataSource.class, Flyway.class, Lifecycle.class, ApplicationListener.class);
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        if (!environment.getProperty("startup.lazy-init.enabled", Boolean.class, false)) {
+            return;
+        }
+        Set<String> eager = Arrays.stream(environment.getProperty("startup.lazy-init.eager", DEFAULT_EAGER).split(","))
+                .map(String::trim)
+                .collect(Collectors.toSet());
+
+        int lazy = 0;
+        for (String name : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definition = beanFactory.getBeanDefinition(name);
+            if (definition.getRole() != BeanDefinition.ROLE_APPLICATION || !definition.isSingleton()
+                    || definition.isAbstract() || eager.contains(name)) {
+                continue;
+            }
+            Class<?> type = beanFactory.getType(name, false);
+            if (type == null || mustStayEager(type)) {
+                continue;
+            }
+            definition.setLazyInit(true);
+            lazy++;
+        }
+        log.info("Lazy initialization enabled for {} beans.", lazy);
+    }
+
+    static boolean mustStayEager(Class<?> type) {
+        if (type.isAnnotationPresent(Configuration.class)
+                || EAGER_TYPES.stream().anyMatch(eagerType -> eagerType.isAssignableFrom(type))) {
+            return true;
+        }
+        AtomicBoolean found = new AtomicBoolean();
+        ReflectionUtils.doWithMethods(type, method -> found.set(true), LazyInitBeanFactoryPostProcessor::selfStarting);
+        return found.get();
+    }
+
+    private static boolean selfStarting(Method method) {
+        // matched by name: jakarta.annotation is supplied by the container and may be absent at build time
+        return method.isAnnotationPresent(Scheduled.class) || method.isAnnotationPresent(EventListener.class)
+                || Arrays.stream(method.getAnnotations())
+                .anyMatch(a -> a.annotationType().getName().equals("jakarta.annotation.PostConstruct"));
+    }
+}
@@ -0,0 +1,95 @@
+package io.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends read-only transactions to the replica pool and everything else to the primary.
+ * Must sit behind a LazyConnectionDataSourceProxy, so the route is picked on the first statement,
+ * after the transaction's read-only flag is known.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {PRIMARY, REPLICA}
+
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final Map<Route, LongAdder> routed = new EnumMap<>(Route.class);
+
+    /**
+     * @param replica replica pool, or {@code null} to send everything to the primary
+     */
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica) {
+        this.primary = primary;
+        this.replica = replica;
+
+        Map<Object, Object> targets = new LinkedHashMap<>();
+        targets.put(Route.PRIMARY, primary);
+        if (replica != null) {
+            targets.put(Route.REPLICA, replica);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        for (Route route : Route.values()) {
+            routed.put(route, new LongAdder());
+        }
+        afterPropertiesSet();
+    }
+
+    /**
+     * Keeps the current thread on the primary, e.g. right after a write whose result the replica may not have yet.
+     */
+    public static void pinToPrimary() {
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+    }
+
+    public static void clearPin() {
+        PINNED_TO_PRIMARY.remove();
+    }
+
+    public boolean hasReplica() {
+        return replica != null;
+    }
+
+    public long routedCount(Route route) {
+        return routed.get(route).sum();
+    }
+
+    public Map<Route, DataSource> pools() {
+        Map<Route, DataSource> pools = new EnumMap<>(Route.class);
+        pools.put(Route.PRIMARY, primary);
+        if (replica != null) {
+            pools.put(Route.REPLICA, replica);
+        }
+        return pools;
+    }
+
+    public void close() {
+        pools().values().forEach(ds -> {
+            if (ds instanceof HikariDataSource hikari && !hikari.isClosed()) {
+                hikari.close();
+            }
+        });
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Route route = replica != null
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && PINNED_TO_PRIMARY.get() == null
+                ? Route.REPLICA
+                : Route.PRIMARY;
+        routed.get(route).increment();
+        return route;
+    }
+}
@@ -4,12 +4,14 @@ import jakarta.servlet.*;
 
 import java.util.EnumSet;
 
+import io.monitoring.StartupTimeline;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.WebApplicationInitializer;
 import org.springframework.web.context.ContextLoaderListener;
 import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
 import org.springframework.web.filter.DelegatingFilterProxy;
 import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
 
 @Slf4j
 public class WebAppInitializer implements WebApplicationInitializer {
@@ -18,18 +20,39 @@ public class WebAppInitializer implements WebApplicationInitializer {
 
         AnnotationConfigWebApplicationContext root = new AnnotationConfigWebApplicationContext();
         root.register(AppConfig.class, DataBaseConfig.class);
+        root.addApplicationListener(StartupTimeline.onRefresh(root, "Root context (total)", false));
         servletContext.addListener(new ContextLoaderListener(root));
 
         AnnotationConfigWebApplicationContext web = new AnnotationConfigWebApplicationContext();
         web.register(WebConfig.class);
+        web.addApplicationListener(StartupTimeline.onRefresh(web, "DispatcherServlet context", true));
 
         ServletRegistration.Dynamic dispatcher =
                 servletContext.addServlet("dispatcher", new DispatcherServlet(web));
         dispatcher.setLoadOnStartup(1);
+        dispatcher.setAsyncSupported(true);
         dispatcher.addMapping("/");
 
+        // first, so that everything downstream sees the client address instead of the load balancer's
+        FilterRegistration.Dynamic ip = servletContext.addFilter("clientIpFilter", DelegatingFilterProxy.class);
+        ip.setAsyncSupported(true);
+        ip.addMappingForUrlPatterns(
+                EnumSet.of(DispatcherType.REQUEST, DispatcherType.FORWARD, DispatcherType.ASYNC), false, "/*");
+
+        FilterRegistration.Dynamic urls = servletContext.addFilter(
+                "resourceUrlEncodingFilter", new ResourceUrlEncodingFilter());
+        urls.setAsyncSupported(true);
+        urls.addMappingForUrlPatterns(
+                EnumSet.of(DispatcherType.REQUEST, DispatcherType.FORWARD, DispatcherType.ASYNC), false, "/*");
+
+        FilterRegistration.Dynamic rw = servletContext.addFilter(
+                "readYourWritesFilter", DelegatingFilterProxy.class);
+        rw.setAsyncSupported(true);
+        rw.addMappingForUrlPatterns(EnumSet.of(DispatcherType.REQUEST), false, "/*");
+
         FilterRegistration.Dynamic fr = servletContext.addFilter(
                 "sessionAuthFilter", DelegatingFilterProxy.class);
+        fr.setAsyncSupported(true);
         fr.addMappingForUrlPatterns(
                 EnumSet.of(DispatcherType.REQUEST, DispatcherType.FORWARD, DispatcherType.ASYNC),
                 false, "/*");
@@ -1,21 +1,65 @@
 package io.config;
 
+import io.web.InMemoryResourceTransformer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.LocaleResolver;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistration;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.i18n.AcceptHeaderLocaleResolver;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
 import org.thymeleaf.spring6.SpringTemplateEngine;
 import org.thymeleaf.spring6.templateresolver.SpringResourceTemplateResolver;
 import org.thymeleaf.spring6.view.ThymeleafViewResolver;
 import org.thymeleaf.templatemode.TemplateMode;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
 @Configuration
 @EnableWebMvc
 @ComponentScan("io.controller")
 public class WebConfig implements WebMvcConfigurer {
 
+    @Value("${web.static.cache-max-age-days:365}")
+    private long staticMaxAgeDays = 365;
+
+    @Value("${web.static.in-memory-max-bytes:524288}")
+    private long inMemoryMaxBytes = 512 * 1024;
+
+    // search renders a retry message when OpenWeather has not answered by then
+    @Value("${web.async.timeout-ms:3000}")
+    private long asyncTimeoutMs = 3000;
+
+    // parsed templates are kept in production; set to false to pick up template edits without a restart
+    @Value("${web.templates.cacheable:true}")
+    private boolean templatesCacheable = true;
+
+    // weather descriptions are in the request's language when there is a bundle for it, in this one otherwise
+    @Value("${weather.locale:${openweather.lang:ru}}")
+    private String defaultLanguage = "ru";
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(asyncTimeoutMs);
+    }
+
+    @Bean
+    public LocaleResolver localeResolver() {
+        AcceptHeaderLocaleResolver localeResolver = new AcceptHeaderLocaleResolver();
+        localeResolver.setSupportedLocales(List.of(Locale.ENGLISH, Locale.forLanguageTag("ru")));
+        localeResolver.setDefaultLocale(Locale.forLanguageTag(defaultLanguage));
+        return localeResolver;
+    }
+
     @Bean
     public SpringResourceTemplateResolver templateResolver() {
         SpringResourceTemplateResolver templateResolver = new SpringResourceTemplateResolver();
@@ -23,7 +67,7 @@ public class WebConfig implements WebMvcConfigurer {
         templateResolver.setSuffix(".html");
         templateResolver.setTemplateMode(TemplateMode.HTML);
         templateResolver.setCharacterEncoding("UTF-8");
-        templateResolver.setCacheable(false);
+        templateResolver.setCacheable(templatesCacheable);
         return templateResolver;
     }
 
@@ -40,14 +84,34 @@ public class WebConfig implements WebMvcConfigurer {
         ThymeleafViewResolver viewResolve = new ThymeleafViewResolver();
         viewResolve.setTemplateEngine(templateEngine);
         viewResolve.setCharacterEncoding("UTF-8");
+        // write straight to the response while rendering, which the dashboard's early flush relies on
+        viewResolve.setProducePartialOutputWhileProcessing(true);
         viewResolve.setOrder(1);
         return viewResolve;
 
     }
 
+    /**
+     * Static files are served under content-hash URLs (rewritten by ResourceUrlEncodingFilter), so they
+     * can be cached by browsers forever. Precompressed .gz siblings are produced by the precompressStatic task.
+     */
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        registry.addResourceHandler("/resources/**")
-                .addResourceLocations("/resources/");
+        addStaticChain(registry.addResourceHandler("/resources/**").addResourceLocations("/resources/"));
+        addStaticChain(registry.addResourceHandler("/webjars/**")
+                .addResourceLocations("classpath:/META-INF/resources/webjars/"));
+
+        registry.addResourceHandler("/favicon.ico")
+                .addResourceLocations("/resources/images/")
+                .setCacheControl(CacheControl.maxAge(Duration.ofDays(1)).cachePublic());
+    }
+
+    private void addStaticChain(ResourceHandlerRegistration registration) {
+        registration
+                .setCacheControl(CacheControl.maxAge(Duration.ofDays(staticMaxAgeDays)).cachePublic().immutable())
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"))
+                .addTransformer(new InMemoryResourceTransformer(inMemoryMaxBytes));
     }
 }
@@ -0,0 +1,116 @@
+package io.controller;
+
+import io.cache.RejectedTokenCache;
+import io.monitoring.SqlStatistics;
+import io.security.LoginThrottle;
+import io.security.PasswordHasher;
+import io.service.AlertEvaluationService;
+import io.service.WeatherPrefetcher;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+/**
+ * Operational endpoints, guarded by the {@code X-Admin-Token} header. Disabled while admin.token is empty.
+ */
+@RestController
+@RequestMapping("/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+    static final String TOKEN_HEADER = "X-Admin-Token";
+
+    private final SqlStatistics sqlStatistics;
+    private final AlertEvaluationService alertEvaluationService;
+    private final PasswordHasher passwordHasher;
+    private final LoginThrottle loginThrottle;
+    private final RejectedTokenCache rejectedTokenCache;
+    private final WeatherPrefetcher weatherPrefetcher;
+
+    @Value("${admin.token:}")
+    private String adminToken = "";
+
+    @GetMapping("/sql-stats")
+    public ResponseEntity<List<SqlStatistics.Snapshot>> sqlStats(
+            @RequestHeader(name = TOKEN_HEADER, required = false) String token) {
+        if (!authorized(token)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok(sqlStatistics.snapshot());
+    }
+
+    @DeleteMapping("/sql-stats")
+    public ResponseEntity<Void> resetSqlStats(@RequestHeader(name = TOKEN_HEADER, required = false) String token) {
+        if (!authorized(token)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        sqlStatistics.reset();
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Throughput of the last alert evaluation run; 204 until the first run has finished.
+     */
+    @GetMapping("/alert-stats")
+    public ResponseEntity<AlertEvaluationService.Run> alertStats(
+            @RequestHeader(name = TOKEN_HEADER, required = false) String token) {
+        if (!authorized(token)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        AlertEvaluationService.Run lastRun = alertEvaluationService.lastRun();
+        return lastRun == null ? ResponseEntity.noContent().build() : ResponseEntity.ok(lastRun);
+    }
+
+    @GetMapping("/hash-stats")
+    public ResponseEntity<PasswordHasher.Stats> hashStats(
+            @RequestHeader(name = TOKEN_HEADER, required = false) String token) {
+        if (!authorized(token)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok(passwordHasher.stats());
+    }
+
+    @GetMapping("/login-throttle-stats")
+    public ResponseEntity<LoginThrottle.Stats> loginThrottleStats(
+            @RequestHeader(name = TOKEN_HEADER, required = false) String token) {
+        if (!authorized(token)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok(loginThrottle.stats());
+    }
+
+    @GetMapping("/rejected-token-stats")
+    public ResponseEntity<RejectedTokenCache.Stats> rejectedTokenStats(
+            @RequestHeader(name = TOKEN_HEADER, required = false) String token) {
+        if (!authorized(token)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok(rejectedTokenCache.stats());
+    }
+
+    @GetMapping("/prefetch-stats")
+    public ResponseEntity<WeatherPrefetcher.Stats> prefetchStats(
+            @RequestHeader(name = TOKEN_HEADER, required = false) String token) {
+        if (!authorized(token)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok(weatherPrefetcher.stats());
+    }
+
+    private boolean authorized(String token) {
+        if (adminToken.isEmpty() || token == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(adminToken.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,16 +1,20 @@
 package io.controller;
 
+import io.exception.ServiceBusyException;
 import io.model.command.LoginCommand;
 import io.model.command.RegisterRequest;
 import io.model.entity.User;
+import io.security.LoginThrottle;
 import io.service.SessionService;
 import io.service.UserService;
+import io.service.WeatherPrefetcher;
 import io.web.CookiesUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -22,7 +26,6 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.time.Duration;
 import java.util.Optional;
-import java.util.UUID;
 
 
 @Controller
@@ -32,6 +35,8 @@ public class    AuthController {
 
     private final UserService userService;
     private final SessionService sessionService;
+    private final LoginThrottle loginThrottle;
+    private final WeatherPrefetcher weatherPrefetcher;
 
     @Value("${server.ssl.enabled:false}")
     private boolean sslEnabled;
@@ -54,6 +59,7 @@ public class    AuthController {
     @PostMapping("/login")
     public String loginSubmit(@Valid @ModelAttribute LoginCommand command,
                               BindingResult bindingResult,
+                              HttpServletRequest request,
                               HttpServletResponse response,
                               Model model) {
 
@@ -62,23 +68,39 @@ public class    AuthController {
             return "login";
         }
 
+        if (!loginThrottle.tryAcquire(command.login(), request.getRemoteAddr())) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader("Retry-After", "60");
+            model.addAttribute("loginCommand", command);
+            model.addAttribute("errorMessage", "Too many login attempts. Please wait a minute and try again.");
+            return "login";
+        }
+
         try {
             User user = userService.login(command.login(), command.password());
+            loginThrottle.onSuccess(command.login(), request.getRemoteAddr());
 
-            UUID sessionToken = sessionService.createForUser(user.getId());
+            String sessionToken = sessionService.createForUser(user.getId());
 
             CookiesUtil.setSession(
                     response,
-                    sessionToken.toString(),
+                    sessionToken,
                     Duration.ofHours(sessionTtlHours),
                     sslEnabled
             );
+            weatherPrefetcher.prefetch(user.getId());
 
             return "redirect:/locations/dashboard";
         } catch (IllegalArgumentException e) {
             model.addAttribute("loginCommand", command);
             model.addAttribute("errorMessage", "Invalid username or password.");
             return "login";
+        } catch (ServiceBusyException e) {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader("Retry-After", "1");
+            model.addAttribute("loginCommand", command);
+            model.addAttribute("errorMessage", e.getMessage());
+            return "login";
         }
     }
 
@@ -86,13 +108,8 @@ public class    AuthController {
     public String registerForm(HttpServletRequest req, Model model) {
         String token = CookiesUtil.getCookie(req, "session");
 
-        if (token != null && !token.isBlank()) {
-            try {
-                UUID uuid = UUID.fromString(token);
-                if (sessionService.getUserIdByValidToken(uuid).isPresent()) {
-                    return "redirect:/locations/dashboard";
-                }
-            } catch (IllegalArgumentException ignored) { /* невалидный UUID -> гость */ }
+        if (sessionService.getUserIdByValidToken(token).isPresent()) {
+            return "redirect:/locations/dashboard";
         }
 
         if (!model.containsAttribute("registerRequest")) {
@@ -117,10 +134,10 @@ public class    AuthController {
         try {
             User newUser = userService.registerUser(request.login().trim(), request.password(), request.confirmPassword());
 
-            UUID sessionToken = sessionService.createForUser(newUser.getId());
+            String sessionToken = sessionService.createForUser(newUser.getId());
             CookiesUtil.setSession(
                     response,
-                    sessionToken.toString(),
+                    sessionToken,
                     Duration.ofHours(sessionTtlHours),
                     sslEnabled
             );
@@ -128,7 +145,7 @@ public class    AuthController {
             ra.addFlashAttribute("successMessage", "Welcome! Your registration was successful!");
             return "redirect:/locations/dashboard";
 
-        } catch (IllegalArgumentException e) {
+        } catch (IllegalArgumentException | ServiceBusyException e) {
             ra.addFlashAttribute("registerRequest", request);
             ra.addFlashAttribute("errorMessage", e.getMessage());
             return "redirect:/auth/register";
@@ -150,16 +167,11 @@ public class    AuthController {
         return "redirect:/auth/login";
     }
 
-    private Optional<UUID> findValidSessionToken(String sessionToken) {
+    private Optional<String> findValidSessionToken(String sessionToken) {
         if (sessionToken == null) {
             return Optional.empty();
         }
-        try {
-            UUID token = UUID.fromString(sessionToken);
-            boolean isValid = sessionService.getUserIdByValidToken(token).isPresent();
-            return isValid ? Optional.of(token) : Optional.empty();
-        } catch (IllegalArgumentException e) {
-            return Optional.empty();
-        }
+        boolean isValid = sessionService.getUserIdByValidToken(sessionToken).isPresent();
+        return isValid ? Optional.of(sessionToken) : Optional.empty();
     }
 }
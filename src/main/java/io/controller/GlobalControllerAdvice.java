@@ -21,8 +21,9 @@ import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+// page controllers only: the JSON API and admin endpoints handle their own errors and need no currentUser lookup
 @Slf4j
-@ControllerAdvice
+@ControllerAdvice(assignableTypes = {HomeController.class, AuthController.class, WeatherController.class})
 public class GlobalControllerAdvice {
 
     private final SessionService sessionService;
@@ -38,16 +39,10 @@ public class GlobalControllerAdvice {
         String sessionTokenString = CookiesUtil.getCookie(request, "session");
 
         if (sessionTokenString != null) {
-            try {
-                UUID sessionToken = UUID.fromString(sessionTokenString);
-                Optional<Long> userIdOpt = sessionService.getUserIdByValidToken(sessionToken);
+            Optional<Long> userIdOpt = sessionService.getUserIdByValidToken(sessionTokenString);
 
-                if (userIdOpt.isPresent()) {
-                    return userService.findById(userIdOpt.get()).orElse(null);
-                }
-
-            } catch (IllegalArgumentException e) {
-                log.warn("Invalid UUID format in session cookie");
+            if (userIdOpt.isPresent()) {
+                return userService.findById(userIdOpt.get()).orElse(null);
             }
         }
 
@@ -0,0 +1,196 @@
+package io.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.exception.LocationException;
+import io.exception.WeatherException;
+import io.model.command.AddLocationRequest;
+import io.model.dto.LocationDTO;
+import io.model.dto.SavedLocationWeatherDTO;
+import io.service.LocationSuggestService;
+import io.service.WeatherService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+
+/**
+ * JSON API for the mobile client. The saved-locations list carries an ETag built from the location ids and
+ * weather snapshot versions, so a poll that sends it back gets a 304 before any weather is fetched or
+ * serialized.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/locations")
+public class LocationApiController {
+
+    static final String WEATHER_UNAVAILABLE = "X-Weather-Unavailable";
+
+    private final WeatherService weatherService;
+    private final LocationSuggestService locationSuggestService;
+    private final ObjectWriter savedLocationsWriter;
+    private final ObjectWriter foundLocationsWriter;
+    private final ObjectWriter errorWriter;
+
+    public LocationApiController(WeatherService weatherService,
+                                 LocationSuggestService locationSuggestService,
+                                 @Qualifier("apiObjectWriter") ObjectWriter apiObjectWriter) {
+        this.weatherService = weatherService;
+        this.locationSuggestService = locationSuggestService;
+        this.savedLocationsWriter = apiObjectWriter.forType(new TypeReference<List<SavedLocationWeatherDTO>>() {
+        });
+        this.foundLocationsWriter = apiObjectWriter.forType(new TypeReference<List<LocationDTO>>() {
+        });
+        this.errorWriter = apiObjectWriter.forType(ApiError.class);
+    }
+
+    /**
+     * One page of saved locations; the next one, if any, is linked from a {@code Link: <...>; rel="next"}
+     * header. Locations whose weather is unavailable right now are left out and listed by id in the
+     * {@code X-Weather-Unavailable} header.
+     */
+    @GetMapping
+    public CompletableFuture<ResponseEntity<byte[]>> savedLocations(
+            @RequestAttribute("userId") Long userId,
+            @RequestParam(name = "after", required = false) String after,
+            HttpServletRequest request) {
+        String currentETag = eTag(weatherService.dashboardVersion(userId, after));
+        // request only: the response must not get this ETag when the page is fetched after all
+        if (new ServletWebRequest(request).checkNotModified(currentETag)) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(currentETag)
+                    .varyBy(HttpHeaders.ACCEPT_LANGUAGE)
+                    .build());
+        }
+
+        String nextPageBase = ServletUriComponentsBuilder.fromCurrentRequest().toUriString();
+        return weatherService.fetchDashboardAsync(userId, after).thenApply(dashboard -> {
+            // descriptions are in the request's language
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .varyBy(HttpHeaders.ACCEPT_LANGUAGE)
+                    .contentType(MediaType.APPLICATION_JSON);
+            if (dashboard.pending().isEmpty()) {
+                response.eTag(eTag(dashboard.version()));
+            } else {
+                // no ETag: the next poll has to fetch the missing weather again instead of getting a 304
+                response.header(WEATHER_UNAVAILABLE, dashboard.pending().stream()
+                        .map(location -> String.valueOf(location.id()))
+                        .collect(Collectors.joining(",")));
+            }
+            if (dashboard.next() != null) {
+                response.header(HttpHeaders.LINK, "<" + UriComponentsBuilder.fromUriString(nextPageBase)
+                        .replaceQueryParam("after", dashboard.next())
+                        .toUriString() + ">; rel=\"next\"");
+            }
+            return response.body(write(savedLocationsWriter, dashboard.locations()));
+        });
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> addLocation(@RequestAttribute("userId") Long userId,
+                                              @Valid @RequestBody AddLocationRequest req) {
+        LocationDTO locationDTO = LocationDTO.builder()
+                .lat(req.lat())
+                .lon(req.lon())
+                .name(req.name())
+                .country(req.country())
+                .build();
+        try {
+            weatherService.addLocation(locationDTO, userId);
+        } catch (LocationException e) {
+            return error(HttpStatus.CONFLICT, e.getMessage());
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).build();
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<byte[]> deleteLocation(@RequestAttribute("userId") Long userId,
+                                                 @PathVariable("id") Long locationId) {
+        try {
+            weatherService.deleteLocationByUser(userId, locationId);
+        } catch (LocationException e) {
+            return error(HttpStatus.NOT_FOUND, "Location not found.");
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/search")
+    public CompletableFuture<ResponseEntity<byte[]>> search(@RequestParam(name = "query", required = false) String query) {
+        if (query == null || query.isBlank()) {
+            return CompletableFuture.completedFuture(error(HttpStatus.BAD_REQUEST, "Query must not be empty."));
+        }
+        return weatherService.findLocationsByNameAsync(query).thenApply(found -> ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(write(foundLocationsWriter, found)));
+    }
+
+    /**
+     * Type-ahead for the search box. A request superseded by a newer keystroke of the same session gets a
+     * 204, which the client simply ignores.
+     */
+    @GetMapping("/suggest")
+    public CompletableFuture<ResponseEntity<byte[]>> suggest(@CookieValue("session") String session,
+                                                             @RequestParam(name = "q", defaultValue = "") String q) {
+        return locationSuggestService.suggest(session, q).thenApply(found -> found
+                .map(locations -> ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(write(foundLocationsWriter, locations)))
+                .orElseGet(() -> ResponseEntity.noContent().build()));
+    }
+
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<byte[]> handleValidation(MethodArgumentNotValidException e) {
+        return error(HttpStatus.BAD_REQUEST, "Invalid location: " + e.getBindingResult().getFieldErrors().stream()
+                .map(fieldError -> fieldError.getField() + " " + fieldError.getDefaultMessage())
+                .toList());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<byte[]> handleIllegalArgument(IllegalArgumentException e) {
+        return error(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    @ExceptionHandler({WeatherException.class, CompletionException.class})
+    public ResponseEntity<byte[]> handleUpstream(RuntimeException e) {
+        log.warn("OpenWeather failed for an API request: {}", e.getMessage());
+        return error(HttpStatus.BAD_GATEWAY, "Weather provider is unavailable.");
+    }
+
+    static String eTag(String version) {
+        return "\"" + DigestUtils.md5DigestAsHex(("v1:" + version).getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    private ResponseEntity<byte[]> error(HttpStatus status, String message) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(write(errorWriter, new ApiError(message)));
+    }
+
+    private static byte[] write(ObjectWriter writer, Object value) {
+        try {
+            return writer.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize API response", e);
+        }
+    }
+
+    record ApiError(String error) {
+    }
+}
@@ -2,21 +2,37 @@ package io.controller;
 
 import io.exception.LocationException;
 import io.model.command.AddLocationRequest;
+import io.model.dto.DashboardDTO;
 import io.model.dto.LocationDTO;
 import io.model.dto.SavedLocationWeatherDTO;
+import io.repository.LocationCursor;
 import io.service.WeatherService;
+import io.web.EarlyFlushVariable;
+import io.web.LocationCardsRenderer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import org.thymeleaf.context.LazyContextVariable;
 
 import java.io.IOException;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 @Controller
 @RequestMapping("/locations")
@@ -25,19 +41,118 @@ public class WeatherController {
 
     private static final Logger log = LoggerFactory.getLogger(WeatherController.class);
     private final WeatherService weatherService;
+    private final LocationCardsRenderer locationCardsRenderer;
 
+    @Value("${web.dashboard.early-flush:true}")
+    private boolean earlyFlush = true;
+
+    @Value("${web.sse.timeout-ms:30000}")
+    private long streamTimeoutMs = 30000;
+
+    /**
+     * Renders one page of saved locations straight away from the weather cache; locations without cached weather get skeleton cards
+     * that the page fills in from {@link #dashboardStream}. In early-flush mode the page shell is sent
+     * before the locations are even read.
+     */
     @GetMapping("/dashboard")
     public String dashboard(@RequestAttribute("userId") Long userId,
+                            @RequestParam(name = "after", required = false) String after,
+                            HttpServletRequest request,
+                            HttpServletResponse response,
                             Model model) {
-        List<SavedLocationWeatherDTO> saveLocation;
-
-        saveLocation = weatherService.fetchSavedLocationsWeather(userId);
+        if (!isValidCursor(after)) {
+            return "redirect:/locations/dashboard";
+        }
 
-        model.addAttribute("locations", saveLocation);
+        Supplier<DashboardDTO> loader = () -> weatherService.fetchCachedDashboard(userId, after);
+        LazyContextVariable<DashboardDTO> dashboard = earlyFlush
+                ? new EarlyFlushVariable<>(response, loader)
+                : new LazyContextVariable<>() {
+                    @Override
+                    protected DashboardDTO loadValue() {
+                        return loader.get();
+                    }
+                };
+
+        model.addAttribute("after", after);
+        model.addAttribute("dashboard", dashboard);
+        model.addAttribute("locationCards", new LazyContextVariable<String>() {
+            @Override
+            protected String loadValue() {
+                return locationCardsRenderer.render(userId, after, dashboard.getValue(), request, response);
+            }
+        });
 
         return "index";
     }
 
+    /**
+     * One {@code location} event per location of the page as soon as its weather is known, cached ones first;
+     * {@code unavailable} when OpenWeather fails for it, and {@code done} at the end.
+     */
+    @GetMapping(path = "/dashboard/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter dashboardStream(@RequestAttribute("userId") Long userId,
+                                      @RequestParam(name = "after", required = false) String after) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        if (!isValidCursor(after)) {
+            finish(emitter);
+            return emitter;
+        }
+        Map<Long, CompletableFuture<SavedLocationWeatherDTO>> weather =
+                weatherService.streamSavedLocationsWeather(userId, after);
+
+        AtomicInteger remaining = new AtomicInteger(weather.size());
+        if (weather.isEmpty()) {
+            finish(emitter);
+            return emitter;
+        }
+
+        List<Map.Entry<Long, CompletableFuture<SavedLocationWeatherDTO>>> cachedFirst = weather.entrySet().stream()
+                .sorted(Comparator.comparing(entry -> !entry.getValue().isDone()))
+                .toList();
+        for (Map.Entry<Long, CompletableFuture<SavedLocationWeatherDTO>> entry : cachedFirst) {
+            entry.getValue().whenComplete((location, ex) -> {
+                if (ex != null) {
+                    log.warn("Weather for location id={} is unavailable: {}", entry.getKey(), ex.getMessage());
+                    send(emitter, SseEmitter.event().name("unavailable").data(Map.of("id", entry.getKey())));
+                } else {
+                    send(emitter, SseEmitter.event().name("location").data(location, MediaType.APPLICATION_JSON));
+                }
+                if (remaining.decrementAndGet() == 0) {
+                    finish(emitter);
+                }
+            });
+        }
+        return emitter;
+    }
+
+    private static boolean isValidCursor(String after) {
+        try {
+            LocationCursor.decode(after);
+            return true;
+        } catch (IllegalArgumentException e) {
+            log.debug("Ignoring malformed dashboard cursor: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private static void finish(SseEmitter emitter) {
+        if (send(emitter, SseEmitter.event().name("done").data(""))) {
+            emitter.complete();
+        }
+    }
+
+    private static boolean send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // the page was closed or the stream timed out; the remaining events have nowhere to go
+            log.debug("Dashboard stream closed: {}", e.getMessage());
+            return false;
+        }
+    }
+
     @GetMapping("/add")
     public String locationAdd(Model model) {
         if (!model.containsAttribute("addLocationRequest")) {
@@ -47,27 +162,44 @@ public class WeatherController {
     }
 
     @GetMapping("/search")
-    public String locationSearch(@RequestParam(name = "query", required = false) String query,
-                                 Model model) {
+    public DeferredResult<String> locationSearch(@RequestParam(name = "query", required = false) String query,
+                                                 Model model) {
+        DeferredResult<String> result = new DeferredResult<>();
         if (query == null || query.isBlank()) {
             model.addAttribute("locations", java.util.List.of());
             model.addAttribute("query", "");
-            return "search";
-        }
-        try {
-            List<LocationDTO> findLocation = weatherService.findLocationsByName(query);
-            model.addAttribute("findLocation", findLocation);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            model.addAttribute("errorMessage", "Search was interrupted!");
-            return "search";
-        } catch (IOException e) {
-            log.warn("API error during location search", e);
-            model.addAttribute("errorMessage", "Unable to search locations");
-            return "search";
+            result.setResult("search");
+            return result;
         }
 
-        return "search";
+        Object lock = new Object();
+        result.onTimeout(() -> complete(result, lock, "search",
+                () -> model.addAttribute("errorMessage", "Search is taking longer than usual. Please try again.")));
+
+        weatherService.findLocationsByNameAsync(query).whenComplete((findLocation, ex) ->
+                complete(result, lock, "search", () -> {
+                    if (ex != null) {
+                        log.warn("API error during location search", ex);
+                        model.addAttribute("errorMessage", "Unable to search locations");
+                    } else {
+                        model.addAttribute("findLocation", findLocation);
+                    }
+                }));
+
+        return result;
+    }
+
+    /**
+     * Completion and timeout race for the same model; whichever comes first fills it and picks the view.
+     */
+    private static void complete(DeferredResult<String> result, Object lock, String view, Runnable fillModel) {
+        synchronized (lock) {
+            if (result.isSetOrExpired()) {
+                return;
+            }
+            fillModel.run();
+            result.setResult(view);
+        }
     }
 
     @PostMapping("/add")
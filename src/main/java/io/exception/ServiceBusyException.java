@@ -0,0 +1,12 @@
+package io.exception;
+
+public class ServiceBusyException extends AppException {
+
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+
+    public ServiceBusyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
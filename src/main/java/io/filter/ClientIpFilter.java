@@ -0,0 +1,150 @@
+package io.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Replaces the remote address with the client address from {@code X-Forwarded-For}, but only for
+ * requests that arrive from one of the configured load balancers. Entries are read right to left and
+ * the first one that is not a trusted proxy is the client, so a client cannot spoof its address by
+ * sending the header itself. Without configured proxies the header is ignored.
+ */
+@Component
+public class ClientIpFilter extends OncePerRequestFilter {
+
+    private static final String FORWARDED_FOR = "X-Forwarded-For";
+    private static final Pattern IPV4 = Pattern.compile("[0-9.]+");
+
+    private final List<IpRange> trustedProxies;
+
+    public ClientIpFilter(@Value("${server.forwarded.trusted-proxies:}") String trustedProxies) {
+        List<IpRange> ranges = new ArrayList<>();
+        for (String entry : trustedProxies.split(",")) {
+            if (!entry.isBlank()) {
+                ranges.add(IpRange.parse(entry.trim()));
+            }
+        }
+        this.trustedProxies = List.copyOf(ranges);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return trustedProxies.isEmpty();
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
+            throws IOException, ServletException {
+
+        String clientIp = resolve(req.getRemoteAddr(), Collections.list(req.getHeaders(FORWARDED_FOR)));
+        if (clientIp.equals(req.getRemoteAddr())) {
+            chain.doFilter(req, res);
+            return;
+        }
+        chain.doFilter(new HttpServletRequestWrapper(req) {
+            @Override
+            public String getRemoteAddr() {
+                return clientIp;
+            }
+
+            @Override
+            public String getRemoteHost() {
+                return clientIp;
+            }
+        }, res);
+    }
+
+    String resolve(String remoteAddr, List<String> forwardedFor) {
+        if (!isTrusted(remoteAddr)) {
+            return remoteAddr;
+        }
+        List<String> hops = new ArrayList<>();
+        for (String header : forwardedFor) {
+            Arrays.stream(header.split(",")).map(String::trim).filter(hop -> !hop.isEmpty()).forEach(hops::add);
+        }
+        String client = remoteAddr;
+        for (int i = hops.size() - 1; i >= 0; i--) {
+            String hop = hops.get(i);
+            if (parseLiteral(hop) == null) {
+                // garbage in the chain: the last trusted hop is the best we know
+                return client;
+            }
+            client = hop;
+            if (!isTrusted(hop)) {
+                return hop;
+            }
+        }
+        return client;
+    }
+
+    private boolean isTrusted(String address) {
+        byte[] bytes = parseLiteral(address);
+        return bytes != null && trustedProxies.stream().anyMatch(range -> range.contains(bytes));
+    }
+
+    // literals only: never resolve host names while filtering a request
+    private static byte[] parseLiteral(String address) {
+        if (address == null || !(IPV4.matcher(address).matches() || address.indexOf(':') >= 0)) {
+            return null;
+        }
+        try {
+            return InetAddress.getByName(address).getAddress();
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    private record IpRange(byte[] network, int prefix) {
+
+        static IpRange parse(String cidr) {
+            int slash = cidr.indexOf('/');
+            byte[] network = parseLiteral(slash < 0 ? cidr : cidr.substring(0, slash));
+            if (network == null) {
+                throw new IllegalArgumentException("Invalid trusted proxy address: " + cidr);
+            }
+            int prefix = slash < 0 ? network.length * 8 : Integer.parseInt(cidr.substring(slash + 1));
+            if (prefix < 0 || prefix > network.length * 8) {
+                throw new IllegalArgumentException("Invalid trusted proxy prefix: " + cidr);
+            }
+            return new IpRange(network, prefix);
+        }
+
+        boolean contains(byte[] address) {
+            if (address.length != network.length) {
+                return false;
+            }
+            int full = prefix / 8;
+            for (int i = 0; i < full; i++) {
+                if (address[i] != network[i]) {
+                    return false;
+                }
+            }
+            int rest = prefix % 8;
+            if (rest == 0) {
+                return true;
+            }
+            int mask = 0xFF << (8 - rest) & 0xFF;
+            return (address[full] & mask) == (network[full] & mask);
+        }
+    }
+}
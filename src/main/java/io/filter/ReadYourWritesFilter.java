@@ -0,0 +1,85 @@
+package io.filter;
+
+import io.config.ReadWriteRoutingDataSource;
+import io.web.CookiesUtil;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Keeps a client on the primary for a short window after it sent a mutating request, so that the
+ * redirect that follows a login or an added location doesn't read a lagging replica.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "db-primary-until";
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final ReadWriteRoutingDataSource routingDataSource;
+
+    @Value("${db.read-your-writes.window-sec:5}")
+    private long windowSec = 5;
+
+    @Value("${server.ssl.enabled:false}")
+    private boolean sslEnabled;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !routingDataSource.hasReplica();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
+            throws IOException, ServletException {
+
+        long now = System.currentTimeMillis();
+        boolean mutating = !SAFE_METHODS.contains(req.getMethod());
+        if (mutating) {
+            ResponseCookie cookie = ResponseCookie.from(COOKIE, Long.toString(now + windowSec * 1000))
+                    .path("/")
+                    .httpOnly(true)
+                    .secure(sslEnabled)
+                    .sameSite("Lax")
+                    .maxAge(Duration.ofSeconds(windowSec))
+                    .build();
+            res.addHeader("Set-Cookie", cookie.toString());
+        }
+
+        if (!mutating && !recentlyWrote(req, now)) {
+            chain.doFilter(req, res);
+            return;
+        }
+
+        ReadWriteRoutingDataSource.pinToPrimary();
+        try {
+            chain.doFilter(req, res);
+        } finally {
+            ReadWriteRoutingDataSource.clearPin();
+        }
+    }
+
+    private static boolean recentlyWrote(HttpServletRequest req, long now) {
+        String until = CookiesUtil.getCookie(req, COOKIE);
+        if (until == null) {
+            return false;
+        }
+        try {
+            return Long.parseLong(until) > now;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
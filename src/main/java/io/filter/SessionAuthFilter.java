@@ -7,14 +7,15 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Optional;
-import java.util.UUID;
 
 @Component
 @RequiredArgsConstructor
@@ -22,13 +23,23 @@ public class SessionAuthFilter extends OncePerRequestFilter {
 
     private final SessionService sessionService;
 
+    @Value("${server.ssl.enabled:false}")
+    private boolean sslEnabled;
+
+    @Value("${server.session.ttl-hours:24}")
+    private long sessionTtlHours;
+
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
         String path = request.getRequestURI();
         return path.startsWith("/auth/") ||
                 path.startsWith("/assets/") ||
                 path.startsWith("/css/") ||
-                path.startsWith("/js/");
+                path.startsWith("/js/") ||
+                path.startsWith("/resources/") ||
+                path.startsWith("/webjars/") ||
+                path.startsWith("/admin/") ||
+                path.equals("/favicon.ico");
     }
 
     @Override
@@ -38,19 +49,25 @@ public class SessionAuthFilter extends OncePerRequestFilter {
         String sessionCookie = CookiesUtil.getCookie(req, "session");
 
         if (sessionCookie != null) {
-            try {
-                UUID token = UUID.fromString(sessionCookie);
-                Optional<Long> userIdOpt = sessionService.getUserIdByValidToken(token);
-
-                if (userIdOpt.isPresent()) {
-                    req.setAttribute("userId", userIdOpt.get());
-                    chain.doFilter(req, res);
-                    return;
+            Optional<SessionService.ActiveSession> activeSession = sessionService.findActiveSession(sessionCookie);
+
+            if (activeSession.isPresent()) {
+                if (sessionService.extendIfNeeded(sessionCookie, activeSession.get())) {
+                    CookiesUtil.setSession(res, sessionCookie, Duration.ofHours(sessionTtlHours), sslEnabled);
                 }
-            } catch (IllegalArgumentException ignored) {
+                req.setAttribute("userId", activeSession.get().userId());
+                chain.doFilter(req, res);
+                return;
             }
         }
 
+        if (req.getRequestURI().startsWith("/api/")) {
+            res.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            res.setContentType("application/json");
+            res.getWriter().write("{\"error\":\"Authentication required.\"}");
+            return;
+        }
+
         String originalUri = req.getRequestURI() + (req.getQueryString() != null ? "?" + req.getQueryString() : "");
         String redirectUrl = "/auth/login?redirect=" + URLEncoder.encode(originalUri, StandardCharsets.UTF_8);
         res.sendRedirect(redirectUrl);
@@ -4,6 +4,9 @@ import io.model.apiweather.WeatherResponse;
 import io.model.dto.WeatherDTO;
 import org.mapstruct.*;
 
+import java.util.Locale;
+import java.util.ResourceBundle;
+
 @Mapper(
         componentModel = "spring",
         unmappedTargetPolicy = ReportingPolicy.IGNORE
@@ -15,7 +18,7 @@ public interface WeatherApiMapper {
     @Mapping(target = "temperature", source = "main.temp")
     @Mapping(target = "feelsLike", source = "main.feelsLike")
     @Mapping(target = "humidity", source = "main.humidity")
-    @Mapping(target = "description", ignore = true)
+    @Mapping(target = "conditionId", ignore = true)
     @Mapping(target = "iconUrl", ignore = true)
     WeatherDTO toDTO(WeatherResponse response);
 
@@ -24,10 +27,7 @@ public interface WeatherApiMapper {
         if (r != null && r.weather() != null && !r.weather().isEmpty()) {
             var w = r.weather().get(0);
             if (w != null) {
-                var desc = w.description();
-                if (desc != null && !desc.isBlank()) {
-                    dto.setDescription(desc);
-                }
+                dto.setConditionId(w.id());
                 var icon = w.icon();
                 if (icon != null && !icon.isBlank()) {
                     dto.setIconUrl(toIconUrl(icon));
@@ -36,6 +36,27 @@ public interface WeatherApiMapper {
         }
     }
 
+    /**
+     * Weather is fetched and cached without a language; the description is looked up here, per locale, from
+     * the condition id. Ids without an entry get the description of their group.
+     *
+     * @return the description, or {@code null} when the id is unknown
+     */
+    default String describe(Integer conditionId, Locale locale) {
+        if (conditionId == null) {
+            return null;
+        }
+        // no fallback to the JVM locale: a locale without a bundle of its own gets the base (English) one
+        ResourceBundle descriptions = ResourceBundle.getBundle("i18n.weather_conditions", locale,
+                ResourceBundle.Control.getNoFallbackControl(ResourceBundle.Control.FORMAT_PROPERTIES));
+        String key = conditionId.toString();
+        if (descriptions.containsKey(key)) {
+            return descriptions.getString(key);
+        }
+        String group = "group." + conditionId / 100;
+        return descriptions.containsKey(group) ? descriptions.getString(group) : null;
+    }
+
     @Named("toIconUrl")
     default String toIconUrl(String iconCode) {
         return "https://openweathermap.org/img/wn/" + iconCode + "@2x.png";
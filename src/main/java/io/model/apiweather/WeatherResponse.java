@@ -16,7 +16,7 @@ public record WeatherResponse(
     public record Coord(double lon, double lat) {
     }
 
-    public record Weather(String main, String description, String icon) {
+    public record Weather(Integer id, String main, String description, String icon) {
     }
 
     public record Main(Double temp, @JsonProperty("feels_like") Double feelsLike, Integer humidity) {
@@ -1,11 +1,12 @@
 package io.model.command;
 
+import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
 public record AddLocationRequest(
-        @Size(min = 1, max = 25) String name,
-        Double lat,
-        Double lon,
+        @NotNull @Size(min = 1, max = 25) String name,
+        @NotNull Double lat,
+        @NotNull Double lon,
         String country
 ) {
 }
@@ -0,0 +1,18 @@
+package io.model.dto;
+
+import java.util.List;
+
+/**
+ * @param pending locations still waiting for weather, filled in over the dashboard stream, or whose weather
+ *                could not be fetched
+ * @param version identifies what the cards were built from: location ids and weather snapshot versions,
+ *                which are content hashes and so the same on every node
+ * @param next    cursor of the following page, {@code null} on the last one
+ */
+public record DashboardDTO(
+        List<SavedLocationWeatherDTO> locations,
+        List<PendingLocationDTO> pending,
+        String version,
+        String next
+) {
+}
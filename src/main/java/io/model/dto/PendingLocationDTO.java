@@ -0,0 +1,10 @@
+package io.model.dto;
+
+/**
+ * A saved location whose weather is not known yet; rendered as a skeleton card.
+ */
+public record PendingLocationDTO(
+        Long id,
+        String name
+) {
+}
@@ -13,6 +13,9 @@ public class WeatherDTO {
     private Integer feelsLike;
     private Integer temperature;
     private Integer humidity;
-    private String description;
+    /**
+     * OpenWeather condition id; the description is localized from it, see WeatherApiMapper#describe.
+     */
+    private Integer conditionId;
     private String iconUrl;
 }
\ No newline at end of file
@@ -0,0 +1,79 @@
+package io.model.entity;
+
+import io.model.dto.WeatherDTO;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.sql.Timestamp;
+
+/**
+ * "Notify me when {@code metric} is {@code operator} {@code threshold} at this saved location", e.g.
+ * temperature below 0.
+ */
+@Entity
+@Table(name = "alert_rules")
+@Getter
+@Setter
+@NoArgsConstructor
+public class AlertRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "location_id", nullable = false)
+    private Long locationId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "metric", nullable = false, length = 16)
+    private Metric metric;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operator", nullable = false, length = 8)
+    private Operator operator;
+
+    @Column(name = "threshold", nullable = false)
+    private double threshold;
+
+    @Column(name = "last_triggered_at")
+    private Timestamp lastTriggeredAt;
+
+    public AlertRule(Long userId, Long locationId, Metric metric, Operator operator, double threshold) {
+        this.userId = userId;
+        this.locationId = locationId;
+        this.metric = metric;
+        this.operator = operator;
+        this.threshold = threshold;
+    }
+
+    public enum Metric {
+        TEMPERATURE,
+        FEELS_LIKE,
+        HUMIDITY;
+
+        /**
+         * @return the value, or {@code null} when OpenWeather did not report it
+         */
+        public Integer read(WeatherDTO weather) {
+            return switch (this) {
+                case TEMPERATURE -> weather.getTemperature();
+                case FEELS_LIKE -> weather.getFeelsLike();
+                case HUMIDITY -> weather.getHumidity();
+            };
+        }
+    }
+
+    public enum Operator {
+        BELOW,
+        ABOVE;
+
+        public boolean test(double observed, double threshold) {
+            return this == BELOW ? observed < threshold : observed > threshold;
+        }
+    }
+}
@@ -3,6 +3,8 @@ package io.model.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 
 @Getter
@@ -11,9 +13,15 @@ import lombok.*;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "locations")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Location.CACHE_REGION)
+@Table(name = "locations", uniqueConstraints = @UniqueConstraint(
+        name = "uk_locations_user_coords", columnNames = {"user_id", "latitude", "longitude"}))
 public class Location {
 
+    public static final String CACHE_REGION = "location";
+    public static final String BY_USER_QUERY_REGION = "locations-by-user";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -0,0 +1,39 @@
+package io.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.sql.Timestamp;
+
+@Entity
+@Table(name = "triggered_alerts")
+@Getter
+@Setter
+@NoArgsConstructor
+public class TriggeredAlert {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "rule_id", nullable = false)
+    private Long ruleId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "observed", nullable = false)
+    private double observed;
+
+    @Column(name = "triggered_at", nullable = false)
+    private Timestamp triggeredAt;
+
+    public TriggeredAlert(Long ruleId, Long userId, double observed, Timestamp triggeredAt) {
+        this.ruleId = ruleId;
+        this.userId = userId;
+        this.observed = observed;
+        this.triggeredAt = triggeredAt;
+    }
+}
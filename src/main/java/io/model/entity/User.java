@@ -29,4 +29,8 @@ public class User {
 
     @Column(name = "password", nullable = false, length = 60)
     private String password;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tier", nullable = false, length = 16)
+    private UserTier tier = UserTier.FREE;
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package io.model.entity;
+
+public enum UserTier {
+    FREE,
+    PLUS,
+    PRO
+}
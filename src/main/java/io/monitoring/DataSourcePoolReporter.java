@@ -0,0 +1,53 @@
+package io.monitoring;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.config.ReadWriteRoutingDataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Periodically logs the primary/replica split and the state of each connection pool.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DataSourcePoolReporter {
+
+    private final ReadWriteRoutingDataSource routingDataSource;
+
+    @Scheduled(fixedDelayString = "${monitoring.pool-stats.interval-ms:60000}",
+            initialDelayString = "${monitoring.pool-stats.interval-ms:60000}")
+    public void report() {
+        for (PoolStats pool : snapshot()) {
+            log.info("Pool '{}': routed={}, active={}, idle={}, total={}, waiting={}",
+                    pool.name(), pool.routed(), pool.active(), pool.idle(), pool.total(), pool.waiting());
+        }
+    }
+
+    public List<PoolStats> snapshot() {
+        List<PoolStats> result = new ArrayList<>();
+        for (Map.Entry<ReadWriteRoutingDataSource.Route, DataSource> entry : routingDataSource.pools().entrySet()) {
+            long routed = routingDataSource.routedCount(entry.getKey());
+            String name = entry.getKey().name().toLowerCase();
+            HikariPoolMXBean mx = entry.getValue() instanceof HikariDataSource hikari
+                    ? hikari.getHikariPoolMXBean()
+                    : null;
+            result.add(mx == null
+                    ? new PoolStats(name, routed, 0, 0, 0, 0)
+                    : new PoolStats(name, routed, mx.getActiveConnections(), mx.getIdleConnections(),
+                    mx.getTotalConnections(), mx.getThreadsAwaitingConnection()));
+        }
+        return result;
+    }
+
+    public record PoolStats(String name, long routed, int active, int idle, int total, int waiting) {
+    }
+}
@@ -0,0 +1,61 @@
+package io.monitoring;
+
+import io.model.entity.Location;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Periodically logs second-level and query cache hit ratios from Hibernate statistics.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HibernateCacheStatsReporter {
+
+    private final SessionFactory sessionFactory;
+
+    @Scheduled(fixedDelayString = "${monitoring.cache-stats.interval-ms:300000}",
+            initialDelayString = "${monitoring.cache-stats.interval-ms:300000}")
+    public void report() {
+        if (!sessionFactory.getStatistics().isStatisticsEnabled()) {
+            return;
+        }
+        for (RegionStats region : snapshot()) {
+            log.info("Cache region '{}': hits={}, misses={}, puts={}, hitRatio={}",
+                    region.name(), region.hits(), region.misses(), region.puts(),
+                    String.format("%.2f", region.hitRatio()));
+        }
+    }
+
+    public List<RegionStats> snapshot() {
+        Statistics stats = sessionFactory.getStatistics();
+        return List.of(
+                RegionStats.of(Location.CACHE_REGION, stats.getDomainDataRegionStatistics(Location.CACHE_REGION)),
+                RegionStats.of(Location.BY_USER_QUERY_REGION, stats.getQueryRegionStatistics(Location.BY_USER_QUERY_REGION)),
+                new RegionStats("second-level (all)", stats.getSecondLevelCacheHitCount(),
+                        stats.getSecondLevelCacheMissCount(), stats.getSecondLevelCachePutCount()),
+                new RegionStats("query (all)", stats.getQueryCacheHitCount(),
+                        stats.getQueryCacheMissCount(), stats.getQueryCachePutCount()));
+    }
+
+    public record RegionStats(String name, long hits, long misses, long puts) {
+
+        static RegionStats of(String name, CacheRegionStatistics region) {
+            return region == null
+                    ? new RegionStats(name, 0, 0, 0)
+                    : new RegionStats(name, region.getHitCount(), region.getMissCount(), region.getPutCount());
+        }
+
+        public double hitRatio() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+}
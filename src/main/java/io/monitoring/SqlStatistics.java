@@ -0,0 +1,135 @@
+package io.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Per-statement execution counts, timings and row counts, aggregated by normalized SQL.
+ * Fed by {@link SqlStatsDataSource}; statements slower than the threshold are logged with their call site.
+ */
+@Slf4j
+@Component
+public class SqlStatistics {
+
+    static final String OTHER = "<other statements>";
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final ConcurrentHashMap<String, StatementStats> statements = new ConcurrentHashMap<>();
+    private final int maxStatements;
+    private final long slowThresholdNanos;
+
+    @Autowired
+    public SqlStatistics(@Value("${monitoring.sql.max-statements:500}") int maxStatements,
+                         @Value("${monitoring.sql.slow-threshold-ms:200}") long slowThresholdMs) {
+        this.maxStatements = maxStatements;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMs);
+    }
+
+    public StatementStats forSql(String sql) {
+        String normalized = normalize(sql);
+        StatementStats stats = statements.get(normalized);
+        if (stats != null) {
+            return stats;
+        }
+        if (statements.size() >= maxStatements) {
+            return statements.computeIfAbsent(OTHER, k -> new StatementStats(k, this));
+        }
+        return statements.computeIfAbsent(normalized, k -> new StatementStats(k, this));
+    }
+
+    public List<Snapshot> snapshot() {
+        return statements.values().stream()
+                .map(StatementStats::snapshot)
+                .sorted(Comparator.comparingDouble(Snapshot::totalMs).reversed())
+                .toList();
+    }
+
+    public void reset() {
+        statements.clear();
+    }
+
+    static String normalize(String sql) {
+        String s = STRING_LITERAL.matcher(sql).replaceAll("?");
+        s = NUMBER.matcher(s).replaceAll("?");
+        s = IN_LIST.matcher(s).replaceAll("(?...)");
+        return WHITESPACE.matcher(s).replaceAll(" ").trim();
+    }
+
+    private void onExecuted(StatementStats stats, long nanos) {
+        if (nanos < slowThresholdNanos) {
+            return;
+        }
+        log.warn("Slow SQL ({} ms) at {}: {}", TimeUnit.NANOSECONDS.toMillis(nanos),
+                callSite().orElse("unknown"), stats.sql);
+    }
+
+    private static Optional<String> callSite() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(f -> f.getClassName().startsWith("io.")
+                        && !f.getClassName().startsWith("io.monitoring.")
+                        && !f.getClassName().startsWith("io.config."))
+                .findFirst()
+                .map(f -> f.getClassName() + "." + f.getMethodName() + ":" + f.getLineNumber()));
+    }
+
+    public static final class StatementStats {
+
+        private final String sql;
+        private final SqlStatistics owner;
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+
+        private StatementStats(String sql, SqlStatistics owner) {
+            this.sql = sql;
+            this.owner = owner;
+        }
+
+        public void recordExecution(long nanos) {
+            executions.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            owner.onExecuted(this, nanos);
+        }
+
+        // a failed execution still took time on the database, so it counts like any other
+        public void recordFailure(long nanos) {
+            failures.increment();
+            recordExecution(nanos);
+        }
+
+        public void addRows(long count) {
+            if (count > 0) {
+                rows.add(count);
+            }
+        }
+
+        Snapshot snapshot() {
+            long count = executions.sum();
+            double totalMs = totalNanos.sum() / 1e6;
+            return new Snapshot(sql, count, totalMs, count == 0 ? 0.0 : totalMs / count, maxNanos.get() / 1e6,
+                    rows.sum(), failures.sum());
+        }
+    }
+
+    public record Snapshot(String sql, long executions, double totalMs, double avgMs, double maxMs, long rows,
+                           long failures) {
+    }
+}
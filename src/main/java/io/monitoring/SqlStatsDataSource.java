@@ -0,0 +1,122 @@
+package io.monitoring;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * Times statement executions and counts affected/fetched rows into {@link SqlStatistics}.
+ * Executions that throw are timed and counted as failures.
+ */
+public class SqlStatsDataSource extends DelegatingDataSource {
+
+    private final SqlStatistics statistics;
+
+    public SqlStatsDataSource(DataSource target, SqlStatistics statistics) {
+        super(target);
+        this.statistics = statistics;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrapConnection(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrapConnection(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection wrapConnection(Connection target) {
+        return proxy(Connection.class, target, (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            return switch (method.getName()) {
+                case "prepareStatement", "prepareCall" ->
+                        wrapStatement((Statement) result, statistics.forSql((String) args[0]));
+                case "createStatement" -> wrapStatement((Statement) result, null);
+                default -> result;
+            };
+        });
+    }
+
+    private Statement wrapStatement(Statement target, SqlStatistics.StatementStats prepared) {
+        Class<? extends Statement> type = target instanceof CallableStatement ? CallableStatement.class
+                : target instanceof PreparedStatement ? PreparedStatement.class
+                : Statement.class;
+        return proxy(type, target, (proxy, method, args) -> {
+            String name = method.getName();
+            if (!name.startsWith("execute")) {
+                return invoke(target, method, args);
+            }
+
+            SqlStatistics.StatementStats stats = args != null && args.length > 0 && args[0] instanceof String sql
+                    ? statistics.forSql(sql)
+                    : prepared;
+            if (stats == null) {
+                return invoke(target, method, args);
+            }
+
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = invoke(target, method, args);
+            } catch (Throwable e) {
+                stats.recordFailure(System.nanoTime() - start);
+                throw e;
+            }
+            stats.recordExecution(System.nanoTime() - start);
+
+            if (result instanceof ResultSet rs) {
+                return wrapResultSet(rs, stats);
+            }
+            if (result instanceof Integer count) {
+                stats.addRows(count);
+            } else if (result instanceof Long count) {
+                stats.addRows(count);
+            } else if (result instanceof int[] counts) {
+                stats.addRows(Arrays.stream(counts).filter(c -> c > 0).sum());
+            }
+            return result;
+        });
+    }
+
+    private ResultSet wrapResultSet(ResultSet target, SqlStatistics.StatementStats stats) {
+        return proxy(ResultSet.class, target, (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            if ("next".equals(method.getName()) && Boolean.TRUE.equals(result)) {
+                stats.addRows(1);
+            }
+            return result;
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Object target, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(SqlStatsDataSource.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "unwrap" -> type.equals(args[0]) ? proxy : invoke(target, method, args);
+                    default -> handler.invoke(proxy, method, args);
+                });
+    }
+}
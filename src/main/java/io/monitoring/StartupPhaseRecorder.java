@@ -0,0 +1,77 @@
+package io.monitoring;
+
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.core.PriorityOrdered;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+
+/**
+ * Times the creation of the beans behind the expensive startup phases. Nested phases are subtracted,
+ * so Flyway does not also get charged for the pool it pulls in.
+ */
+@Component
+public class StartupPhaseRecorder implements InstantiationAwareBeanPostProcessor, PriorityOrdered {
+
+    private static final Map<String, String> PHASE_BY_BEAN = Map.of(
+            "routingDataSource", "Hikari pools",
+            "flyway", "Flyway migrate",
+            "sessionFactoryBean", "Hibernate SessionFactory",
+            "templateResolver", "Thymeleaf",
+            "templateEngine", "Thymeleaf",
+            "viewResolver", "Thymeleaf");
+
+    private final Deque<Frame> stack = new ArrayDeque<>();
+
+    @Override
+    public Object postProcessBeforeInstantiation(Class<?> beanClass, String beanName) {
+        String phase = PHASE_BY_BEAN.get(beanName);
+        if (phase != null) {
+            synchronized (stack) {
+                stack.push(new Frame(beanName, phase, System.nanoTime()));
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!PHASE_BY_BEAN.containsKey(beanName)) {
+            return bean;
+        }
+        synchronized (stack) {
+            // a FactoryBean's product comes through here a second time under the same name
+            if (stack.isEmpty() || !stack.peek().beanName.equals(beanName)) {
+                return bean;
+            }
+            Frame frame = stack.pop();
+            long totalNanos = System.nanoTime() - frame.startNanos;
+            StartupTimeline.record(frame.phase, (totalNanos - frame.nestedNanos) / 1_000_000);
+            if (!stack.isEmpty()) {
+                stack.peek().nestedNanos += totalNanos;
+            }
+        }
+        return bean;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    private static final class Frame {
+        final String beanName;
+        final String phase;
+        final long startNanos;
+        long nestedNanos;
+
+        Frame(String beanName, String phase, long startNanos) {
+            this.beanName = beanName;
+            this.phase = phase;
+            this.startNanos = startNanos;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package io.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Durations of the startup phases, collected across the root and web contexts and logged once
+ * the DispatcherServlet context is up.
+ */
+@Slf4j
+public final class StartupTimeline {
+
+    private static final Map<String, Long> PHASES = new LinkedHashMap<>();
+
+    private StartupTimeline() {
+    }
+
+    public static synchronized void record(String phase, long millis) {
+        PHASES.merge(phase, millis, Long::sum);
+    }
+
+    /**
+     * @param report whether this is the last context to come up and the breakdown should be logged
+     */
+    public static ApplicationListener<ContextRefreshedEvent> onRefresh(ApplicationContext context, String phase,
+                                                                       boolean report) {
+        return event -> {
+            if (event.getApplicationContext() != context) {
+                return;
+            }
+            record(phase, System.currentTimeMillis() - context.getStartupDate());
+            if (report) {
+                logBreakdown();
+            }
+        };
+    }
+
+    public static synchronized void logBreakdown() {
+        StringBuilder sb = new StringBuilder();
+        PHASES.forEach((phase, ms) -> sb.append(String.format("%n  %-28s %6d ms", phase, ms)));
+        log.info("Startup finished {} ms after JVM start:{}", ManagementFactory.getRuntimeMXBean().getUptime(), sb);
+    }
+}
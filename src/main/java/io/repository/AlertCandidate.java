@@ -0,0 +1,17 @@
+package io.repository;
+
+import io.model.entity.AlertRule;
+
+/**
+ * An alert rule due for evaluation, together with the coordinates of its location.
+ */
+public record AlertCandidate(
+        long ruleId,
+        long userId,
+        double lat,
+        double lon,
+        AlertRule.Metric metric,
+        AlertRule.Operator operator,
+        double threshold
+) {
+}
@@ -0,0 +1,112 @@
+package io.repository;
+
+import io.model.entity.AlertRule;
+import io.model.entity.TriggeredAlert;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class AlertRuleRepository {
+
+    private final SessionFactory sessionFactory;
+
+    private Session session() {
+        return sessionFactory.getCurrentSession();
+    }
+
+    public void save(AlertRule rule) {
+        session().persist(rule);
+    }
+
+    /**
+     * Next batch of rules, by id after {@code afterId}, that have not fired since {@code quietSince}.
+     */
+    public List<AlertCandidate> findDueBatch(long afterId, Timestamp quietSince, int limit) {
+        String hql = """
+                SELECT new io.repository.AlertCandidate(r.id, r.userId, l.latitude, l.longitude,
+                                                        r.metric, r.operator, r.threshold)
+                FROM AlertRule r
+                JOIN Location l ON l.id = r.locationId
+                WHERE r.id > :afterId
+                AND (r.lastTriggeredAt IS NULL OR r.lastTriggeredAt < :quietSince)
+                ORDER BY r.id ASC
+                """;
+        return session().createQuery(hql, AlertCandidate.class)
+                .setParameter("afterId", afterId)
+                .setParameter("quietSince", quietSince)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * One JDBC batch for all the alerts: IDENTITY ids would otherwise make Hibernate insert them one by one.
+     */
+    public void insertTriggered(List<TriggeredAlert> alerts) {
+        if (alerts.isEmpty()) {
+            return;
+        }
+        String sql = "INSERT INTO triggered_alerts (rule_id, user_id, observed, triggered_at) VALUES (?, ?, ?, ?)";
+        session().doWork(connection -> {
+            try (PreparedStatement insert = connection.prepareStatement(sql)) {
+                for (TriggeredAlert alert : alerts) {
+                    insert.setLong(1, alert.getRuleId());
+                    insert.setLong(2, alert.getUserId());
+                    insert.setDouble(3, alert.getObserved());
+                    insert.setTimestamp(4, alert.getTriggeredAt());
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        });
+    }
+
+    /**
+     * Marks each rule as triggered at {@code at}, but only if it has not fired since {@code quietSince}. The
+     * check and the update are one statement per rule, so when several nodes evaluate the same rule only one
+     * of them gets it: the others wait for its row lock and then no longer match.
+     *
+     * @return ids of the rules this call marked, in the given order
+     */
+    public List<Long> claimTriggered(List<Long> ruleIds, Timestamp at, Timestamp quietSince) {
+        if (ruleIds.isEmpty()) {
+            return List.of();
+        }
+        String sql = """
+                UPDATE alert_rules SET last_triggered_at = ?
+                WHERE id = ? AND (last_triggered_at IS NULL OR last_triggered_at < ?)
+                """;
+        return session().doReturningWork(connection -> {
+            try (PreparedStatement claim = connection.prepareStatement(sql)) {
+                for (Long ruleId : ruleIds) {
+                    claim.setTimestamp(1, at);
+                    claim.setLong(2, ruleId);
+                    claim.setTimestamp(3, quietSince);
+                    claim.addBatch();
+                }
+                int[] updated = claim.executeBatch();
+                List<Long> claimed = new ArrayList<>(ruleIds.size());
+                for (int i = 0; i < updated.length; i++) {
+                    if (updated[i] > 0) {
+                        claimed.add(ruleIds.get(i));
+                    }
+                }
+                return claimed;
+            }
+        });
+    }
+
+    public long countTriggeredByUser(Long userId) {
+        String hql = "SELECT count(a) FROM TriggeredAlert a WHERE a.userId = :userId";
+        return session().createQuery(hql, Long.class)
+                .setParameter("userId", userId)
+                .getSingleResult();
+    }
+}
@@ -0,0 +1,22 @@
+package io.repository;
+
+import org.hibernate.exception.ConstraintViolationException;
+
+import java.util.Locale;
+
+/**
+ * Names of the unique constraints that services turn into user-facing errors.
+ */
+public final class Constraints {
+
+    public static final String USERS_LOGIN = "users_login_key";
+    public static final String LOCATIONS_USER_COORDS = "uk_locations_user_coords";
+
+    private Constraints() {
+    }
+
+    public static boolean isViolationOf(ConstraintViolationException e, String constraint) {
+        String name = e.getConstraintName();
+        return name != null && name.toLowerCase(Locale.ROOT).contains(constraint);
+    }
+}
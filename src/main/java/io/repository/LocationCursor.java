@@ -0,0 +1,39 @@
+package io.repository;
+
+import io.model.entity.Location;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a user's locations ordered by (name, id): the last location of the previous page. Travels
+ * through URLs as an opaque token.
+ */
+public record LocationCursor(String name, long id) {
+
+    public static LocationCursor after(Location location) {
+        return new LocationCursor(location.getName(), location.getId());
+    }
+
+    /**
+     * @return the cursor, or {@code null} for a blank token (the first page)
+     * @throws IllegalArgumentException when the token was not produced by {@link #encode()}
+     */
+    public static LocationCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':');
+            return new LocationCursor(decoded.substring(separator + 1), Long.parseLong(decoded.substring(0, separator)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid page cursor.", e);
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((id + ":" + name).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,17 +1,27 @@
 package io.repository;
 
 import io.model.entity.Location;
+import io.model.entity.User;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.CacheMode;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.action.internal.BulkOperationCleanupAction;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
 import org.springframework.stereotype.Repository;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 @RequiredArgsConstructor
 public class LocationRepository {
 
+    private static final int SCAN_FETCH_SIZE = 10_000;
+
     private final SessionFactory sessionFactory;
 
     private Session session() {
@@ -22,47 +32,83 @@ public class LocationRepository {
         session().persist(location);
     }
 
-    public int countByUser(Long userId) {
-        String hql = """
-                SELECT count(l)
-                FROM Location l
-                WHERE l.userId = :userId
+    /**
+     * Inserts the location unless the user already has {@code maxPerUser} of them. The user's row is locked
+     * first, so concurrent adds of one user run one after another and each counts the rows committed before
+     * it; the lock is held until the surrounding transaction ends. A duplicate (user, coordinates) pair is
+     * rejected by the uk_locations_user_coords constraint.
+     * <p>
+     * The id comes back through the driver's generated keys, which PgJDBC reads with {@code RETURNING id};
+     * as the insert bypasses Hibernate, the locations table space is invalidated by hand, the way a native
+     * update synchronized on Location would be.
+     *
+     * @return id of the inserted location, empty when the limit has been reached
+     */
+    public Optional<Long> insertIfBelowLimit(Location location, int maxPerUser) {
+        session().createNativeQuery("SELECT id FROM users WHERE id = :userId FOR UPDATE", Long.class)
+                .addSynchronizedEntityClass(User.class)
+                .setParameter("userId", location.getUserId())
+                .getResultList();
+
+        String sql = """
+                INSERT INTO locations (name, user_id, latitude, longitude)
+                SELECT ?, ?, ?, ?
+                WHERE (SELECT count(*) FROM locations WHERE user_id = ?) < ?
                 """;
-        Long count = session().createQuery(hql, Long.class)
-                .setParameter("userId", userId)
-                .getSingleResult();
-        return Math.toIntExact(count);
+        Optional<Long> id = session().doReturningWork(connection -> {
+            try (PreparedStatement insert = connection.prepareStatement(sql, new String[]{"id"})) {
+                insert.setString(1, location.getName());
+                insert.setLong(2, location.getUserId());
+                insert.setDouble(3, location.getLatitude());
+                insert.setDouble(4, location.getLongitude());
+                insert.setLong(5, location.getUserId());
+                insert.setInt(6, maxPerUser);
+                if (insert.executeUpdate() == 0) {
+                    return Optional.empty();
+                }
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                    return Optional.of(keys.getLong(1));
+                }
+            }
+        });
+        if (id.isPresent()) {
+            SharedSessionContractImplementor session = session().unwrap(SharedSessionContractImplementor.class);
+            BulkOperationCleanupAction.schedule(session,
+                    session.getFactory().getMappingMetamodel().getEntityDescriptor(Location.class));
+        }
+        return id;
     }
 
-    public boolean existsByUserAndCoords(Long userId, double lat, double lon) {
-        String hql = """
-                SELECT 1
+    /**
+     * One page of the user's locations in (name, id) order, starting right after {@code after}, or from the
+     * first location when it is {@code null}. Served by idx_locations_user_name_id however deep the page is.
+     */
+    public List<Location> findPageByUserId(Long userId, LocationCursor after, int limit) {
+        String hql = after == null
+                ? """
                 FROM Location l
                 WHERE l.userId = :userId
-                AND l.latitude = :lat
-                AND l.longitude = :lon
-                """;
-
-        var results = session().createQuery(hql, Integer.class)
-                .setParameter("userId", userId)
-                .setParameter("lat", lat)
-                .setParameter("lon", lon)
-                .setMaxResults(1)
-                .getResultList();
-
-        return !results.isEmpty();
-    }
-
-    public List<Location> findAllByUserId(Long userId) {
-        String hql = """
+                ORDER BY l.name ASC, l.id ASC
+                """
+                : """
                 FROM Location l
                 WHERE l.userId = :userId
-                ORDER BY l.name ASC
+                AND (l.name > :name OR (l.name = :name AND l.id > :id))
+                ORDER BY l.name ASC, l.id ASC
                 """;
-        return session()
+        var query = session()
                 .createQuery(hql, Location.class)
                 .setParameter("userId", userId)
-                .getResultList();
+                .setMaxResults(limit)
+                // invalidated through the locations table space by persist, native and HQL bulk statements
+                .setCacheable(true)
+                .setCacheRegion(Location.BY_USER_QUERY_REGION);
+        if (after != null) {
+            query.setParameter("name", after.name())
+                    .setParameter("id", after.id());
+        }
+        return query.getResultList();
     }
 
     public int deleteLocationByUserId(Long userId, Long locationId) {
@@ -76,4 +122,24 @@ public class LocationRepository {
                 .setParameter("userId", userId)
                 .executeUpdate();
     }
+
+    /**
+     * Streams id, user id and coordinates of every location without loading entities or touching the
+     * second-level cache. Needs a transaction, or the driver fetches the whole table at once.
+     */
+    public void scanCoordinates(CoordinatesConsumer consumer) {
+        String hql = "SELECT l.id, l.userId, l.latitude, l.longitude FROM Location l";
+        try (Stream<Object[]> rows = session().createQuery(hql, Object[].class)
+                .setReadOnly(true)
+                .setFetchSize(SCAN_FETCH_SIZE)
+                .setCacheMode(CacheMode.IGNORE)
+                .getResultStream()) {
+            rows.forEach(row -> consumer.accept((Long) row[0], (Long) row[1], (Double) row[2], (Double) row[3]));
+        }
+    }
+
+    @FunctionalInterface
+    public interface CoordinatesConsumer {
+        void accept(long locationId, long userId, double lat, double lon);
+    }
 }
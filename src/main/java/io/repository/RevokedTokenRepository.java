@@ -0,0 +1,55 @@
+package io.repository;
+
+import io.model.entity.RevokedToken;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class RevokedTokenRepository {
+
+    private final SessionFactory sessionFactory;
+
+    private org.hibernate.Session session() {
+        return sessionFactory.getCurrentSession();
+    }
+
+    public void save(RevokedToken revokedToken) {
+        session().merge(revokedToken);
+    }
+
+    public List<RevokedToken> findActiveRevokedSince(Instant since) {
+        String hql = """
+                FROM RevokedToken r
+                WHERE r.revokedAt >= :since
+                AND r.expiresAt > :now
+                """;
+        return session()
+                .createQuery(hql, RevokedToken.class)
+                .setParameter("since", Timestamp.from(since))
+                .setParameter("now", Timestamp.from(Instant.now()))
+                .getResultList();
+    }
+
+    public int deleteExpiredBatch(int limit) {
+        String sql = """
+                DELETE FROM revoked_tokens
+                WHERE token_id IN (
+                    SELECT token_id FROM revoked_tokens
+                    WHERE expires_at <= :now
+                    ORDER BY expires_at
+                    LIMIT :limit
+                )
+                """;
+        return session().createNativeQuery(sql, Object.class)
+                .addSynchronizedEntityClass(RevokedToken.class)
+                .setParameter("now", Timestamp.from(Instant.now()))
+                .setParameter("limit", limit)
+                .executeUpdate();
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.stereotype.Repository;
 
 import java.sql.Timestamp;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -48,10 +49,35 @@ public class SessionRepository {
                 .executeUpdate();
     }
 
-    public int deleteAllExpired() {
-        String hql = "DELETE FROM Session s WHERE expiresAt <= :now";
+    public int extendExpiry(Collection<UUID> ids, Instant expiresAt) {
+        String hql = """
+                UPDATE Session s
+                SET s.expiresAt = :expiresAt
+                WHERE s.id IN :ids
+                AND s.expiresAt > :now
+                AND s.expiresAt < :expiresAt
+                """;
         return session().createMutationQuery(hql)
+                .setParameter("expiresAt", Timestamp.from(expiresAt))
+                .setParameter("ids", ids)
+                .setParameter("now", Timestamp.from(Instant.now()))
+                .executeUpdate();
+    }
+
+    public int deleteExpiredBatch(int limit) {
+        String sql = """
+                DELETE FROM sessions
+                WHERE id IN (
+                    SELECT id FROM sessions
+                    WHERE expires_at <= :now
+                    ORDER BY expires_at
+                    LIMIT :limit
+                )
+                """;
+        return session().createNativeQuery(sql, Object.class)
+                .addSynchronizedEntityClass(Session.class)
                 .setParameter("now", Timestamp.from(Instant.now()))
+                .setParameter("limit", limit)
                 .executeUpdate();
     }
 }
@@ -1,6 +1,7 @@
 package io.repository;
 
 import io.model.entity.User;
+import io.model.entity.UserTier;
 import lombok.RequiredArgsConstructor;
 import org.hibernate.SessionFactory;
 import org.springframework.stereotype.Repository;
@@ -22,6 +23,7 @@ public class UserRepository {
         return Optional.ofNullable(session().get(User.class, id));
     }
 
+    @Transactional
     public User save(User user) {
         session().persist(user);
         return user;
@@ -35,4 +37,12 @@ public class UserRepository {
                 .setParameter("login", login)
                 .uniqueResultOptional();
     }
+
+    public Optional<UserTier> findTierById(Long id) {
+        String hql = "SELECT u.tier FROM User u WHERE u.id = :id";
+        return session()
+                .createQuery(hql, UserTier.class)
+                .setParameter("id", id)
+                .uniqueResultOptional();
+    }
 }
@@ -0,0 +1,87 @@
+package io.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory throttle for failed login attempts, keyed by normalized login and by client IP.
+ * Checked before any DB lookup or BCrypt work; memory is fixed regardless of key count.
+ * Successful logins are handed back through {@link #onSuccess}, so only failures use up the limit.
+ */
+@Slf4j
+@Component
+public class LoginThrottle {
+
+    private final StripedWindowCounter byLogin;
+    private final StripedWindowCounter byIp;
+    private final int perLoginLimit;
+    private final int perIpLimit;
+
+    private final LongAdder rejected = new LongAdder();
+
+    public LoginThrottle(@Value("${security.login-throttle.per-login:10}") int perLoginLimit,
+                         @Value("${security.login-throttle.per-ip:50}") int perIpLimit,
+                         @Value("${security.login-throttle.window-sec:60}") long windowSec,
+                         @Value("${security.login-throttle.stripes:65536}") int stripes) {
+        this.perLoginLimit = perLoginLimit;
+        this.perIpLimit = perIpLimit;
+        this.byLogin = new StripedWindowCounter(stripes, windowSec * 1000);
+        this.byIp = new StripedWindowCounter(stripes, windowSec * 1000);
+    }
+
+    public boolean tryAcquire(String login, String clientIp) {
+        return tryAcquire(login, clientIp, System.currentTimeMillis());
+    }
+
+    boolean tryAcquire(String login, String clientIp, long nowMs) {
+        String normalizedLogin = normalize(login);
+        String ip = clientIp == null ? "" : clientIp;
+
+        if (!byIp.tryAcquire(ip, perIpLimit, nowMs)) {
+            reject("ip", ip);
+            return false;
+        }
+        if (!byLogin.tryAcquire(normalizedLogin, perLoginLimit, nowMs)) {
+            byIp.release(ip, nowMs);
+            reject("login", normalizedLogin);
+            return false;
+        }
+        return true;
+    }
+
+    public void onSuccess(String login, String clientIp) {
+        onSuccess(login, clientIp, System.currentTimeMillis());
+    }
+
+    void onSuccess(String login, String clientIp, long nowMs) {
+        byIp.release(clientIp == null ? "" : clientIp, nowMs);
+        byLogin.release(normalize(login), nowMs);
+    }
+
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    public Stats stats() {
+        return new Stats(rejectedCount(), perLoginLimit, perIpLimit);
+    }
+
+    private static String normalize(String login) {
+        return login == null ? "" : login.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private void reject(String keyType, String key) {
+        rejected.increment();
+        log.debug("Login attempt throttled by {} key '{}'", keyType, key);
+    }
+
+    /**
+     * @param rejected attempts turned away since startup
+     */
+    public record Stats(long rejected, int perLoginLimit, int perIpLimit) {
+    }
+}
@@ -0,0 +1,134 @@
+package io.security;
+
+import io.exception.ServiceBusyException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.mindrot.jbcrypt.BCrypt;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bulkhead around BCrypt: hashes run on a dedicated, size-bounded pool, so at most pool size + queue
+ * capacity requests wait on BCrypt at a time and a login spike cannot occupy every servlet thread. The
+ * caller's thread still waits for its own hash. When the pool and its queue are full callers get a
+ * {@link ServiceBusyException}.
+ */
+@Slf4j
+@Component
+public class PasswordHasher {
+
+    private static final String BUSY_MESSAGE = "The server is busy right now. Please try again in a moment.";
+
+    private final ThreadPoolExecutor executor;
+    private final int cost;
+    private final long waitTimeoutMs;
+
+    private final LongAdder hashCount = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+    private final LongAdder rejected = new LongAdder();
+
+    public PasswordHasher(@Value("${security.bcrypt.cost:10}") int cost,
+                          @Value("${security.bcrypt.pool-size:0}") int poolSize,
+                          @Value("${security.bcrypt.queue-capacity:32}") int queueCapacity,
+                          @Value("${security.bcrypt.wait-timeout-ms:5000}") long waitTimeoutMs) {
+        if (cost < 4 || cost > 31) {
+            throw new IllegalArgumentException("security.bcrypt.cost must be between 4 and 31");
+        }
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        BlockingQueue<Runnable> queue = queueCapacity > 0
+                ? new ArrayBlockingQueue<>(queueCapacity)
+                : new SynchronousQueue<>();
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        this.cost = cost;
+        this.waitTimeoutMs = waitTimeoutMs;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, queue, r -> {
+            Thread t = new Thread(r, "bcrypt-" + threadNumber.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public String hash(String plainPassword) {
+        return submit(() -> BCrypt.hashpw(plainPassword, BCrypt.gensalt(cost)));
+    }
+
+    public boolean matches(String plainPassword, String hashedPassword) {
+        return submit(() -> BCrypt.checkpw(plainPassword, hashedPassword));
+    }
+
+    /**
+     * Latency of the hashes and checks run so far, and how full the pool is right now.
+     */
+    public Stats stats() {
+        long count = hashCount.sum();
+        long avgMicros = count > 0 ? TimeUnit.NANOSECONDS.toMicros(hashNanos.sum() / count) : 0;
+        return new Stats(count, avgMicros, TimeUnit.NANOSECONDS.toMicros(maxHashNanos.get()),
+                rejected.sum(), executor.getQueue().size(), executor.getActiveCount());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T submit(Callable<T> work) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timed(work));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("BCrypt pool saturated (active={}, queued={}), rejecting request",
+                    executor.getActiveCount(), executor.getQueue().size());
+            throw new ServiceBusyException(BUSY_MESSAGE, e);
+        }
+
+        try {
+            return future.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new ServiceBusyException(BUSY_MESSAGE, e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException(BUSY_MESSAGE, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("BCrypt failed", cause);
+        }
+    }
+
+    private <T> T timed(Callable<T> work) throws Exception {
+        long startedAt = System.nanoTime();
+        try {
+            return work.call();
+        } finally {
+            long took = System.nanoTime() - startedAt;
+            hashCount.increment();
+            hashNanos.add(took);
+            maxHashNanos.accumulateAndGet(took, Math::max);
+        }
+    }
+
+    public record Stats(long hashes, long avgMicros, long maxMicros, long rejected, int queued, int active) {
+    }
+}
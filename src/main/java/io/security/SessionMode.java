@@ -0,0 +1,12 @@
+package io.security;
+
+public enum SessionMode {
+    /**
+     * Opaque UUID tokens validated against the sessions table.
+     */
+    DB,
+    /**
+     * HMAC-signed tokens carrying userId and expiry, validated without the DB.
+     */
+    SIGNED
+}
@@ -0,0 +1,108 @@
+package io.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Issues and verifies stateless session tokens of the form
+ * {@code base64url(userId:expiresAtEpochSec:tokenId).base64url(hmacSha256)}.
+ */
+@Component
+public class SignedSessionTokens {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MAX_TOKEN_LENGTH = 256;
+    private static final int TOKEN_ID_BYTES = 12;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecureRandom random = new SecureRandom();
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> mac;
+
+    public SignedSessionTokens(@Value("${server.session.signing-key:}") String base64Key) {
+        if (base64Key == null || base64Key.isBlank()) {
+            this.key = null;
+            this.mac = null;
+            return;
+        }
+        byte[] keyBytes = Base64.getDecoder().decode(base64Key.trim());
+        if (keyBytes.length < 32) {
+            throw new IllegalStateException("server.session.signing-key must be at least 256 bits");
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+        this.mac = ThreadLocal.withInitial(this::newMac);
+    }
+
+    public boolean isConfigured() {
+        return key != null;
+    }
+
+    public String issue(long userId, Instant expiresAt) {
+        byte[] id = new byte[TOKEN_ID_BYTES];
+        random.nextBytes(id);
+        String payload = userId + ":" + expiresAt.getEpochSecond() + ":" + ENCODER.encodeToString(id);
+        byte[] payloadBytes = payload.getBytes(StandardCharsets.US_ASCII);
+        return ENCODER.encodeToString(payloadBytes) + "." + ENCODER.encodeToString(sign(payloadBytes));
+    }
+
+    public Optional<SignedToken> verify(String token, Instant now) {
+        if (token == null || token.length() > MAX_TOKEN_LENGTH) {
+            return Optional.empty();
+        }
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot != token.lastIndexOf('.')) {
+            return Optional.empty();
+        }
+        try {
+            byte[] payloadBytes = DECODER.decode(token.substring(0, dot));
+            byte[] signature = DECODER.decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(sign(payloadBytes), signature)) {
+                return Optional.empty();
+            }
+
+            String[] parts = new String(payloadBytes, StandardCharsets.US_ASCII).split(":", 3);
+            if (parts.length != 3) {
+                return Optional.empty();
+            }
+            Instant expiresAt = Instant.ofEpochSecond(Long.parseLong(parts[1]));
+            if (!now.isBefore(expiresAt)) {
+                return Optional.empty();
+            }
+            return Optional.of(new SignedToken(Long.parseLong(parts[0]), expiresAt, parts[2]));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private byte[] sign(byte[] payload) {
+        if (key == null) {
+            throw new IllegalStateException("server.session.signing-key is not configured");
+        }
+        return mac.get().doFinal(payload);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac m = Mac.getInstance(ALGORITHM);
+            m.init(key);
+            return m;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to initialise " + ALGORITHM, e);
+        }
+    }
+
+    public record SignedToken(long userId, Instant expiresAt, String tokenId) {
+    }
+}
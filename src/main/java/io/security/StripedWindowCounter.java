@@ -0,0 +1,112 @@
+package io.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-memory sliding-window rate counter. Keys are hashed onto a striped array of slots
+ * (two independent slots per key, count-min style), so memory does not grow with the number
+ * of distinct keys. Each slot packs the window number and the previous/current window counts
+ * into one long that is updated lock-free. The check and the increment for one key run under a
+ * small striped lock, so concurrent attempts cannot all pass the check before any of them counts.
+ */
+final class StripedWindowCounter {
+
+    private static final int MAX_COUNT = 0xFFFF;
+    private static final int LOCK_STRIPES = 64;
+
+    private final AtomicLongArray slots;
+    private final int mask;
+    private final long windowMs;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    StripedWindowCounter(int stripes, long windowMs) {
+        int size = Integer.highestOneBit(Math.max(2, stripes - 1)) << 1;
+        this.slots = new AtomicLongArray(size);
+        this.mask = size - 1;
+        this.windowMs = windowMs;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Counts one event for the key unless the sliding-window estimate already reached the limit.
+     *
+     * @return true when the event is allowed
+     */
+    boolean tryAcquire(String key, int limit, long nowMs) {
+        long h = BloomFilter.hash64(key);
+        int first = firstSlot(h);
+        int second = secondSlot(h, first);
+
+        long window = nowMs / windowMs;
+        double elapsed = (double) (nowMs % windowMs) / windowMs;
+        // other keys sharing a slot may still add to it concurrently, which only over-counts
+        synchronized (locks[first & (LOCK_STRIPES - 1)]) {
+            if (Math.min(estimate(first, window, elapsed), estimate(second, window, elapsed)) >= limit) {
+                return false;
+            }
+            add(first, window, 1);
+            add(second, window, 1);
+        }
+        return true;
+    }
+
+    /**
+     * Takes back one event previously counted for the key in the current window.
+     */
+    void release(String key, long nowMs) {
+        long h = BloomFilter.hash64(key);
+        int first = firstSlot(h);
+        int second = secondSlot(h, first);
+
+        long window = nowMs / windowMs;
+        synchronized (locks[first & (LOCK_STRIPES - 1)]) {
+            add(first, window, -1);
+            add(second, window, -1);
+        }
+    }
+
+    private int firstSlot(long h) {
+        return (int) h & mask;
+    }
+
+    private int secondSlot(long h, int first) {
+        int second = (int) (h >>> 32) & mask;
+        return second == first ? (first + 1) & mask : second;
+    }
+
+    private double estimate(int slot, long window, double elapsed) {
+        long packed = roll(slots.get(slot), window);
+        return previous(packed) * (1 - elapsed) + current(packed);
+    }
+
+    private void add(int slot, long window, int delta) {
+        long prev;
+        long next;
+        do {
+            prev = slots.get(slot);
+            long rolled = roll(prev, window);
+            int count = Math.max(0, Math.min(MAX_COUNT, current(rolled) + delta));
+            next = (rolled & ~0xFFFFL) | count;
+        } while (!slots.compareAndSet(slot, prev, next));
+    }
+
+    private static long roll(long packed, long window) {
+        long slotWindow = packed >>> 32;
+        long w = window & 0xFFFFFFFFL;
+        if (slotWindow == w) {
+            return packed;
+        }
+        int previous = slotWindow == ((w - 1) & 0xFFFFFFFFL) ? current(packed) : 0;
+        return (w << 32) | ((long) previous << 16);
+    }
+
+    private static int previous(long packed) {
+        return (int) (packed >>> 16) & MAX_COUNT;
+    }
+
+    private static int current(long packed) {
+        return (int) packed & MAX_COUNT;
+    }
+}
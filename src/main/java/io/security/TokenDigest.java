@@ -0,0 +1,28 @@
+package io.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * One-way digest of a session token, for places where the token itself must not appear, such as
+ * NOTIFY payloads and the keys of node-local caches that are invalidated through them.
+ */
+public final class TokenDigest {
+
+    private static final int DIGEST_BYTES = 16;
+
+    private TokenDigest() {
+    }
+
+    public static String of(String token) {
+        try {
+            byte[] sha256 = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(sha256, DIGEST_BYTES));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package io.security;
+
+import io.cache.invalidation.InvalidationEvent;
+import io.cache.invalidation.InvalidationListener;
+import io.model.entity.RevokedToken;
+import io.repository.RevokedTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revoked signed-session ids, shared across nodes through the {@code revoked_tokens} table.
+ * Each node keeps a Bloom filter in front of an exact in-memory set. Revocations made elsewhere
+ * arrive through the invalidation bus right away and through polling of the table otherwise.
+ */
+@Slf4j
+@Component
+public class TokenRevocationList implements InvalidationListener {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+    private final int expectedEntries;
+    private final Duration syncOverlap;
+
+    private volatile BloomFilter bloom;
+    private volatile Instant lastSync = Instant.EPOCH;
+
+    @Value("${server.session.mode:DB}")
+    private SessionMode sessionMode = SessionMode.DB;
+
+    public TokenRevocationList(RevokedTokenRepository revokedTokenRepository,
+                               @Value("${server.session.revocation.expected-entries:100000}") int expectedEntries,
+                               @Value("${server.session.revocation.sync-overlap-sec:30}") long syncOverlapSec) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedEntries = expectedEntries;
+        this.syncOverlap = Duration.ofSeconds(syncOverlapSec);
+        this.bloom = new BloomFilter(expectedEntries, 0.01);
+    }
+
+    public boolean isRevoked(String tokenId) {
+        return bloom.mightContain(tokenId) && revoked.containsKey(tokenId);
+    }
+
+    @Transactional
+    public void revoke(String tokenId, Instant expiresAt) {
+        Instant now = Instant.now();
+        revokedTokenRepository.save(new RevokedToken(tokenId, Timestamp.from(expiresAt), Timestamp.from(now)));
+        remember(tokenId, expiresAt);
+    }
+
+    @Transactional(readOnly = true)
+    @Scheduled(fixedDelayString = "${server.session.revocation.sync-ms:5000}")
+    public void sync() {
+        if (sessionMode != SessionMode.SIGNED) {
+            return;
+        }
+        Instant startedAt = Instant.now();
+        List<RevokedToken> fresh = revokedTokenRepository.findActiveRevokedSince(lastSync.minus(syncOverlap));
+        for (RevokedToken token : fresh) {
+            remember(token.getTokenId(), token.getExpiresAt().toInstant());
+        }
+        lastSync = startedAt;
+        purgeExpired(startedAt);
+    }
+
+    /**
+     * Forgets expired ids in memory and deletes at most {@code batchSize} of them from the table.
+     *
+     * @return number of rows deleted
+     */
+    @Transactional
+    public int cleanUpExpired(int batchSize) {
+        purgeExpired(Instant.now());
+        return revokedTokenRepository.deleteExpiredBatch(batchSize);
+    }
+
+    @Override
+    public void onInvalidate(List<InvalidationEvent> events) {
+        for (InvalidationEvent event : events) {
+            if (event.type() != InvalidationEvent.Type.REVOKED_TOKEN) {
+                continue;
+            }
+            int sep = event.key().lastIndexOf(':');
+            try {
+                remember(event.key().substring(0, sep),
+                        Instant.ofEpochSecond(Long.parseLong(event.key().substring(sep + 1))));
+            } catch (RuntimeException e) {
+                log.debug("Ignoring malformed revocation event {}", event);
+            }
+        }
+    }
+
+    // events may have been missed: the next sync reads every active revocation again
+    @Override
+    public void onResync() {
+        lastSync = Instant.EPOCH;
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    // remember and purgeExpired are serialized so that a filter is only published once it holds every
+    // remembered id; isRevoked stays lock-free
+    private synchronized void remember(String tokenId, Instant expiresAt) {
+        if (revoked.put(tokenId, expiresAt) == null) {
+            bloom.add(tokenId);
+        }
+    }
+
+    // A Bloom filter cannot forget, so it is rebuilt once expired ids have been dropped.
+    private synchronized void purgeExpired(Instant now) {
+        if (!revoked.values().removeIf(expiresAt -> !now.isBefore(expiresAt))) {
+            return;
+        }
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, revoked.size()), 0.01);
+        revoked.keySet().forEach(rebuilt::add);
+        bloom = rebuilt;
+        log.debug("Rebuilt revocation filter with {} entries", revoked.size());
+    }
+}
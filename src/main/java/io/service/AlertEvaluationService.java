@@ -0,0 +1,168 @@
+package io.service;
+
+import io.model.dto.WeatherDTO;
+import io.model.entity.TriggeredAlert;
+import io.repository.AlertCandidate;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Evaluates alert rules in batches. Rules of a batch are grouped by rounded coordinates and each group's
+ * weather is fetched once, at the stored coordinates of one of its rules, a few groups at a time; the weather
+ * cache spares the refetch when a coordinate shows up again in a later batch. Triggered alerts of a batch are written together.
+ */
+@Slf4j
+@Service
+public class AlertEvaluationService {
+
+    private final AlertService alertService;
+    private final WeatherService weatherService;
+    private final int batchSize;
+    private final int fetchConcurrency;
+    private final double coordinateScale;
+
+    private final AtomicReference<Run> lastRun = new AtomicReference<>();
+    private volatile boolean stopped;
+
+    public AlertEvaluationService(AlertService alertService,
+                                  WeatherService weatherService,
+                                  @Value("${alerts.evaluation.batch-size:500}") int batchSize,
+                                  @Value("${alerts.evaluation.fetch-concurrency:8}") int fetchConcurrency,
+                                  @Value("${alerts.evaluation.coordinate-decimals:2}") int coordinateDecimals) {
+        if (batchSize <= 0 || fetchConcurrency <= 0) {
+            throw new IllegalArgumentException("alerts.evaluation batch size and fetch concurrency must be positive");
+        }
+        this.alertService = alertService;
+        this.weatherService = weatherService;
+        this.batchSize = batchSize;
+        this.fetchConcurrency = fetchConcurrency;
+        this.coordinateScale = Math.pow(10, coordinateDecimals);
+    }
+
+    @Scheduled(fixedDelayString = "${alerts.evaluation.interval-ms:300000}",
+            initialDelayString = "${alerts.evaluation.initial-delay-ms:60000}")
+    public Run evaluate() {
+        long startedAt = System.nanoTime();
+        Set<Coordinates> coordinates = new HashSet<>();
+        long afterRuleId = 0;
+        int rules = 0;
+        int triggered = 0;
+        int unavailable = 0;
+
+        while (!stopped) {
+            List<AlertCandidate> batch = alertService.findDueBatch(afterRuleId, batchSize);
+            if (batch.isEmpty()) {
+                break;
+            }
+            afterRuleId = batch.get(batch.size() - 1).ruleId();
+
+            Map<Coordinates, List<AlertCandidate>> byCoordinates = new LinkedHashMap<>();
+            for (AlertCandidate rule : batch) {
+                byCoordinates.computeIfAbsent(round(rule.lat(), rule.lon()), c -> new ArrayList<>()).add(rule);
+            }
+            coordinates.addAll(byCoordinates.keySet());
+
+            List<TriggeredAlert> fired = new ArrayList<>();
+            unavailable += evaluate(byCoordinates, Timestamp.from(Instant.now()), fired);
+            triggered += alertService.recordTriggered(fired);
+            rules += batch.size();
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+
+        long totalNanos = System.nanoTime() - startedAt;
+        Run run = new Run(rules, coordinates.size(), triggered, unavailable, TimeUnit.NANOSECONDS.toMillis(totalNanos),
+                totalNanos > 0 ? Math.round(rules * 1e9 / totalNanos) : 0);
+        lastRun.set(run);
+        log.info("Alert evaluation finished. Rules: {}, coordinates: {}, triggered: {}, without weather: {}, "
+                        + "took {} ms, rate: {} rules/s",
+                run.rules(), run.coordinates(), run.triggered(), run.unavailable(), run.millis(), run.rulesPerSecond());
+        return run;
+    }
+
+    public Run lastRun() {
+        return lastRun.get();
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * @return number of rules left unevaluated because the weather of their coordinates is unavailable
+     */
+    private int evaluate(Map<Coordinates, List<AlertCandidate>> byCoordinates, Timestamp now, List<TriggeredAlert> fired) {
+        List<Map.Entry<Coordinates, List<AlertCandidate>>> groups = new ArrayList<>(byCoordinates.entrySet());
+        int unavailable = 0;
+
+        for (int from = 0; from < groups.size(); from += fetchConcurrency) {
+            List<Map.Entry<Coordinates, List<AlertCandidate>>> window =
+                    groups.subList(from, Math.min(from + fetchConcurrency, groups.size()));
+            List<CompletableFuture<WeatherDTO>> weather = window.stream()
+                    .map(group -> fetchWeather(group.getValue().get(0)))
+                    .toList();
+
+            for (int i = 0; i < window.size(); i++) {
+                List<AlertCandidate> rules = window.get(i).getValue();
+                try {
+                    check(rules, weather.get(i).join(), now, fired);
+                } catch (CompletionException | CancellationException e) {
+                    log.warn("Weather at {} is unavailable, skipping {} alert rules: {}",
+                            window.get(i).getKey(), rules.size(), e.getMessage());
+                    unavailable += rules.size();
+                }
+            }
+        }
+        return unavailable;
+    }
+
+    /**
+     * Fetched at a member rule's stored coordinates rather than the rounded group key, so the weather cache
+     * entry is the one the dashboard of that location uses too.
+     */
+    private CompletableFuture<WeatherDTO> fetchWeather(AlertCandidate rule) {
+        return weatherService.fetchWeatherAsync(rule.lat(), rule.lon());
+    }
+
+    private static void check(List<AlertCandidate> rules, WeatherDTO weather, Timestamp now, List<TriggeredAlert> fired) {
+        for (AlertCandidate rule : rules) {
+            Integer observed = rule.metric().read(weather);
+            if (observed != null && rule.operator().test(observed, rule.threshold())) {
+                fired.add(new TriggeredAlert(rule.ruleId(), rule.userId(), observed, now));
+            }
+        }
+    }
+
+    private Coordinates round(double lat, double lon) {
+        return new Coordinates(Math.round(lat * coordinateScale) / coordinateScale,
+                Math.round(lon * coordinateScale) / coordinateScale);
+    }
+
+    private record Coordinates(double lat, double lon) {
+    }
+
+    /**
+     * @param unavailable rules skipped because the weather of their coordinates could not be fetched
+     */
+    public record Run(int rules, int coordinates, int triggered, int unavailable, long millis, long rulesPerSecond) {
+    }
+}
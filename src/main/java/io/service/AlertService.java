@@ -0,0 +1,59 @@
+package io.service;
+
+import io.model.entity.TriggeredAlert;
+import io.repository.AlertCandidate;
+import io.repository.AlertRuleRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class AlertService {
+
+    private final AlertRuleRepository alertRuleRepository;
+
+    @Value("${alerts.cooldown-min:180}")
+    private long cooldownMin = 180;
+
+    /**
+     * Rules that have not fired within the cooldown, so a cold night does not alert every few minutes.
+     */
+    @Transactional(readOnly = true)
+    public List<AlertCandidate> findDueBatch(long afterRuleId, int batchSize) {
+        return alertRuleRepository.findDueBatch(afterRuleId, quietSince(Instant.now()), batchSize);
+    }
+
+    /**
+     * Records only the alerts whose rules are still out of cooldown when claimed. Another node evaluating
+     * the same rules at the same time gets the rest, so every alert is written once.
+     *
+     * @return number of alerts recorded
+     */
+    public int recordTriggered(List<TriggeredAlert> alerts) {
+        if (alerts.isEmpty()) {
+            return 0;
+        }
+        Timestamp at = alerts.get(0).getTriggeredAt();
+        Set<Long> claimed = new HashSet<>(alertRuleRepository.claimTriggered(
+                alerts.stream().map(TriggeredAlert::getRuleId).toList(), at, quietSince(at.toInstant())));
+        List<TriggeredAlert> recorded = alerts.stream()
+                .filter(alert -> claimed.contains(alert.getRuleId()))
+                .toList();
+        alertRuleRepository.insertTriggered(recorded);
+        return recorded.size();
+    }
+
+    private Timestamp quietSince(Instant now) {
+        return Timestamp.from(now.minus(Duration.ofMinutes(cooldownMin)));
+    }
+}
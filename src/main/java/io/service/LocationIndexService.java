@@ -0,0 +1,90 @@
+package io.service;
+
+import io.cache.LocationCellIndex;
+import io.cache.invalidation.InvalidationEvent;
+import io.cache.invalidation.InvalidationListener;
+import io.monitoring.StartupTimeline;
+import io.repository.LocationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fills the {@link LocationCellIndex} from the database when the application starts and again after the
+ * invalidation channel resyncs. In between, changes made on this node are applied once they commit (see
+ * {@link WeatherService#addLocation} and {@link WeatherService#deleteLocationByUser}), and those of other
+ * nodes arrive as location events.
+ */
+@Slf4j
+@Service
+public class LocationIndexService implements InvalidationListener {
+
+    private final LocationRepository locationRepository;
+    private final LocationCellIndex locationCellIndex;
+    private final TransactionTemplate scanTx;
+
+    public LocationIndexService(LocationRepository locationRepository,
+                                LocationCellIndex locationCellIndex,
+                                PlatformTransactionManager transactionManager) {
+        this.locationRepository = locationRepository;
+        this.locationCellIndex = locationCellIndex;
+        // not read-only: read-only transactions are routed to the replica, whose lag would lose recent locations
+        this.scanTx = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener
+    public void onContextRefreshed(ContextRefreshedEvent event) {
+        // the web context's refresh is published to the root context's listeners as well
+        if (event.getApplicationContext().getParent() == null) {
+            long startedAt = System.nanoTime();
+            rebuild();
+            StartupTimeline.record("Location index", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        }
+    }
+
+    public void rebuild() {
+        long startedAt = System.nanoTime();
+        LocationCellIndex.Rebuild rebuild = locationCellIndex.startRebuild(1024);
+        try {
+            scanTx.executeWithoutResult(status -> locationRepository.scanCoordinates(rebuild::add));
+        } catch (RuntimeException e) {
+            locationCellIndex.abortRebuild(rebuild);
+            log.error("Failed to rebuild the location index, keeping the previous contents", e);
+            return;
+        }
+        locationCellIndex.finishRebuild(rebuild);
+        log.info("Location index built: {} locations in {} ms", locationCellIndex.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+    }
+
+    @Override
+    public void onInvalidate(List<InvalidationEvent> events) {
+        for (InvalidationEvent event : events) {
+            try {
+                switch (event.type()) {
+                    case LOCATION_SAVED -> {
+                        String[] parts = event.key().split(":");
+                        locationCellIndex.add(Long.parseLong(parts[0]), Long.parseLong(parts[1]),
+                                Double.parseDouble(parts[2]), Double.parseDouble(parts[3]));
+                    }
+                    case LOCATION_DELETED -> locationCellIndex.remove(Long.parseLong(event.key()));
+                    default -> {
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.debug("Ignoring malformed location event {}", event);
+            }
+        }
+    }
+
+    @Override
+    public void onResync() {
+        rebuild();
+    }
+}
@@ -0,0 +1,40 @@
+package io.service;
+
+import io.model.entity.UserTier;
+import io.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * How many locations a user may save, by tier. Users without a known tier get the free limit.
+ */
+@Component
+public class LocationLimits {
+
+    private final UserRepository userRepository;
+    private final Map<UserTier, Integer> limits = new EnumMap<>(UserTier.class);
+
+    public LocationLimits(UserRepository userRepository,
+                          @Value("${locations.limit.free:5}") int free,
+                          @Value("${locations.limit.plus:25}") int plus,
+                          @Value("${locations.limit.pro:200}") int pro) {
+        if (free <= 0 || plus <= 0 || pro <= 0) {
+            throw new IllegalArgumentException("locations.limit.* must be positive");
+        }
+        this.userRepository = userRepository;
+        limits.put(UserTier.FREE, free);
+        limits.put(UserTier.PLUS, plus);
+        limits.put(UserTier.PRO, pro);
+    }
+
+    public int forTier(UserTier tier) {
+        return limits.get(tier);
+    }
+
+    public int forUser(Long userId) {
+        return forTier(userRepository.findTierById(userId).orElse(UserTier.FREE));
+    }
+}
@@ -0,0 +1,108 @@
+package io.service;
+
+import io.api.openweather.OpenWeatherClient;
+import io.cache.LocationTrie;
+import io.mapper.LocationApiMapper;
+import io.model.dto.LocationDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Type-ahead suggestions. Seen prefixes are answered from the {@link LocationTrie}; unseen ones go to
+ * OpenWeather after a short debounce, and only the newest lookup of a session does: a newer keystroke
+ * completes the older lookup as superseded (an empty Optional), and if that happens within the debounce
+ * window the older one is never sent upstream at all.
+ */
+@Slf4j
+@Service
+public class LocationSuggestService {
+
+    private final OpenWeatherClient client;
+    private final LocationApiMapper locationApiMapper;
+    private final LocationTrie locationTrie;
+    private final TaskScheduler taskScheduler;
+
+    private final ConcurrentHashMap<String, Lookup> inFlight = new ConcurrentHashMap<>();
+
+    private final int minPrefix;
+    private final int limit;
+    private final long debounceMs;
+
+    public LocationSuggestService(OpenWeatherClient client,
+                                  LocationApiMapper locationApiMapper,
+                                  LocationTrie locationTrie,
+                                  TaskScheduler taskScheduler,
+                                  @Value("${suggest.min-prefix:3}") int minPrefix,
+                                  @Value("${suggest.limit:5}") int limit,
+                                  @Value("${suggest.debounce-ms:150}") long debounceMs) {
+        this.client = client;
+        this.locationApiMapper = locationApiMapper;
+        this.locationTrie = locationTrie;
+        this.taskScheduler = taskScheduler;
+        this.minPrefix = minPrefix;
+        this.limit = limit;
+        this.debounceMs = debounceMs;
+    }
+
+    /**
+     * @param sessionKey lookups with the same key supersede each other
+     * @return suggestions, or an empty Optional when a newer lookup of the session superseded this one
+     */
+    public CompletableFuture<Optional<List<LocationDTO>>> suggest(String sessionKey, String query) {
+        String prefix = LocationTrie.normalize(query);
+        if (prefix.length() < minPrefix) {
+            return CompletableFuture.completedFuture(Optional.of(List.of()));
+        }
+
+        if (locationTrie.isQueried(prefix)) {
+            supersede(inFlight.remove(sessionKey));
+            return CompletableFuture.completedFuture(Optional.of(locationTrie.startingWith(prefix, limit)));
+        }
+
+        Lookup lookup = new Lookup(prefix);
+        supersede(inFlight.put(sessionKey, lookup));
+        taskScheduler.schedule(() -> lookUp(sessionKey, lookup), Instant.now().plusMillis(debounceMs));
+        return lookup.result;
+    }
+
+    private void lookUp(String sessionKey, Lookup lookup) {
+        if (lookup.result.isDone()) {
+            return;
+        }
+        client.geoCodeAsync(lookup.prefix)
+                .thenApply(locationApiMapper::toDto)
+                .whenComplete((found, ex) -> {
+                    inFlight.remove(sessionKey, lookup);
+                    if (ex != null) {
+                        lookup.result.completeExceptionally(ex);
+                        return;
+                    }
+                    // recorded even when superseded: the next keystrokes may well need it
+                    locationTrie.record(lookup.prefix, found);
+                    lookup.result.complete(Optional.of(locationTrie.startingWith(lookup.prefix, limit)));
+                });
+    }
+
+    private static void supersede(Lookup lookup) {
+        if (lookup != null && lookup.result.complete(Optional.empty())) {
+            log.debug("Suggest lookup for '{}' superseded", lookup.prefix);
+        }
+    }
+
+    private static final class Lookup {
+        final String prefix;
+        final CompletableFuture<Optional<List<LocationDTO>>> result = new CompletableFuture<>();
+
+        Lookup(String prefix) {
+            this.prefix = prefix;
+        }
+    }
+}
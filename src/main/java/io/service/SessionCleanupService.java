@@ -1,22 +1,92 @@
 package io.service;
 
 
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class SessionCleanupService {
 
     private final SessionService sessionService;
+    private final int batchSize;
+    private final long pauseMs;
+
+    private final CountDownLatch stopSignal = new CountDownLatch(1);
+
+    public SessionCleanupService(SessionService sessionService,
+                                 @Value("${server.session.cleanup.batch-size:1000}") int batchSize,
+                                 @Value("${server.session.cleanup.pause-ms:200}") long pauseMs) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("server.session.cleanup.batch-size must be positive");
+        }
+        this.sessionService = sessionService;
+        this.batchSize = batchSize;
+        this.pauseMs = pauseMs;
+    }
 
-    @Scheduled(fixedRate = 360000)
+    @Scheduled(fixedDelayString = "${server.session.cleanup.interval-ms:360000}")
     public void cleanup() {
         log.info("Starting expired sessions cleanup...");
-        int deletedCount = sessionService.cleanUpExpiredSession();
-        log.info("Finished expired sessions cleanup. Deleted sessions: {}", deletedCount);
+        long startedAt = System.nanoTime();
+        long deletedCount = 0;
+        int batches = 0;
+        long batchNanosTotal = 0;
+        long maxBatchNanos = 0;
+
+        while (!isStopped()) {
+            long batchStartedAt = System.nanoTime();
+            int deleted = sessionService.cleanUpExpiredBatch(batchSize);
+            long batchNanos = System.nanoTime() - batchStartedAt;
+
+            batches++;
+            deletedCount += deleted;
+            batchNanosTotal += batchNanos;
+            maxBatchNanos = Math.max(maxBatchNanos, batchNanos);
+            log.debug("Cleanup batch #{} deleted {} sessions in {} ms", batches, deleted, toMillis(batchNanos));
+
+            if (deleted < batchSize || pause()) {
+                break;
+            }
+        }
+
+        long totalNanos = System.nanoTime() - startedAt;
+        double rowsPerSec = totalNanos > 0 ? deletedCount * 1e9 / totalNanos : 0;
+        log.info("Finished expired sessions cleanup. Deleted sessions: {}, batches: {}, rate: {} rows/s, "
+                        + "avg batch: {} ms, max batch: {} ms",
+                deletedCount, batches, Math.round(rowsPerSec),
+                batches > 0 ? toMillis(batchNanosTotal / batches) : 0,
+                toMillis(maxBatchNanos));
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopSignal.countDown();
+    }
+
+    private boolean isStopped() {
+        return stopSignal.getCount() == 0 || Thread.currentThread().isInterrupted();
+    }
+
+    /**
+     * @return true when cleanup has to stop instead of running the next batch
+     */
+    private boolean pause() {
+        try {
+            return stopSignal.await(pauseMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return true;
+        }
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
     }
 }
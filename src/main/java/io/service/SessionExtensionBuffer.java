@@ -0,0 +1,110 @@
+package io.service;
+
+import io.cache.SessionCache;
+import io.repository.SessionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind buffer for sliding session expiration. Request threads only record the token;
+ * the scheduled flush pushes all extensions collected since the last run in a few bulk UPDATEs.
+ */
+@Slf4j
+@Component
+public class SessionExtensionBuffer {
+
+    private final SessionRepository sessionRepository;
+    private final SessionCache sessionCache;
+    private final int chunkSize;
+
+    private final Set<UUID> pending = ConcurrentHashMap.newKeySet();
+
+    @Value("${server.session.ttl-hours:24}")
+    private long sessionTtlHours;
+
+    public SessionExtensionBuffer(SessionRepository sessionRepository,
+                                  SessionCache sessionCache,
+                                  @Value("${server.session.sliding.flush-chunk-size:500}") int chunkSize) {
+        this.sessionRepository = sessionRepository;
+        this.sessionCache = sessionCache;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Queues the extension and moves the cached expiry forward right away, so that requests arriving
+     * before the flush see a fresh session instead of recording the token and re-issuing the cookie again.
+     */
+    public void record(UUID token) {
+        pending.add(token);
+        sessionCache.extend(token, Instant.now().plus(Duration.ofHours(sessionTtlHours)));
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${server.session.sliding.flush-interval-ms:30000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<UUID> tokens = new ArrayList<>(pending.size());
+        for (UUID token : pending) {
+            if (pending.remove(token)) {
+                tokens.add(token);
+            }
+        }
+
+        requeueOnRollback(tokens);
+        Instant newExpiry = Instant.now().plus(Duration.ofHours(sessionTtlHours));
+        int updated = 0;
+        try {
+            for (int from = 0; from < tokens.size(); from += chunkSize) {
+                List<UUID> chunk = tokens.subList(from, Math.min(tokens.size(), from + chunkSize));
+                updated += sessionRepository.extendExpiry(chunk, newExpiry);
+            }
+        } catch (RuntimeException e) {
+            requeue(tokens);
+            throw e;
+        }
+        tokens.forEach(token -> sessionCache.extend(token, newExpiry));
+
+        log.debug("Extended {} of {} active sessions until {}", updated, tokens.size(), newExpiry);
+    }
+
+    // the UPDATEs can also fail at commit, after flush() has returned
+    private void requeueOnRollback(List<UUID> tokens) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    requeue(tokens);
+                }
+            }
+        });
+    }
+
+    private void requeue(List<UUID> tokens) {
+        if (pending.addAll(tokens)) {
+            log.warn("Session extension flush failed, {} tokens re-queued for the next run", tokens.size());
+        }
+    }
+}
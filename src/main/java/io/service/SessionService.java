@@ -1,10 +1,19 @@
 package io.service;
 
+import io.cache.RejectedTokenCache;
+import io.cache.SessionCache;
+import io.cache.invalidation.InvalidationBus;
+import io.cache.invalidation.InvalidationEvent;
 import io.model.entity.Session;
 import io.repository.SessionRepository;
+import io.security.SessionMode;
+import io.security.SignedSessionTokens;
+import io.security.TokenRevocationList;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.sql.Timestamp;
@@ -14,43 +23,162 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 
+import static io.service.TransactionCallbacks.afterCommit;
+
 @Service
 @Transactional
 @RequiredArgsConstructor
 public class SessionService {
 
     private final SessionRepository sessionRepository;
+    private final SessionCache sessionCache;
+    private final RejectedTokenCache rejectedTokenCache;
+    private final SignedSessionTokens signedSessionTokens;
+    private final TokenRevocationList tokenRevocationList;
+    private final SessionExtensionBuffer sessionExtensionBuffer;
+    private final InvalidationBus invalidationBus;
 
     @Value("${server.session.ttl-hours:24}")
     private long defaultSessionTtlHours;
 
-    public UUID createForUser(Long userId) {
+    @Value("${server.session.mode:DB}")
+    private SessionMode sessionMode = SessionMode.DB;
+
+    @Value("${server.session.sliding.enabled:true}")
+    private boolean slidingEnabled = true;
+
+    @Value("${server.session.sliding.threshold-ratio:0.5}")
+    private double slidingThresholdRatio = 0.5;
+
+    @PostConstruct
+    void checkMode() {
+        if (sessionMode == SessionMode.SIGNED && !signedSessionTokens.isConfigured()) {
+            throw new IllegalStateException("server.session.mode=SIGNED requires server.session.signing-key");
+        }
+    }
+
+    public String createForUser(Long userId) {
         Objects.requireNonNull(userId, "userID must not be null");
 
         var now = Instant.now();
         var ttl = Duration.ofHours(defaultSessionTtlHours);
+
+        if (sessionMode == SessionMode.SIGNED) {
+            return signedSessionTokens.issue(userId, now.plus(ttl));
+        }
+
         var expiresAt = Timestamp.from(now.plus(ttl));
 
         var session = new Session(userId, expiresAt);
         sessionRepository.save(session);
 
-        return session.getId();
+        return session.getId().toString();
     }
 
-    public Optional<Long> getUserIdByValidToken(UUID token) {
-        if (token == null) {
+    // read-only so that cache misses can go to the replica; the lazy DataSource
+    // proxy means a cache hit still never borrows a connection
+    @Transactional(readOnly = true)
+    public Optional<Long> getUserIdByValidToken(String token) {
+        return findActiveSession(token).map(ActiveSession::userId);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<ActiveSession> findActiveSession(String token) {
+        if (token == null || token.isBlank() || rejectedTokenCache.isRejected(token)) {
             return Optional.empty();
         }
-        return sessionRepository.findValidSessionById(token)
-                .map(Session::getUserId);
+
+        Optional<ActiveSession> session = sessionMode == SessionMode.SIGNED
+                ? findSignedSession(token)
+                : findDbSession(token);
+        if (session.isEmpty()) {
+            rejectedTokenCache.reject(token);
+        }
+        return session;
     }
 
-    public void logout(UUID token) {
+    private Optional<ActiveSession> findSignedSession(String token) {
+        return signedSessionTokens.verify(token, Instant.now())
+                .filter(t -> !tokenRevocationList.isRevoked(t.tokenId()))
+                .map(t -> new ActiveSession(t.userId(), t.expiresAt()));
+    }
+
+    private Optional<ActiveSession> findDbSession(String token) {
+        Optional<UUID> uuid = parseUuid(token);
+        if (uuid.isEmpty()) {
+            return Optional.empty();
+        }
+        UUID id = uuid.get();
+
+        SessionCache.CachedSession cached = sessionCache.get(id);
+        if (cached != null) {
+            return Optional.of(new ActiveSession(cached.userId(), cached.expiresAt()));
+        }
+
+        Optional<Session> session = sessionRepository.findValidSessionById(id);
+        session.ifPresent(s -> sessionCache.putValid(id, s.getUserId(), s.getExpiresAt().toInstant()));
+        return session.map(s -> new ActiveSession(s.getUserId(), s.getExpiresAt().toInstant()));
+    }
+
+    /**
+     * Schedules a sliding extension once less than the configured share of the TTL is left.
+     * Only DB sessions can be extended; signed tokens keep their baked-in expiry.
+     *
+     * @return true when the session will be extended and the cookie should be re-issued
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public boolean extendIfNeeded(String token, ActiveSession activeSession) {
+        if (!slidingEnabled || sessionMode != SessionMode.DB) {
+            return false;
+        }
+        Duration ttl = Duration.ofHours(defaultSessionTtlHours);
+        Duration remaining = Duration.between(Instant.now(), activeSession.expiresAt());
+        if (remaining.toMillis() > ttl.toMillis() * slidingThresholdRatio) {
+            return false;
+        }
+        Optional<UUID> id = parseUuid(token);
+        id.ifPresent(sessionExtensionBuffer::record);
+        return id.isPresent();
+    }
+
+    public void logout(String token) {
         if (token == null) return;
-        sessionRepository.deleteById(token);
+
+        if (sessionMode == SessionMode.SIGNED) {
+            signedSessionTokens.verify(token, Instant.now()).ifPresent(t -> {
+                tokenRevocationList.revoke(t.tokenId(), t.expiresAt());
+                invalidationBus.publish(InvalidationEvent.revokedToken(t.tokenId(), t.expiresAt()));
+            });
+            afterCommit(() -> rejectedTokenCache.reject(token));
+            return;
+        }
+
+        parseUuid(token).ifPresent(id -> {
+            sessionRepository.deleteById(id);
+            invalidationBus.publish(InvalidationEvent.session(token));
+            sessionCache.invalidate(id);
+            afterCommit(() -> {
+                sessionCache.invalidate(id);
+                rejectedTokenCache.reject(token);
+            });
+        });
+    }
+
+    public int cleanUpExpiredBatch(int batchSize) {
+        if (sessionMode == SessionMode.SIGNED) {
+            return tokenRevocationList.cleanUpExpired(batchSize);
+        }
+        return sessionRepository.deleteExpiredBatch(batchSize);
+    }
+
+    private static Optional<UUID> parseUuid(String token) {
+        try {
+            return Optional.of(UUID.fromString(token));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
     }
 
-    public int cleanUpExpiredSession() {
-        return sessionRepository.deleteAllExpired();
+    public record ActiveSession(Long userId, Instant expiresAt) {
     }
 }
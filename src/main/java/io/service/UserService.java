@@ -1,10 +1,13 @@
 package io.service;
 
 import io.model.entity.User;
+import io.repository.Constraints;
 import io.repository.UserRepository;
+import io.security.PasswordHasher;
 import lombok.RequiredArgsConstructor;
-import org.mindrot.jbcrypt.BCrypt;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
@@ -15,7 +18,10 @@ import java.util.Optional;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final PasswordHasher passwordHasher;
 
+    // like login: BCrypt runs before any connection is taken, the insert opens its own short transaction
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public User registerUser(String login, String password, String confirmPassword) {
 
         String trimmedLogin = login.trim();
@@ -25,10 +31,6 @@ public class UserService {
             throw new IllegalArgumentException("Username cannot be empty.");
         }
 
-        if (userRepository.findByLogin(lowerCaseLogin).isPresent()) {
-            throw new IllegalArgumentException("User with this username already exists.");
-        }
-
         if (password == null || password.isBlank()) {
             throw new IllegalArgumentException("Password cannot be empty.");
         }
@@ -45,13 +47,22 @@ public class UserService {
     }
 
     private User create(User user) {
-        String salt = BCrypt.gensalt();
-        String hashed = BCrypt.hashpw(user.getPassword(), salt);
+        String hashed = passwordHasher.hash(user.getPassword());
         user.setPassword(hashed);
 
-        return userRepository.save(user);
+        try {
+            return userRepository.save(user);
+        } catch (ConstraintViolationException e) {
+            // users.login is unique; no pre-check query, the insert itself decides
+            if (Constraints.isViolationOf(e, Constraints.USERS_LOGIN)) {
+                throw new IllegalArgumentException("User with this username already exists.", e);
+            }
+            throw e;
+        }
     }
 
+    // no surrounding transaction: the connection must not be held while the hash is checked
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public User login(String login, String password) {
 
         String normalizedLogin = login.trim().toLowerCase();
@@ -70,6 +81,6 @@ public class UserService {
     }
 
     public boolean checkPassword(String plainPassword, String hashedPass) {
-        return BCrypt.checkpw(plainPassword, hashedPass);
+        return passwordHasher.matches(plainPassword, hashedPass);
     }
 }
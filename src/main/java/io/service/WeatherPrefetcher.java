@@ -0,0 +1,85 @@
+package io.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Warms the weather cache for a user who has just logged in, so the dashboard the login redirects to finds
+ * the weather cached or already on its way. Fire-and-forget on a small bounded pool: when the pool is
+ * saturated the prefetch is dropped, never the login delayed.
+ */
+@Slf4j
+@Component
+public class WeatherPrefetcher {
+
+    private final WeatherService weatherService;
+    private final ThreadPoolExecutor executor;
+    private final boolean enabled;
+
+    private final LongAdder dropped = new LongAdder();
+
+    public WeatherPrefetcher(WeatherService weatherService,
+                             @Value("${weather.prefetch.enabled:true}") boolean enabled,
+                             @Value("${weather.prefetch.pool-size:2}") int poolSize,
+                             @Value("${weather.prefetch.queue-capacity:64}") int queueCapacity) {
+        if (poolSize <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("weather.prefetch pool size and queue capacity must be positive");
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        this.weatherService = weatherService;
+        this.enabled = enabled;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+            Thread t = new Thread(r, "weather-prefetch-" + threadNumber.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public void prefetch(Long userId) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            executor.execute(() -> run(userId));
+        } catch (RejectedExecutionException e) {
+            dropped.increment();
+            log.debug("Weather prefetch pool saturated, skipping prefetch for user id={}", userId);
+        }
+    }
+
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    public Stats stats() {
+        return new Stats(droppedCount(), executor.getActiveCount(), executor.getQueue().size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(Long userId) {
+        try {
+            int started = weatherService.prefetchSavedLocationsWeather(userId);
+            log.debug("Prefetching weather of {} locations for user id={}", started, userId);
+        } catch (RuntimeException e) {
+            log.warn("Weather prefetch failed for user id={}: {}", userId, e.getMessage());
+        }
+    }
+
+    public record Stats(long dropped, int active, int queued) {
+    }
+}
@@ -1,24 +1,45 @@
 package io.service;
 
 import io.api.openweather.OpenWeatherClient;
+import io.cache.DashboardFragmentCache;
+import io.cache.LocationCellIndex;
+import io.cache.LocationTrie;
+import io.cache.WeatherCache;
+import io.cache.invalidation.InvalidationBus;
+import io.cache.invalidation.InvalidationEvent;
 import io.exception.LocationException;
 import io.mapper.LocationApiMapper;
 import io.mapper.LocationMapper;
 import io.mapper.WeatherApiMapper;
 import io.model.apiweather.LocationResponse;
+import io.model.dto.DashboardDTO;
 import io.model.dto.LocationDTO;
+import io.model.dto.PendingLocationDTO;
 import io.model.dto.SavedLocationWeatherDTO;
+import io.model.dto.WeatherDTO;
 import io.model.entity.Location;
+import io.repository.Constraints;
+import io.repository.LocationCursor;
 import io.repository.LocationRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.i18n.LocaleContext;
+import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static io.service.TransactionCallbacks.afterCommit;
 
 @Slf4j
 @Service
@@ -32,12 +53,36 @@ public class WeatherService {
 
     private final LocationApiMapper locationApiMapper;
     private final LocationMapper locationMapper;
+    private final InvalidationBus invalidationBus;
+    private final WeatherCache weatherCache;
+    private final DashboardFragmentCache dashboardFragmentCache;
+    private final LocationTrie locationTrie;
+    private final LocationLimits locationLimits;
+    private final LocationCellIndex locationCellIndex;
+
+    @Value("${dashboard.page-size:20}")
+    private int pageSize = 20;
 
-    public static final int MAX_LOCATION_PER_USER = 5;
+    @Value("${weather.fetch.batch-size:8}")
+    private int batchSize = 8;
+
+    // language of the weather descriptions outside a web request; the cached weather itself is language-neutral
+    @Value("${weather.locale:${openweather.lang:ru}}")
+    private String defaultLanguage = "ru";
 
     public List<LocationDTO> findLocationsByName(String query) throws IOException, InterruptedException {
         List<LocationResponse> responses = client.geoCode(query);
-        return locationApiMapper.toDto(responses);
+        List<LocationDTO> found = locationApiMapper.toDto(responses);
+        locationTrie.record(query, found);
+        return found;
+    }
+
+    public CompletableFuture<List<LocationDTO>> findLocationsByNameAsync(String query) {
+        return client.geoCodeAsync(query).thenApply(responses -> {
+            List<LocationDTO> found = locationApiMapper.toDto(responses);
+            locationTrie.record(query, found);
+            return found;
+        });
     }
 
     public void addLocation(LocationDTO locationDTO, Long userId) {
@@ -46,60 +91,243 @@ public class WeatherService {
         double lat4 = round4(validatedLat);
         double lon4 = round4(validatedLon);
 
-        if (locationRepository.countByUser(userId) >= MAX_LOCATION_PER_USER) {
-            throw new LocationException("You can't add more saved locations.");
-        }
-
-        if (locationRepository.existsByUserAndCoords(userId, lat4, lon4)) {
-            throw new LocationException("This location has already been added.");
-        }
-
         Location entity = locationMapper.toEntity(locationDTO);
         entity.setUserId(userId);
         entity.setLatitude(lat4);
         entity.setLongitude(lon4);
-        locationRepository.save(entity);
+
+        Optional<Long> inserted;
+        try {
+            inserted = locationRepository.insertIfBelowLimit(entity, locationLimits.forUser(userId));
+        } catch (ConstraintViolationException e) {
+            if (Constraints.isViolationOf(e, Constraints.LOCATIONS_USER_COORDS)) {
+                throw new LocationException("This location has already been added.", e);
+            }
+            throw e;
+        }
+        long locationId = inserted.orElseThrow(() -> new LocationException("You can't add more saved locations."));
+        afterCommit(() -> locationCellIndex.add(locationId, userId, lat4, lon4));
+        invalidationBus.publish(InvalidationEvent.locationSaved(locationId, userId, lat4, lon4));
+        dashboardFragmentCache.evict(userId);
+        invalidationBus.publish(InvalidationEvent.userLocations(userId));
+    }
+
+    /**
+     * Reads the page in the calling thread, then fetches missing weather without blocking it, one batch of
+     * OpenWeather requests at a time. A location whose weather could not be fetched comes back as pending
+     * instead of failing the whole page.
+     */
+    @Transactional(readOnly = true)
+    public CompletableFuture<DashboardDTO> fetchDashboardAsync(Long userId, String cursor) {
+        Locale locale = descriptionLocale();
+        Page page = page(userId, cursor);
+        List<Location> locations = page.locations();
+        List<CompletableFuture<Optional<WeatherCache.Snapshot>>> loads = loadInBatches(locations);
+        List<CompletableFuture<Optional<WeatherCache.Snapshot>>> pending = new ArrayList<>(loads.size());
+        for (int i = 0; i < locations.size(); i++) {
+            Location location = locations.get(i);
+            pending.add(loads.get(i).exceptionally(ex -> {
+                log.warn("Failed to fetch weather for '{}' (id={}): {}",
+                        location.getName(), location.getId(), ex.getMessage());
+                return Optional.empty();
+            }));
+        }
+
+        return CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> toDashboard(page,
+                        pending.stream().map(CompletableFuture::join).toList(), locale));
+    }
+
+    /**
+     * Only what the weather cache already has; everything else comes back as pending, for the dashboard
+     * stream to fill in. Never waits for OpenWeather.
+     */
+    @Transactional(readOnly = true)
+    public DashboardDTO fetchCachedDashboard(Long userId, String cursor) {
+        Page page = page(userId, cursor);
+        List<Optional<WeatherCache.Snapshot>> snapshots = page.locations().stream()
+                .map(location -> Optional.ofNullable(weatherCache.get(location.getLatitude(), location.getLongitude())))
+                .toList();
+        return toDashboard(page, snapshots, descriptionLocale());
+    }
+
+    /**
+     * One future per location of the page, keyed by location id in page order. Cached weather comes back
+     * already completed; the rest complete as OpenWeather answers, or exceptionally when it fails.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, CompletableFuture<SavedLocationWeatherDTO>> streamSavedLocationsWeather(Long userId, String cursor) {
+        Locale locale = descriptionLocale();
+        List<Location> locations = page(userId, cursor).locations();
+        List<CompletableFuture<Optional<WeatherCache.Snapshot>>> loads = loadInBatches(locations);
+
+        Map<Long, CompletableFuture<SavedLocationWeatherDTO>> result = new LinkedHashMap<>();
+        for (int i = 0; i < locations.size(); i++) {
+            Location location = locations.get(i);
+            result.put(location.getId(), loads.get(i)
+                    .thenApply(snapshot -> toSavedLocationWeather(location, snapshot.orElseThrow().weather(), locale)));
+        }
+        return result;
+    }
+
+    /**
+     * Starts loading the weather of the first dashboard page and returns without waiting for it. A dashboard
+     * request that comes in meanwhile joins these loads instead of starting its own.
+     *
+     * @return number of locations whose weather was not cached
+     */
+    @Transactional(readOnly = true)
+    public int prefetchSavedLocationsWeather(Long userId) {
+        List<Location> locations = page(userId, null).locations();
+        List<CompletableFuture<Optional<WeatherCache.Snapshot>>> loads = loadInBatches(locations);
+
+        int started = 0;
+        for (int i = 0; i < loads.size(); i++) {
+            Location location = locations.get(i);
+            CompletableFuture<Optional<WeatherCache.Snapshot>> load = loads.get(i);
+            if (!load.isDone()) {
+                started++;
+                load.exceptionally(ex -> {
+                    log.debug("Weather prefetch failed for location id={}: {}", location.getId(), ex.getMessage());
+                    return Optional.empty();
+                });
+            }
+        }
+        return started;
     }
 
-    public List<SavedLocationWeatherDTO> fetchSavedLocationsWeather(Long userId) {
+    /**
+     * The version {@link #fetchDashboardAsync} would report for the page if its weather were all cached,
+     * built from the location ids and the weather cache alone: no DTOs and no OpenWeather calls. Used to
+     * answer conditional requests.
+     */
+    @Transactional(readOnly = true)
+    public String dashboardVersion(Long userId, String cursor) {
+        StringBuilder version = newVersion(descriptionLocale());
+        for (Location location : page(userId, cursor).locations()) {
+            appendVersion(version, location,
+                    Optional.ofNullable(weatherCache.get(location.getLatitude(), location.getLongitude())));
+        }
+        return version.toString();
+    }
+
+    /**
+     * Reads one more location than the page holds, to tell whether there is a next page.
+     *
+     * @throws IllegalArgumentException when the cursor is malformed
+     */
+    private Page page(Long userId, String cursor) {
         if (userId == null) {
             throw new IllegalArgumentException("UserId is not found!");
         }
 
-        List<Location> locationByUser = locationRepository.findAllByUserId(userId);
-        List<SavedLocationWeatherDTO> result = new ArrayList<>(locationByUser.size());
+        List<Location> found = locationRepository.findPageByUserId(userId, LocationCursor.decode(cursor), pageSize + 1);
+        if (found.size() <= pageSize) {
+            return new Page(found, null);
+        }
+        List<Location> visible = found.subList(0, pageSize);
+        return new Page(visible, LocationCursor.after(visible.get(pageSize - 1)).encode());
+    }
+
+    /**
+     * Cached weather comes back completed straight away. Missing weather is requested {@code batchSize}
+     * locations at a time, each batch once the previous one has answered, so a long page cannot flood
+     * OpenWeather.
+     */
+    private List<CompletableFuture<Optional<WeatherCache.Snapshot>>> loadInBatches(List<Location> locations) {
+        List<CompletableFuture<Optional<WeatherCache.Snapshot>>> result = new ArrayList<>(locations.size());
+        CompletableFuture<Void> previousBatch = CompletableFuture.completedFuture(null);
+        List<CompletableFuture<?>> batch = new ArrayList<>(batchSize);
 
-        for (Location location : locationByUser) {
-            Optional<SavedLocationWeatherDTO> dto = fetchAndMapWeather(location);
-            dto.ifPresent(result::add);
+        for (Location location : locations) {
+            WeatherCache.Snapshot cached = weatherCache.get(location.getLatitude(), location.getLongitude());
+            if (cached != null) {
+                result.add(CompletableFuture.completedFuture(Optional.of(cached)));
+                continue;
+            }
+            if (batch.size() == batchSize) {
+                previousBatch = settled(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+            CompletableFuture<Optional<WeatherCache.Snapshot>> load =
+                    previousBatch.thenCompose(ignored -> fetchWeatherSnapshotAsync(location));
+            batch.add(load);
+            result.add(load);
         }
         return result;
     }
 
-    public Optional<SavedLocationWeatherDTO> fetchAndMapWeather(Location location) {
-        try {
-
-            var weatherResponse = client.weather(location.getLatitude(), location.getLongitude());
-            var weatherDto = weatherApiMapper.toDTO(weatherResponse);
+    private static CompletableFuture<Void> settled(List<CompletableFuture<?>> batch) {
+        return CompletableFuture.allOf(batch.stream()
+                .map(load -> load.handle((value, ex) -> null))
+                .toArray(CompletableFuture[]::new));
+    }
 
-            var finalDto = new SavedLocationWeatherDTO(
-                    location.getId(),
-                    location.getName(),
-                    weatherDto.getTemperature(),
-                    weatherDto.getCountryName(),
-                    weatherDto.getDescription(),
-                    weatherDto.getFeelsLike(),
-                    weatherDto.getHumidity(),
-                    weatherDto.getIconUrl()
-            );
-            return Optional.of(finalDto);
+    private DashboardDTO toDashboard(Page page, List<Optional<WeatherCache.Snapshot>> snapshots, Locale locale) {
+        List<Location> locations = page.locations();
+        List<SavedLocationWeatherDTO> result = new ArrayList<>(locations.size());
+        List<PendingLocationDTO> pending = new ArrayList<>();
+        StringBuilder version = newVersion(locale);
 
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.warn("The weather request was interrupted for '{}' (id={})",
-                    location.getName(), location.getId());
-            return Optional.empty();
+        for (int i = 0; i < locations.size(); i++) {
+            Location location = locations.get(i);
+            Optional<WeatherCache.Snapshot> snapshot = snapshots.get(i);
+            appendVersion(version, location, snapshot);
+            if (snapshot.isPresent()) {
+                result.add(toSavedLocationWeather(location, snapshot.get().weather(), locale));
+            } else {
+                pending.add(new PendingLocationDTO(location.getId(), location.getName()));
+            }
         }
+        return new DashboardDTO(result, pending, version.toString(), page.next());
+    }
+
+    // the descriptions are part of what the version identifies
+    private static StringBuilder newVersion(Locale locale) {
+        return new StringBuilder(locale.toLanguageTag()).append(';');
+    }
+
+    private static void appendVersion(StringBuilder version, Location location, Optional<WeatherCache.Snapshot> snapshot) {
+        version.append(location.getId()).append('@')
+                .append(snapshot.map(WeatherCache.Snapshot::version).orElse(0L)).append(';');
+    }
+
+    CompletableFuture<Optional<WeatherCache.Snapshot>> fetchWeatherSnapshotAsync(Location location) {
+        return loadWeather(location.getLatitude(), location.getLongitude()).thenApply(Optional::of);
+    }
+
+    /**
+     * Weather at arbitrary coordinates, through the same cache and single-flight loads as the dashboard.
+     */
+    public CompletableFuture<WeatherDTO> fetchWeatherAsync(double lat, double lon) {
+        return loadWeather(lat, lon).thenApply(WeatherCache.Snapshot::weather);
+    }
+
+    private CompletableFuture<WeatherCache.Snapshot> loadWeather(double lat, double lon) {
+        return weatherCache.getOrLoad(lat, lon, () -> client.weatherAsync(lat, lon).thenApply(weatherApiMapper::toDTO));
+    }
+
+    /**
+     * The locale the web context resolved for the current request, or the configured language outside of
+     * one. Read on the calling thread: the request's locale context does not follow the weather futures.
+     */
+    private Locale descriptionLocale() {
+        LocaleContext context = LocaleContextHolder.getLocaleContext();
+        Locale locale = context == null ? null : context.getLocale();
+        return locale != null ? locale : Locale.forLanguageTag(defaultLanguage);
+    }
+
+    private SavedLocationWeatherDTO toSavedLocationWeather(Location location, WeatherDTO weatherDto, Locale locale) {
+        return new SavedLocationWeatherDTO(
+                location.getId(),
+                location.getName(),
+                weatherDto.getTemperature(),
+                weatherDto.getCountryName(),
+                weatherApiMapper.describe(weatherDto.getConditionId(), locale),
+                weatherDto.getFeelsLike(),
+                weatherDto.getHumidity(),
+                weatherDto.getIconUrl()
+        );
     }
 
     public void deleteLocationByUser(Long userId, Long locationId) {
@@ -113,6 +341,10 @@ public class WeatherService {
         if (deletedRows == 0) {
             throw new LocationException("Location with id=" + locationId + " not found for this user.");
         }
+        afterCommit(() -> locationCellIndex.remove(locationId));
+        dashboardFragmentCache.evict(userId);
+        invalidationBus.publish(InvalidationEvent.userLocations(userId));
+        invalidationBus.publish(InvalidationEvent.locationDeleted(locationId));
     }
 
     private static double requireLatitude(double lat) {
@@ -138,5 +370,7 @@ public class WeatherService {
     private static double round4(double v) {
         return Math.round(v * 1e4) / 1e4d;
     }
-}
 
+    private record Page(List<Location> locations, String next) {
+    }
+}
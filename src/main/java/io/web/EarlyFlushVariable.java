@@ -0,0 +1,38 @@
+package io.web;
+
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.thymeleaf.context.LazyContextVariable;
+
+import java.io.IOException;
+import java.util.function.Supplier;
+
+/**
+ * Model value that is loaded when the template first reaches it, after flushing what has been rendered so
+ * far. Put the first reference below the page shell and the browser gets the head — and starts fetching
+ * its stylesheets and scripts — while the value is still being loaded.
+ * <p>
+ * The response is committed by then, so a failure while loading can no longer become an error page.
+ */
+@Slf4j
+public class EarlyFlushVariable<T> extends LazyContextVariable<T> {
+
+    private final HttpServletResponse response;
+    private final Supplier<T> loader;
+
+    public EarlyFlushVariable(HttpServletResponse response, Supplier<T> loader) {
+        this.response = response;
+        this.loader = loader;
+    }
+
+    @Override
+    protected T loadValue() {
+        try {
+            response.flushBuffer();
+        } catch (IOException e) {
+            // the client went away; rendering fails on the next write anyway
+            log.debug("Early flush failed: {}", e.getMessage());
+        }
+        return loader.get();
+    }
+}
@@ -0,0 +1,66 @@
+package io.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.resource.CachingResourceTransformer;
+import org.springframework.web.servlet.resource.HttpResource;
+import org.springframework.web.servlet.resource.ResourceTransformer;
+import org.springframework.web.servlet.resource.ResourceTransformerChain;
+
+import java.io.IOException;
+
+/**
+ * Loads small static resources into memory so that repeated requests are served without touching
+ * the file system or a webjar. Relies on a preceding {@link CachingResourceTransformer} to keep the result.
+ */
+public class InMemoryResourceTransformer implements ResourceTransformer {
+
+    private final long maxSizeBytes;
+
+    public InMemoryResourceTransformer(long maxSizeBytes) {
+        this.maxSizeBytes = maxSizeBytes;
+    }
+
+    @Override
+    public Resource transform(HttpServletRequest request, Resource resource, ResourceTransformerChain chain)
+            throws IOException {
+        Resource transformed = chain.transform(request, resource);
+        if (transformed instanceof ByteArrayResource || transformed.contentLength() > maxSizeBytes) {
+            return transformed;
+        }
+        return new InMemoryResource(transformed);
+    }
+
+    private static final class InMemoryResource extends ByteArrayResource implements HttpResource {
+
+        private final String filename;
+        private final long lastModified;
+        private final HttpHeaders headers;
+
+        InMemoryResource(Resource source) throws IOException {
+            super(source.getContentAsByteArray(), source.getDescription());
+            this.filename = source.getFilename();
+            this.lastModified = source.lastModified();
+            this.headers = source instanceof HttpResource httpResource
+                    ? httpResource.getResponseHeaders()
+                    : new HttpHeaders();
+        }
+
+        @Override
+        public String getFilename() {
+            return filename;
+        }
+
+        @Override
+        public long lastModified() {
+            return lastModified;
+        }
+
+        @Override
+        public HttpHeaders getResponseHeaders() {
+            return headers;
+        }
+    }
+}
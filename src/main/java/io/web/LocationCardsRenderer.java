@@ -0,0 +1,50 @@
+package io.web;
+
+import io.cache.DashboardFragmentCache;
+import io.model.dto.DashboardDTO;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.support.RequestContextUtils;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Renders the dashboard's location cards, reusing the cached HTML of the user's page while its version
+ * is unchanged.
+ */
+@Component
+@RequiredArgsConstructor
+public class LocationCardsRenderer {
+
+    private static final String TEMPLATE = "fragments/location-cards";
+    private static final Set<String> FRAGMENT = Set.of("cards");
+
+    private final SpringTemplateEngine templateEngine;
+    private final DashboardFragmentCache fragmentCache;
+
+    /**
+     * @param cursor the page's cursor, {@code null} for the first page
+     */
+    public String render(Long userId, String cursor, DashboardDTO dashboard, HttpServletRequest request,
+                         HttpServletResponse response) {
+        String cached = fragmentCache.get(userId, cursor, dashboard.version());
+        if (cached != null) {
+            return cached;
+        }
+
+        WebContext context = new WebContext(
+                JakartaServletWebApplication.buildApplication(request.getServletContext())
+                        .buildExchange(request, response),
+                RequestContextUtils.getLocale(request),
+                Map.of("locations", dashboard.locations(), "pending", dashboard.pending()));
+        String html = templateEngine.process(TEMPLATE, FRAGMENT, context);
+        fragmentCache.put(userId, cursor, dashboard.version(), html);
+        return html;
+    }
+}
@@ -0,0 +1 @@
+CREATE INDEX CONCURRENTLY idx_sessions_expires_at ON sessions (expires_at);
@@ -0,0 +1,10 @@
+DELETE FROM locations a
+    USING locations b
+WHERE a.user_id = b.user_id
+  AND a.latitude = b.latitude
+  AND a.longitude = b.longitude
+  AND a.id > b.id;
+
+-- the constraint's index leads with user_id, so it also serves per-user lookups
+ALTER TABLE locations
+    ADD CONSTRAINT uk_locations_user_coords UNIQUE (user_id, latitude, longitude);
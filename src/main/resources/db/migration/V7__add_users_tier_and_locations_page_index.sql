@@ -0,0 +1,5 @@
+ALTER TABLE users
+    ADD COLUMN tier VARCHAR(16) NOT NULL DEFAULT 'FREE';
+
+-- keyset pagination of the dashboard: WHERE user_id = ? AND (name, id) > (?, ?) ORDER BY name, id
+CREATE INDEX idx_locations_user_name_id ON locations (user_id, name, id);
@@ -0,0 +1,27 @@
+CREATE TABLE alert_rules
+(
+    id                BIGSERIAL PRIMARY KEY,
+    user_id           BIGINT                      NOT NULL,
+    location_id       BIGINT                      NOT NULL,
+    metric            VARCHAR(16)                 NOT NULL,
+    operator          VARCHAR(8)                  NOT NULL,
+    threshold         DOUBLE PRECISION            NOT NULL,
+    last_triggered_at TIMESTAMP WITHOUT TIME ZONE,
+    FOREIGN KEY (user_id) REFERENCES users (id),
+    FOREIGN KEY (location_id) REFERENCES locations (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_alert_rules_location_id ON alert_rules (location_id);
+
+CREATE TABLE triggered_alerts
+(
+    id           BIGSERIAL PRIMARY KEY,
+    rule_id      BIGINT                      NOT NULL,
+    user_id      BIGINT                      NOT NULL,
+    observed     DOUBLE PRECISION            NOT NULL,
+    triggered_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    FOREIGN KEY (rule_id) REFERENCES alert_rules (id) ON DELETE CASCADE,
+    FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE INDEX idx_triggered_alerts_user_triggered_at ON triggered_alerts (user_id, triggered_at);
@@ -0,0 +1 @@
+CREATE INDEX CONCURRENTLY idx_revoked_tokens_expires_at ON revoked_tokens (expires_at);
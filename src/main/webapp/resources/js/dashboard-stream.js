@@ -0,0 +1,56 @@
+// Fills the dashboard's skeleton cards from /locations/dashboard/stream as the weather arrives.
+(function () {
+  var script = document.currentScript;
+  var source = new EventSource(script.dataset.streamUrl);
+
+  function pendingCard(id) {
+    return document.querySelector('.weather-card-pending[data-location-id="' + id + '"]');
+  }
+
+  function setField(card, name, value) {
+    var el = card.querySelector('[data-field="' + name + '"]');
+    if (!el) return;
+    el.classList.remove('placeholder');
+    el.textContent = value;
+  }
+
+  function markUnavailable(card) {
+    card.classList.remove('weather-card-pending');
+    card.classList.add('weather-card-unavailable');
+    setField(card, 'temp', '—');
+    setField(card, 'feelsLike', '—');
+    setField(card, 'humidity', '—');
+    setField(card, 'description', 'Weather is unavailable right now.');
+  }
+
+  source.addEventListener('location', function (event) {
+    var loc = JSON.parse(event.data);
+    var card = pendingCard(loc.id);
+    if (!card) return;
+
+    setField(card, 'temp', loc.temp + '°C');
+    setField(card, 'country', ', ' + loc.country);
+    setField(card, 'feelsLike', loc.feelsLike);
+    setField(card, 'description', loc.description || '');
+    setField(card, 'humidity', loc.humidity);
+    if (loc.iconUrl) {
+      var icon = card.querySelector('[data-field="iconUrl"]');
+      icon.src = loc.iconUrl;
+      icon.hidden = false;
+    }
+    card.classList.remove('weather-card-pending');
+  });
+
+  source.addEventListener('unavailable', function (event) {
+    var card = pendingCard(JSON.parse(event.data).id);
+    if (card) markUnavailable(card);
+  });
+
+  function close() {
+    source.close();
+    document.querySelectorAll('.weather-card-pending').forEach(markUnavailable);
+  }
+
+  source.addEventListener('done', close);
+  source.onerror = close;
+})();
@@ -0,0 +1,52 @@
+package io.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DashboardFragmentCacheTest {
+
+    private final DashboardFragmentCache cache = new DashboardFragmentCache(50);
+
+    @Test
+    void get_ShouldReturnHtml_OnlyForTheSameVersion() {
+        cache.put(1L, null, "1@1;", "<div>cards</div>");
+
+        assertThat(cache.get(1L, null, "1@1;")).isEqualTo("<div>cards</div>");
+        assertThat(cache.get(1L, null, "1@2;")).isNull();
+        assertThat(cache.hitCount()).isEqualTo(1);
+        assertThat(cache.missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void get_ShouldKeepEachPageOfAUser() {
+        cache.put(1L, null, "1@1;", "<div>first</div>");
+        cache.put(1L, "abc", "2@1;", "<div>second</div>");
+
+        assertThat(cache.get(1L, null, "1@1;")).isEqualTo("<div>first</div>");
+        assertThat(cache.get(1L, "abc", "2@1;")).isEqualTo("<div>second</div>");
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void evict_ShouldDropAllPagesOfTheUser() {
+        cache.put(1L, null, "1@1;", "<div>cards</div>");
+        cache.put(1L, "abc", "2@1;", "<div>more cards</div>");
+        cache.put(2L, null, "3@1;", "<div>other user</div>");
+
+        cache.evict(1L);
+
+        assertThat(cache.get(1L, null, "1@1;")).isNull();
+        assertThat(cache.get(1L, "abc", "2@1;")).isNull();
+        assertThat(cache.get(2L, null, "3@1;")).isEqualTo("<div>other user</div>");
+    }
+
+    @Test
+    void put_ShouldNeverGrowBeyondMaxEntries() {
+        for (long userId = 0; userId < 1_000; userId++) {
+            cache.put(userId, null, "v", "html");
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(50);
+    }
+}
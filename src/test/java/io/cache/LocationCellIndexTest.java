@@ -0,0 +1,95 @@
+package io.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocationCellIndexTest {
+
+    private final LocationCellIndex index = new LocationCellIndex(0.1);
+
+    @Test
+    void shouldFindLocationsAndDistinctUsers_ByCellOfTheCoordinate() {
+        index.add(1, 10, 55.751, 37.618);
+        index.add(2, 11, 55.759, 37.611);
+        index.add(3, 10, 55.755, 37.615);
+        index.add(4, 12, 59.938, 30.314);
+
+        assertThat(index.locationIdsAt(55.75, 37.61)).containsExactlyInAnyOrder(1, 2, 3);
+        assertThat(index.userIdsAt(55.75, 37.61)).containsExactly(10, 11);
+        assertThat(index.locationIdsAt(-33.86, 151.2)).isEmpty();
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    @Test
+    void remove_ShouldDropOnlyThatLocation() {
+        index.add(1, 10, 55.751, 37.618);
+        index.add(2, 11, 55.759, 37.611);
+
+        index.remove(1);
+        index.remove(99);
+
+        assertThat(index.locationIdsAt(55.75, 37.61)).containsExactly(2);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void add_ShouldMoveLocation_WhenAddedAgainWithOtherCoordinates() {
+        index.add(1, 10, 55.751, 37.618);
+        index.add(1, 10, 59.938, 30.314);
+
+        assertThat(index.locationIdsAt(55.75, 37.61)).isEmpty();
+        assertThat(index.locationIdsAt(59.93, 30.31)).containsExactly(1);
+    }
+
+    @Test
+    void finishRebuild_ShouldReplayChangesMadeWhileRebuilding() {
+        index.add(1, 10, 55.751, 37.618);
+        LocationCellIndex.Rebuild rebuild = index.startRebuild(16);
+        rebuild.add(1, 10, 55.751, 37.618);
+        rebuild.add(2, 11, 55.759, 37.611);
+
+        index.add(3, 12, 55.755, 37.615);
+        index.remove(2);
+        assertThat(index.locationIdsAt(55.75, 37.61)).containsExactlyInAnyOrder(1, 3);
+
+        index.finishRebuild(rebuild);
+
+        assertThat(index.locationIdsAt(55.75, 37.61)).containsExactlyInAnyOrder(1, 3);
+    }
+
+    @Test
+    void finishRebuild_ShouldKeepEachRebuildsChanges_WhenRebuildsOverlap() {
+        LocationCellIndex.Rebuild first = index.startRebuild(16);
+        first.add(1, 10, 55.751, 37.618);
+        index.add(2, 11, 55.759, 37.611);
+
+        LocationCellIndex.Rebuild second = index.startRebuild(16);
+        second.add(1, 10, 55.751, 37.618);
+        second.add(2, 11, 55.759, 37.611);
+        index.add(3, 12, 55.755, 37.615);
+
+        index.finishRebuild(first);
+        assertThat(index.locationIdsAt(55.75, 37.61)).containsExactlyInAnyOrder(1, 2, 3);
+
+        index.remove(1);
+        index.finishRebuild(second);
+        assertThat(index.locationIdsAt(55.75, 37.61)).containsExactlyInAnyOrder(2, 3);
+
+        index.add(4, 13, 55.752, 37.612);
+        assertThat(index.locationIdsAt(55.75, 37.61)).containsExactlyInAnyOrder(2, 3, 4);
+    }
+
+    @Test
+    void abortRebuild_ShouldLeaveOtherRebuildsRunning() {
+        LocationCellIndex.Rebuild aborted = index.startRebuild(16);
+        LocationCellIndex.Rebuild kept = index.startRebuild(16);
+        kept.add(1, 10, 55.751, 37.618);
+
+        index.abortRebuild(aborted);
+        index.add(2, 11, 55.759, 37.611);
+        index.finishRebuild(kept);
+
+        assertThat(index.locationIdsAt(55.75, 37.61)).containsExactlyInAnyOrder(1, 2);
+    }
+}
@@ -0,0 +1,70 @@
+package io.cache;
+
+import io.model.dto.LocationDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocationTrieTest {
+
+    private final LocationTrie trie = new LocationTrie(10, 100);
+
+    @Test
+    void startingWith_ShouldFindRecordedLocations_ShortestNamesFirst() {
+        LocationDTO london = location("London", "GB");
+        LocationDTO londonderry = location("Londonderry", "GB");
+        LocationDTO londonOntario = location("London", "CA");
+        trie.record("London", List.of(londonderry, london, londonOntario));
+
+        assertThat(trie.startingWith("  LON ", 10)).containsExactly(london, londonOntario, londonderry);
+        assertThat(trie.startingWith("lon", 1)).containsExactly(london);
+        assertThat(trie.startingWith("par", 10)).isEmpty();
+    }
+
+    @Test
+    void isQueried_ShouldOnlyHoldForRecordedQueries() {
+        trie.record("Mosc", List.of(location("Moscow", "RU")));
+
+        assertThat(trie.isQueried("mosc")).isTrue();
+        assertThat(trie.isQueried("mos")).isFalse();
+        assertThat(trie.isQueried("moscow")).isFalse();
+    }
+
+    @Test
+    void record_ShouldIgnoreDuplicates_AndStartOverWhenFull() {
+        LocationDTO moscow = location("Moscow", "RU");
+        trie.record("Moscow", List.of(moscow));
+        trie.record("Moscow", List.of(moscow));
+        assertThat(trie.size()).isEqualTo(1);
+
+        trie.record("Springfield", List.of(
+                location("Springfield", "US"), location("Springfield", "AU"), location("Springfield", "CA"),
+                location("Springfield", "NZ"), location("Springfield", "GB"), location("Springfield", "ZA"),
+                location("Springfield", "JM"), location("Springfield", "IE"), location("Springfield", "BS"),
+                location("Springfield", "FJ")));
+
+        assertThat(trie.size()).isEqualTo(10);
+        assertThat(trie.isQueried("moscow")).isFalse();
+        assertThat(trie.startingWith("mos", 10)).isEmpty();
+    }
+
+    @Test
+    void record_ShouldStartOver_WhenQueriesWithoutResultsOutgrowTheNodeBudget() {
+        trie.record("Moscow", List.of(location("Moscow", "RU")));
+
+        for (char c = 'a'; c <= 'z'; c++) {
+            trie.record(c + "xyz", List.of());
+            assertThat(trie.nodeCount()).isLessThanOrEqualTo(100);
+        }
+
+        assertThat(trie.size()).isZero();
+        assertThat(trie.isQueried("moscow")).isFalse();
+        assertThat(trie.isQueried("zxyz")).isTrue();
+    }
+
+    private static LocationDTO location(String name, String country) {
+        return LocationDTO.builder().name(name).country(country).build();
+    }
+}
@@ -0,0 +1,62 @@
+package io.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RejectedTokenCacheTest {
+
+    private final SessionCacheTest.MutableClock clock =
+            new SessionCacheTest.MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+
+    @Test
+    void isRejected_ShouldCountHits_WhenTokenWasRejected() {
+        RejectedTokenCache cache = cache(100);
+
+        cache.reject("garbage");
+
+        assertThat(cache.isRejected("garbage")).isTrue();
+        assertThat(cache.isRejected("other")).isFalse();
+        assertThat(cache.hitCount()).isEqualTo(1);
+        assertThat(cache.missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void isRejected_ShouldForgetToken_AfterTtl() {
+        RejectedTokenCache cache = cache(100);
+
+        cache.reject("garbage");
+        clock.advance(Duration.ofSeconds(31));
+        assertThat(cache.isRejected("garbage")).isTrue();
+
+        clock.advance(Duration.ofSeconds(31));
+        assertThat(cache.isRejected("garbage")).isFalse();
+    }
+
+    @Test
+    void isRejected_ShouldRejectOversizedToken_WithoutStoringIt() {
+        RejectedTokenCache cache = cache(100);
+
+        assertThat(cache.isRejected("x".repeat(10_000))).isTrue();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void reject_ShouldNeverGrowBeyondMaxEntries() {
+        RejectedTokenCache cache = cache(50);
+
+        for (int i = 0; i < 1_000; i++) {
+            cache.reject(UUID.randomUUID().toString());
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(50);
+    }
+
+    private RejectedTokenCache cache(int maxEntries) {
+        return new RejectedTokenCache(maxEntries, Duration.ofMinutes(1), clock);
+    }
+}
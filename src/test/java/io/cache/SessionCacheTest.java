@@ -0,0 +1,103 @@
+package io.cache;
+
+import io.security.TokenDigest;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SessionCacheTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+
+    @Test
+    void get_ShouldReturnNull_WhenTokenIsUnknown() {
+        SessionCache cache = cache(10);
+
+        assertThat(cache.get(UUID.randomUUID())).isNull();
+    }
+
+    @Test
+    void putValid_ShouldExpireAtSessionExpiry() {
+        SessionCache cache = cache(10);
+        UUID token = UUID.randomUUID();
+
+        cache.putValid(token, 1L, clock.instant().plusSeconds(60));
+        assertThat(cache.get(token).userId()).isEqualTo(1L);
+
+        clock.advance(Duration.ofSeconds(61));
+        assertThat(cache.get(token)).isNull();
+    }
+
+    @Test
+    void putValid_ShouldBeCappedByMaxTtl() {
+        SessionCache cache = cache(10);
+        UUID token = UUID.randomUUID();
+
+        cache.putValid(token, 1L, clock.instant().plus(Duration.ofHours(24)));
+
+        clock.advance(Duration.ofMinutes(6));
+        assertThat(cache.get(token)).isNull();
+    }
+
+    @Test
+    void put_ShouldNeverGrowBeyondMaxEntries() {
+        SessionCache cache = cache(50);
+
+        for (int i = 0; i < 1_000; i++) {
+            cache.putValid(UUID.randomUUID(), 1L, clock.instant().plusSeconds(60));
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(50);
+    }
+
+    @Test
+    void invalidateDigest_ShouldDropEntry_ForTokenWithThatDigest() {
+        SessionCache cache = cache(10);
+        UUID token = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        cache.putValid(token, 1L, clock.instant().plusSeconds(60));
+        cache.putValid(other, 2L, clock.instant().plusSeconds(60));
+
+        cache.invalidateDigest(TokenDigest.of(token.toString()));
+
+        assertThat(cache.get(token)).isNull();
+        assertThat(cache.get(other)).isNotNull();
+    }
+
+    private SessionCache cache(int maxEntries) {
+        return new SessionCache(maxEntries, Duration.ofMinutes(5), clock);
+    }
+
+    static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration d) {
+            now = now.plus(d);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
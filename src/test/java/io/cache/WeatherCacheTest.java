@@ -0,0 +1,91 @@
+package io.cache;
+
+import io.model.dto.WeatherDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WeatherCacheTest {
+
+    private final SessionCacheTest.MutableClock clock =
+            new SessionCacheTest.MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+
+    @Test
+    void get_ShouldReturnSnapshot_UntilTtlRunsOut() {
+        WeatherCache cache = cache(10);
+        WeatherCache.Snapshot snapshot = cache.put(55.75, 37.61, new WeatherDTO());
+
+        assertThat(cache.get(55.75, 37.61)).isSameAs(snapshot);
+
+        clock.advance(Duration.ofMinutes(11));
+        assertThat(cache.get(55.75, 37.61)).isNull();
+    }
+
+    @Test
+    void put_ShouldDeriveVersionFromWeather() {
+        WeatherCache cache = cache(10);
+        WeatherCache otherNode = cache(10);
+
+        long first = cache.put(55.75, 37.61, new WeatherDTO("Moscow", "RU", 14, 15, 70, 800, "01d")).version();
+        long same = otherNode.put(55.75, 37.61, new WeatherDTO("Moscow", "RU", 14, 15, 70, 800, "01d")).version();
+        long warmer = cache.put(55.75, 37.61, new WeatherDTO("Moscow", "RU", 15, 16, 70, 800, "01d")).version();
+
+        assertThat(same).isEqualTo(first);
+        assertThat(warmer).isNotEqualTo(first);
+    }
+
+    @Test
+    void put_ShouldNeverGrowBeyondMaxEntries() {
+        WeatherCache cache = cache(50);
+
+        for (int i = 0; i < 1_000; i++) {
+            cache.put(i, i, new WeatherDTO());
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(50);
+    }
+
+    @Test
+    void getOrLoad_ShouldShareOneLoad_BetweenConcurrentCallers() {
+        WeatherCache cache = cache(10);
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture<WeatherDTO> upstream = new CompletableFuture<>();
+
+        CompletableFuture<WeatherCache.Snapshot> first = cache.getOrLoad(55.75, 37.61, () -> {
+            loads.incrementAndGet();
+            return upstream;
+        });
+        CompletableFuture<WeatherCache.Snapshot> second = cache.getOrLoad(55.75, 37.61, () -> {
+            loads.incrementAndGet();
+            return new CompletableFuture<>();
+        });
+        upstream.complete(new WeatherDTO());
+
+        assertThat(second).isSameAs(first);
+        assertThat(loads).hasValue(1);
+        assertThat(cache.get(55.75, 37.61)).isSameAs(first.join());
+        assertThat(cache.loadingCount()).isZero();
+    }
+
+    @Test
+    void getOrLoad_ShouldLoadAgain_AfterFailure() {
+        WeatherCache cache = cache(10);
+
+        CompletableFuture<WeatherCache.Snapshot> failed = cache.getOrLoad(55.75, 37.61,
+                () -> CompletableFuture.failedFuture(new IllegalStateException("down")));
+        CompletableFuture<WeatherCache.Snapshot> retried = cache.getOrLoad(55.75, 37.61,
+                () -> CompletableFuture.completedFuture(new WeatherDTO()));
+
+        assertThat(failed).isCompletedExceptionally();
+        assertThat(retried.join()).isNotNull();
+    }
+
+    private WeatherCache cache(int maxEntries) {
+        return new WeatherCache(maxEntries, Duration.ofMinutes(10), clock);
+    }
+}
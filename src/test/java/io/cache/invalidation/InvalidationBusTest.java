@@ -0,0 +1,73 @@
+package io.cache.invalidation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvalidationBusTest {
+
+    private final RecordingListener listener = new RecordingListener();
+    private final InvalidationBus bus = new InvalidationBus(null, List.of(listener));
+
+    @Test
+    void dispatch_ShouldDeliverEventsFromOtherNodesInOneBatch() {
+        List<String> payloads = new ArrayList<>();
+        payloads.addAll(InvalidationBus.encode("node-a", List.of(InvalidationEvent.session("t1"))));
+        payloads.addAll(InvalidationBus.encode("node-b", List.of(InvalidationEvent.userLocations(7L))));
+
+        bus.dispatch(payloads);
+
+        assertThat(listener.batches).containsExactly(
+                List.of(InvalidationEvent.session("t1"), InvalidationEvent.userLocations(7L)));
+    }
+
+    @Test
+    void dispatch_ShouldIgnoreOwnNotifications() {
+        bus.dispatch(InvalidationBus.encode(bus.nodeId(), List.of(InvalidationEvent.session("t1"))));
+
+        assertThat(listener.batches).isEmpty();
+    }
+
+    @Test
+    void encode_ShouldSplitPayloadsThatExceedNotifyLimit() {
+        List<InvalidationEvent> events = IntStream.range(0, 500)
+                .mapToObj(i -> InvalidationEvent.session("00000000-0000-0000-0000-" + String.format("%012d", i)))
+                .toList();
+
+        List<String> payloads = InvalidationBus.encode("node-a", events);
+
+        assertThat(payloads).hasSizeGreaterThan(1);
+        assertThat(payloads).allMatch(p -> p.getBytes().length < 8000 && p.startsWith("node-a\n"));
+        bus.dispatch(payloads);
+        assertThat(listener.batches.get(0)).hasSize(500);
+    }
+
+    @Test
+    void session_ShouldCarryTokenDigest_NeverTheToken() {
+        String token = "8d8b8719-ea64-4823-91b1-22d515a53c61";
+
+        String line = InvalidationEvent.session(token).encode();
+
+        assertThat(line).startsWith("SESSION:").doesNotContain(token).doesNotContain("8d8b8719");
+        assertThat(InvalidationEvent.decode(line)).contains(InvalidationEvent.session(token));
+    }
+
+    static final class RecordingListener implements InvalidationListener {
+        final List<List<InvalidationEvent>> batches = new ArrayList<>();
+        int resyncs;
+
+        @Override
+        public void onInvalidate(List<InvalidationEvent> events) {
+            batches.add(List.copyOf(events));
+        }
+
+        @Override
+        public void onResync() {
+            resyncs++;
+        }
+    }
+}
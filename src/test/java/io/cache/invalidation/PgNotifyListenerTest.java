@@ -0,0 +1,100 @@
+package io.cache.invalidation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+class PgNotifyListenerTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final String APP_NAME = "test-invalidation-listener";
+
+    private final BlockingQueue<List<String>> received = new LinkedBlockingQueue<>();
+    private final CountDownLatch resynced = new CountDownLatch(1);
+
+    private PgNotifyListener listener;
+    private Thread thread;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        listener.stop();
+        thread.join(5_000);
+    }
+
+    @Test
+    void shouldReceiveNotifications_AndResyncAfterConnectionDrop() throws Exception {
+        listener = new PgNotifyListener(this::connectListener, InvalidationBus.CHANNEL, received::add, resynced::countDown,
+                100, 1_000, 1_000);
+        thread = new Thread(listener, "test-listener");
+        thread.start();
+
+        awaitListening();
+        notify("node-a\nSESSION:t1");
+        assertThat(received.poll(5, TimeUnit.SECONDS)).containsExactly("node-a\nSESSION:t1");
+
+        try (Connection c = connect(); Statement st = c.createStatement()) {
+            st.execute("SELECT pg_terminate_backend(pid) FROM pg_stat_activity WHERE application_name = '"
+                    + APP_NAME + "'");
+        }
+        assertThat(resynced.await(10, TimeUnit.SECONDS)).isTrue();
+
+        awaitListening();
+        notify("node-a\nUSER_LOCATIONS:1");
+        assertThat(received.poll(5, TimeUnit.SECONDS)).containsExactly("node-a\nUSER_LOCATIONS:1");
+    }
+
+    private Connection connectListener() throws SQLException {
+        Properties props = new Properties();
+        props.setProperty("user", POSTGRES.getUsername());
+        props.setProperty("password", POSTGRES.getPassword());
+        props.setProperty("ApplicationName", APP_NAME);
+        return DriverManager.getConnection(POSTGRES.getJdbcUrl(), props);
+    }
+
+    private Connection connect() throws SQLException {
+        return DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+    }
+
+    private void notify(String payload) throws SQLException {
+        try (Connection c = connect();
+             PreparedStatement ps = c.prepareStatement("SELECT pg_notify(?, ?)")) {
+            ps.setString(1, InvalidationBus.CHANNEL);
+            ps.setString(2, payload);
+            ps.execute();
+        }
+    }
+
+    private void awaitListening() throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            try (Connection c = connect(); Statement st = c.createStatement();
+                 var rs = st.executeQuery("SELECT count(*) FROM pg_stat_activity WHERE application_name = '" + APP_NAME + "'")) {
+                rs.next();
+                if (rs.getInt(1) > 0) {
+                    return;
+                }
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("listener did not connect");
+    }
+}
@@ -0,0 +1,56 @@
+package io.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LazyInitBeanFactoryPostProcessorTest {
+
+    @Test
+    void postProcessBeanFactory_ShouldMakePlainBeansLazy_WhenEnabled() {
+        GenericApplicationContext context = context(true, "");
+
+        assertThat(context.getBeanDefinition("plain").isLazyInit()).isTrue();
+        assertThat(context.getBeanDefinition("scheduled").isLazyInit()).isFalse();
+    }
+
+    @Test
+    void postProcessBeanFactory_ShouldKeepConfiguredBeansEager() {
+        GenericApplicationContext context = context(true, "plain");
+
+        assertThat(context.getBeanDefinition("plain").isLazyInit()).isFalse();
+    }
+
+    @Test
+    void postProcessBeanFactory_ShouldDoNothing_WhenDisabled() {
+        GenericApplicationContext context = context(false, "");
+
+        assertThat(context.getBeanDefinition("plain").isLazyInit()).isFalse();
+    }
+
+    private GenericApplicationContext context(boolean enabled, String eager) {
+        GenericApplicationContext context = new GenericApplicationContext();
+        context.setEnvironment(new MockEnvironment()
+                .withProperty("startup.lazy-init.enabled", String.valueOf(enabled))
+                .withProperty("startup.lazy-init.eager", eager));
+        context.registerBean("plain", Plain.class);
+        context.registerBean("scheduled", ScheduledJob.class);
+        LazyInitBeanFactoryPostProcessor processor = new LazyInitBeanFactoryPostProcessor();
+        processor.setEnvironment(context.getEnvironment());
+        context.addBeanFactoryPostProcessor(processor);
+        context.refresh();
+        return context;
+    }
+
+    static class Plain {
+    }
+
+    static class ScheduledJob {
+        @Scheduled(fixedDelay = 1000)
+        void run() {
+        }
+    }
+}
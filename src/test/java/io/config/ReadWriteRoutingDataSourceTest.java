@@ -0,0 +1,70 @@
+package io.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica = mock(DataSource.class);
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReadWriteRoutingDataSource.clearPin();
+    }
+
+    @Test
+    void getConnection_ShouldUseReplica_ForReadOnlyTransaction() throws SQLException {
+        ReadWriteRoutingDataSource routing = routing(replica);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routing.getConnection()).isSameAs(replicaConnection);
+        assertThat(routing.routedCount(ReadWriteRoutingDataSource.Route.REPLICA)).isEqualTo(1);
+    }
+
+    @Test
+    void getConnection_ShouldUsePrimary_ForWritableTransaction() throws SQLException {
+        ReadWriteRoutingDataSource routing = routing(replica);
+
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        assertThat(routing.routedCount(ReadWriteRoutingDataSource.Route.PRIMARY)).isEqualTo(1);
+    }
+
+    @Test
+    void getConnection_ShouldUsePrimary_WhenPinnedAfterWrite() throws SQLException {
+        ReadWriteRoutingDataSource routing = routing(replica);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        ReadWriteRoutingDataSource.pinToPrimary();
+
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void getConnection_ShouldUsePrimary_WhenNoReplicaConfigured() throws SQLException {
+        ReadWriteRoutingDataSource routing = routing(null);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        assertThat(routing.hasReplica()).isFalse();
+    }
+
+    private ReadWriteRoutingDataSource routing(DataSource replicaOrNull) throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        if (replicaOrNull != null) {
+            when(replicaOrNull.getConnection()).thenReturn(replicaConnection);
+        }
+        return new ReadWriteRoutingDataSource(primary, replicaOrNull);
+    }
+}
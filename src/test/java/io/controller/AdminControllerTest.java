@@ -0,0 +1,114 @@
+package io.controller;
+
+import io.cache.RejectedTokenCache;
+import io.monitoring.SqlStatistics;
+import io.security.LoginThrottle;
+import io.security.PasswordHasher;
+import io.service.AlertEvaluationService;
+import io.service.WeatherPrefetcher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AdminControllerTest {
+
+    private final SqlStatistics sqlStatistics = new SqlStatistics(10, 1_000);
+    private final AlertEvaluationService alertEvaluationService = mock(AlertEvaluationService.class);
+    private final PasswordHasher passwordHasher = mock(PasswordHasher.class);
+    private final LoginThrottle loginThrottle = new LoginThrottle(1, 50, 60, 1024);
+    private final RejectedTokenCache rejectedTokenCache = new RejectedTokenCache(100, 60);
+    private final WeatherPrefetcher weatherPrefetcher = mock(WeatherPrefetcher.class);
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        AdminController controller = new AdminController(sqlStatistics, alertEvaluationService, passwordHasher,
+                loginThrottle, rejectedTokenCache, weatherPrefetcher);
+        ReflectionTestUtils.setField(controller, "adminToken", "secret");
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void sqlStats_ShouldReturnStatistics_WhenTokenMatches() throws Exception {
+        sqlStatistics.forSql("select 1 from users").recordExecution(1_000_000);
+
+        String body = mockMvc.perform(get("/admin/sql-stats").header(AdminController.TOKEN_HEADER, "secret"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(body).contains("\"sql\":\"select ? from users\"", "\"executions\":1");
+    }
+
+    @Test
+    void sqlStats_ShouldBeHidden_WhenTokenIsWrong() throws Exception {
+        mockMvc.perform(get("/admin/sql-stats").header(AdminController.TOKEN_HEADER, "guess"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void alertStats_ShouldReturnLastRun() throws Exception {
+        when(alertEvaluationService.lastRun()).thenReturn(new AlertEvaluationService.Run(1200, 40, 3, 0, 600, 2000));
+
+        String body = mockMvc.perform(get("/admin/alert-stats").header(AdminController.TOKEN_HEADER, "secret"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(body).contains("\"rules\":1200", "\"rulesPerSecond\":2000");
+    }
+
+    @Test
+    void hashStats_ShouldReturnBcryptLatency() throws Exception {
+        when(passwordHasher.stats()).thenReturn(new PasswordHasher.Stats(40, 52_000, 90_000, 1, 0, 2));
+
+        String body = mockMvc.perform(get("/admin/hash-stats").header(AdminController.TOKEN_HEADER, "secret"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(body).contains("\"hashes\":40", "\"avgMicros\":52000", "\"maxMicros\":90000");
+    }
+
+    @Test
+    void loginThrottleStats_ShouldReportRejectedAttempts() throws Exception {
+        loginThrottle.tryAcquire("alice", "10.0.0.1");
+        loginThrottle.tryAcquire("alice", "10.0.0.1");
+
+        String body = mockMvc.perform(get("/admin/login-throttle-stats").header(AdminController.TOKEN_HEADER, "secret"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(body).contains("\"rejected\":1", "\"perLoginLimit\":1");
+    }
+
+    @Test
+    void rejectedTokenStats_ShouldReportHitsAndMisses() throws Exception {
+        rejectedTokenCache.reject("dead-cookie");
+        rejectedTokenCache.isRejected("dead-cookie");
+        rejectedTokenCache.isRejected("live-cookie");
+
+        String body = mockMvc.perform(get("/admin/rejected-token-stats").header(AdminController.TOKEN_HEADER, "secret"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(body).contains("\"hits\":1", "\"misses\":1", "\"size\":1");
+    }
+
+    @Test
+    void prefetchStats_ShouldReportDroppedPrefetches() throws Exception {
+        when(weatherPrefetcher.stats()).thenReturn(new WeatherPrefetcher.Stats(7, 2, 64));
+
+        String body = mockMvc.perform(get("/admin/prefetch-stats").header(AdminController.TOKEN_HEADER, "secret"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(body).contains("\"dropped\":7", "\"active\":2", "\"queued\":64");
+    }
+}
@@ -1,14 +1,17 @@
 package io.controller;
 
 import io.model.entity.User;
+import io.security.LoginThrottle;
 import io.service.SessionService;
 import io.service.UserService;
+import io.service.WeatherPrefetcher;
 import jakarta.servlet.http.Cookie;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
@@ -18,7 +21,9 @@ import org.springframework.web.servlet.view.InternalResourceViewResolver;
 import java.util.Optional;
 import java.util.UUID;
 
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -33,6 +38,12 @@ public class AuthControllerTest {
     @Mock
     private SessionService sessionService;
 
+    @Mock
+    private WeatherPrefetcher weatherPrefetcher;
+
+    @Spy
+    private LoginThrottle loginThrottle = new LoginThrottle(2, 100, 60, 1024);
+
     @InjectMocks
     private AuthController authController;
 
@@ -62,7 +73,7 @@ public class AuthControllerTest {
     @Test
     void loginForm_WhenUserLogged_ShouldReturnLoginPage() throws Exception {
 
-        when(sessionService.getUserIdByValidToken(any(UUID.class))).thenReturn(Optional.of(1L));
+        when(sessionService.getUserIdByValidToken(anyString())).thenReturn(Optional.of(1L));
 
         mockMvc.perform(get("/auth/login")
                         .cookie(new Cookie("session", "8d8b8719-ea64-4823-91b1-22d515a53c61")))
@@ -75,7 +86,7 @@ public class AuthControllerTest {
 
         User validUser = new User();
         validUser.setId(1L);
-        UUID sessionToken = UUID.randomUUID();
+        String sessionToken = UUID.randomUUID().toString();
 
         when(userService.login("login", "password")).thenReturn(validUser);
         when(sessionService.createForUser(1L)).thenReturn(sessionToken);
@@ -86,6 +97,47 @@ public class AuthControllerTest {
                 .andExpect(status().isFound())
                 .andExpect(redirectedUrl("/locations/dashboard"))
                 .andExpect(cookie().exists("session"));
+
+        verify(weatherPrefetcher).prefetch(1L);
+    }
+
+    @Test
+    void loginSubmit_WhenTooManyFailedAttempts_ShouldRejectBeforeCheckingCredentials() throws Exception {
+
+        when(userService.login("login", "wrong"))
+                .thenThrow(new IllegalArgumentException("Invalid username or password."));
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/auth/login")
+                            .param("login", "login")
+                            .param("password", "wrong"))
+                    .andExpect(status().isOk())
+                    .andExpect(view().name("login"));
+        }
+
+        mockMvc.perform(post("/auth/login")
+                        .param("login", " LOGIN ")
+                        .param("password", "password"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(view().name("login"));
+
+        verify(userService, times(2)).login(anyString(), anyString());
+    }
+
+    @Test
+    void loginSubmit_WhenLoginSucceeds_ShouldNotCountAgainstThrottle() throws Exception {
+
+        User validUser = new User();
+        validUser.setId(1L);
+        when(userService.login("login", "password")).thenReturn(validUser);
+        when(sessionService.createForUser(1L)).thenReturn(UUID.randomUUID().toString());
+
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(post("/auth/login")
+                            .param("login", "login")
+                            .param("password", "password"))
+                    .andExpect(status().isFound());
+        }
     }
 
     @Test
@@ -98,7 +150,7 @@ public class AuthControllerTest {
     @Test
     void registerForm_whenAuthUser_shouldReturnMainPage() throws Exception {
 
-        when(sessionService.getUserIdByValidToken(any(UUID.class)))
+        when(sessionService.getUserIdByValidToken(anyString()))
                 .thenReturn(Optional.of(1L));
 
         mockMvc.perform(get("/auth/register")
@@ -116,7 +168,7 @@ public class AuthControllerTest {
 
         when(userService.registerUser("login", "password", "password"))
                 .thenReturn(user);
-        when(sessionService.createForUser(1L)).thenReturn(UUID.randomUUID());
+        when(sessionService.createForUser(1L)).thenReturn(UUID.randomUUID().toString());
 
         mockMvc.perform(post("/auth/register")
                 .param("login", "login")
@@ -141,7 +193,7 @@ public class AuthControllerTest {
     @Test
     void logout_WhenUserIsLoggedIn_ShouldRedirectAndClearCookie() throws Exception {
 
-        when(sessionService.getUserIdByValidToken(any(UUID.class))).thenReturn(Optional.of(1L));
+        when(sessionService.getUserIdByValidToken(anyString())).thenReturn(Optional.of(1L));
 
         mockMvc.perform(post("/auth/logout")
                 .cookie(new Cookie("session", "8d8b8719-ea64-4823-91b1-22d515a53c61")))
@@ -0,0 +1,196 @@
+package io.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.config.AppConfig;
+import io.exception.LocationException;
+import io.model.dto.DashboardDTO;
+import io.model.dto.LocationDTO;
+import io.model.dto.PendingLocationDTO;
+import io.model.dto.SavedLocationWeatherDTO;
+import io.service.LocationSuggestService;
+import io.service.WeatherService;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class LocationApiControllerTest {
+
+    private final WeatherService weatherService = mock(WeatherService.class);
+    private final LocationSuggestService locationSuggestService = mock(LocationSuggestService.class);
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        LocationApiController controller =
+                new LocationApiController(weatherService, locationSuggestService,
+                        new AppConfig().apiObjectWriter(new ObjectMapper()));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void savedLocations_ShouldReturnJsonWithETag() throws Exception {
+        SavedLocationWeatherDTO moscow = new SavedLocationWeatherDTO(1L, "Moscow", 15.0, "RU", null, 14, 70, "10d");
+        when(weatherService.dashboardVersion(1L, null)).thenReturn("1@0;");
+        when(weatherService.fetchDashboardAsync(1L, null))
+                .thenReturn(CompletableFuture.completedFuture(new DashboardDTO(List.of(moscow), List.of(), "1@5;", null)));
+
+        MvcResult async = mockMvc.perform(get("/api/v1/locations").requestAttr("userId", 1L)).andReturn();
+        String body = mockMvc.perform(asyncDispatch(async))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, LocationApiController.eTag("1@5;")))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_LANGUAGE))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(body).startsWith("[{\"id\":1,\"name\":\"Moscow\"").doesNotContain("description");
+    }
+
+    @Test
+    void savedLocations_ShouldLinkTheNextPage() throws Exception {
+        when(weatherService.dashboardVersion(1L, "abc")).thenReturn("2@0;");
+        when(weatherService.fetchDashboardAsync(1L, "abc"))
+                .thenReturn(CompletableFuture.completedFuture(new DashboardDTO(List.of(), List.of(), "2@0;", "def")));
+
+        MvcResult async = mockMvc.perform(get("/api/v1/locations").param("after", "abc").requestAttr("userId", 1L))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(async))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.LINK, "<http://localhost/api/v1/locations?after=def>; rel=\"next\""));
+    }
+
+    @Test
+    void savedLocations_ShouldReturnNotModified_WithoutFetchingWeather() throws Exception {
+        when(weatherService.dashboardVersion(1L, null)).thenReturn("1@5;");
+        String eTag = LocationApiController.eTag("1@5;");
+
+        MvcResult async = mockMvc.perform(get("/api/v1/locations")
+                        .requestAttr("userId", 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(async))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag));
+
+        verify(weatherService, never()).fetchDashboardAsync(any(), any());
+    }
+
+    @Test
+    void savedLocations_ShouldReturnNotModified_ForWeakOrListedETags() throws Exception {
+        when(weatherService.dashboardVersion(1L, null)).thenReturn("1@5;");
+        String eTag = LocationApiController.eTag("1@5;");
+
+        MvcResult async = mockMvc.perform(get("/api/v1/locations")
+                        .requestAttr("userId", 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + eTag))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(async)).andExpect(status().isNotModified());
+
+        verify(weatherService, never()).fetchDashboardAsync(any(), any());
+    }
+
+    @Test
+    void savedLocations_ShouldListUnavailableLocations_WithoutETag() throws Exception {
+        SavedLocationWeatherDTO moscow = new SavedLocationWeatherDTO(1L, "Moscow", 15.0, "RU", null, 14, 70, "10d");
+        when(weatherService.dashboardVersion(1L, null)).thenReturn("1@0;2@0;");
+        when(weatherService.fetchDashboardAsync(1L, null)).thenReturn(CompletableFuture.completedFuture(
+                new DashboardDTO(List.of(moscow), List.of(new PendingLocationDTO(2L, "Berlin")), "1@5;2@0;", null)));
+
+        MvcResult async = mockMvc.perform(get("/api/v1/locations")
+                        .requestAttr("userId", 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, LocationApiController.eTag("1@5;2@0;")))
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(async))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(header().string(LocationApiController.WEATHER_UNAVAILABLE, "2"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(body).startsWith("[{\"id\":1,").doesNotContain("Berlin");
+    }
+
+    @Test
+    void addLocation_ShouldReturnConflict_WhenLocationAlreadyAdded() throws Exception {
+        doThrow(new LocationException("This location has already been added."))
+                .when(weatherService).addLocation(any(LocationDTO.class), eq(1L));
+
+        String body = mockMvc.perform(post("/api/v1/locations")
+                        .requestAttr("userId", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Berlin\",\"lat\":52.52,\"lon\":13.405,\"country\":\"DE\"}"))
+                .andExpect(status().isConflict())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(body).isEqualTo("{\"error\":\"This location has already been added.\"}");
+    }
+
+    @Test
+    void addLocation_ShouldReturnBadRequest_WhenCoordinatesAreMissing() throws Exception {
+        mockMvc.perform(post("/api/v1/locations")
+                        .requestAttr("userId", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Berlin\",\"country\":\"DE\"}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(weatherService);
+    }
+
+    @Test
+    void deleteLocation_ShouldReturnNoContent_OrNotFound() throws Exception {
+        doThrow(new LocationException("not found")).when(weatherService).deleteLocationByUser(1L, 99L);
+
+        mockMvc.perform(delete("/api/v1/locations/{id}", 10L).requestAttr("userId", 1L))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(delete("/api/v1/locations/{id}", 99L).requestAttr("userId", 1L))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void search_ShouldReturnFoundLocations() throws Exception {
+        when(weatherService.findLocationsByNameAsync("London")).thenReturn(CompletableFuture.completedFuture(
+                List.of(new LocationDTO(null, "London", "GB", 51.5072, -0.1276))));
+
+        MvcResult async = mockMvc.perform(get("/api/v1/locations/search").param("query", "London")).andReturn();
+        String body = mockMvc.perform(asyncDispatch(async))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(body).isEqualTo("[{\"name\":\"London\",\"country\":\"GB\",\"lat\":51.5072,\"lon\":-0.1276}]");
+    }
+
+    @Test
+    void suggest_ShouldReturnLocations_OrNoContentWhenSuperseded() throws Exception {
+        LocationDTO london = LocationDTO.builder().name("London").country("GB").build();
+        when(locationSuggestService.suggest("token", "lon"))
+                .thenReturn(CompletableFuture.completedFuture(Optional.of(List.of(london))));
+        when(locationSuggestService.suggest("token", "lo"))
+                .thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+
+        MvcResult found = mockMvc.perform(get("/api/v1/locations/suggest")
+                .cookie(new Cookie("session", "token")).param("q", "lon")).andReturn();
+        String body = mockMvc.perform(asyncDispatch(found))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(body).contains("\"name\":\"London\"");
+
+        MvcResult superseded = mockMvc.perform(get("/api/v1/locations/suggest")
+                .cookie(new Cookie("session", "token")).param("q", "lo")).andReturn();
+        mockMvc.perform(asyncDispatch(superseded)).andExpect(status().isNoContent());
+    }
+}
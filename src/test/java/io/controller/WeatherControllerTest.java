@@ -1,23 +1,36 @@
 package io.controller;
 
 import io.exception.LocationException;
+import io.exception.WeatherException;
+import io.model.dto.DashboardDTO;
 import io.model.dto.LocationDTO;
+import io.model.dto.PendingLocationDTO;
 import io.model.dto.SavedLocationWeatherDTO;
 import io.service.WeatherService;
+import io.web.LocationCardsRenderer;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockAsyncContext;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.servlet.view.InternalResourceViewResolver;
+import org.thymeleaf.context.LazyContextVariable;
 
-import java.io.IOException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -29,6 +42,9 @@ class WeatherControllerTest {
     @Mock
     private WeatherService weatherService;
 
+    @Mock
+    private LocationCardsRenderer locationCardsRenderer;
+
     @InjectMocks
     private WeatherController controller;
 
@@ -56,21 +72,73 @@ class WeatherControllerTest {
     }
 
     @Test
-    void dashboard_ShouldFetchLocationsAndReturnIndexView() throws Exception {
+    void dashboard_ShouldRenderCachedWeatherAndReturnIndexView() throws Exception {
         Long userId = 1L;
 
         SavedLocationWeatherDTO mockLocation =
                 new SavedLocationWeatherDTO(1L, "Moscow", 15.0, "RU", "Sunny", 15, 70, "10d");
         List<SavedLocationWeatherDTO> savedLocations = List.of(mockLocation);
+        List<PendingLocationDTO> pending = List.of(new PendingLocationDTO(2L, "Kazan"));
 
-        when(weatherService.fetchSavedLocationsWeather(userId)).thenReturn(savedLocations);
+        DashboardDTO dashboard = new DashboardDTO(savedLocations, pending, "1@1;2@0;", null);
+        when(weatherService.fetchCachedDashboard(userId, null)).thenReturn(dashboard);
+        when(locationCardsRenderer.render(eq(userId), isNull(), eq(dashboard), any(), any())).thenReturn("<div>cards</div>");
 
-        mockMvc.perform(get("/locations/dashboard")
+        MvcResult result = mockMvc.perform(get("/locations/dashboard")
                         .requestAttr("userId", userId))
                 .andExpect(status().isOk())
                 .andExpect(view().name("index"))
-                .andExpect(model().attributeExists("locations"))
-                .andExpect(model().attribute("locations", savedLocations));
+                .andReturn();
+        verifyNoInteractions(weatherService);
+
+        Map<String, Object> model = result.getModelAndView().getModel();
+        assertThat(((LazyContextVariable<?>) model.get("dashboard")).getValue()).isEqualTo(dashboard);
+        assertThat(((LazyContextVariable<?>) model.get("locationCards")).getValue()).isEqualTo("<div>cards</div>");
+        assertThat(result.getResponse().isCommitted()).isTrue();
+    }
+
+    @Test
+    void dashboardStream_ShouldSendCachedLocationsFirst() throws Exception {
+        Long userId = 1L;
+        SavedLocationWeatherDTO moscow = new SavedLocationWeatherDTO(1L, "Moscow", 15.0, "RU", "Sunny", 15, 70, "10d");
+        SavedLocationWeatherDTO kazan = new SavedLocationWeatherDTO(2L, "Kazan", 11.0, "RU", "Rain", 9, 90, "10d");
+        CompletableFuture<SavedLocationWeatherDTO> fresh = new CompletableFuture<>();
+
+        Map<Long, CompletableFuture<SavedLocationWeatherDTO>> weather = new LinkedHashMap<>();
+        weather.put(2L, fresh);
+        weather.put(1L, CompletableFuture.completedFuture(moscow));
+        when(weatherService.streamSavedLocationsWeather(userId, null)).thenReturn(weather);
+
+        MvcResult async = mockMvc.perform(get("/locations/dashboard/stream")
+                        .requestAttr("userId", userId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        fresh.complete(kazan);
+
+        String body = mockMvc.perform(asyncDispatch(async))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(body.indexOf("\"Moscow\"")).isLessThan(body.indexOf("\"Kazan\""));
+        assertThat(body).contains("event:location").endsWith("event:done\ndata:\n\n");
+    }
+
+    @Test
+    void dashboardStream_ShouldReportUnavailableWeather() throws Exception {
+        Long userId = 1L;
+        Map<Long, CompletableFuture<SavedLocationWeatherDTO>> weather =
+                Map.of(3L, CompletableFuture.failedFuture(new WeatherException("OpenWeather returned code 500")));
+        when(weatherService.streamSavedLocationsWeather(userId, null)).thenReturn(weather);
+
+        MvcResult async = mockMvc.perform(get("/locations/dashboard/stream")
+                        .requestAttr("userId", userId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(async))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(body).contains("event:unavailable\ndata:{\"id\":3}").contains("event:done");
     }
 
     @Test
@@ -79,9 +147,13 @@ class WeatherControllerTest {
         LocationDTO foundLocation = new LocationDTO(1L ,"London", "GB", 51.5072, -0.1276);
         List<LocationDTO> locations = List.of(foundLocation);
 
-        when(weatherService.findLocationsByName(query)).thenReturn(locations);
+        when(weatherService.findLocationsByNameAsync(query)).thenReturn(CompletableFuture.completedFuture(locations));
 
-        mockMvc.perform(get("/locations/search").param("query", query))
+        MvcResult async = mockMvc.perform(get("/locations/search").param("query", query))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(async))
                 .andExpect(status().isOk())
                 .andExpect(view().name("search"))
                 .andExpect(model().attribute("findLocation", locations));
@@ -89,7 +161,9 @@ class WeatherControllerTest {
 
     @Test
     void locationSearch_WithNullQuery_ShouldReturnEmptyList() throws Exception {
-        mockMvc.perform(get("/locations/search"))
+        MvcResult async = mockMvc.perform(get("/locations/search")).andReturn();
+
+        mockMvc.perform(asyncDispatch(async))
                 .andExpect(status().isOk())
                 .andExpect(view().name("search"))
                 .andExpect(model().attribute("locations", java.util.Collections.emptyList()))
@@ -97,26 +171,34 @@ class WeatherControllerTest {
     }
 
     @Test
-    void locationSearch_WhenServiceIsInterrupted_ShouldShowError() throws Exception {
+    void locationSearch_WhenSearchTimesOut_ShouldShowError() throws Exception {
         String query = "Berlin";
-        when(weatherService.findLocationsByName(query)).thenThrow(new InterruptedException("Search was interrupted"));
+        when(weatherService.findLocationsByNameAsync(query)).thenReturn(new CompletableFuture<>());
+
+        MvcResult async = mockMvc.perform(get("/locations/search").param("query", query))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        timeOut(async);
 
-        mockMvc.perform(get("/locations/search").param("query", query))
+        mockMvc.perform(asyncDispatch(async))
                 .andExpect(status().isOk())
                 .andExpect(view().name("search"))
-                .andExpect(model().attributeExists("errorMessage"))
-                .andExpect(model().attribute("errorMessage", "Search was interrupted!"));
+                .andExpect(model().attribute("errorMessage", "Search is taking longer than usual. Please try again."));
     }
 
     @Test
-    void locationSearch_WhenServiceThrowsIOException_ShouldShowError() throws Exception {
+    void locationSearch_WhenApiFails_ShouldShowError() throws Exception {
         String query = "Paris";
-        when(weatherService.findLocationsByName(query)).thenThrow(new IOException("API Error"));
+        when(weatherService.findLocationsByNameAsync(query))
+                .thenReturn(CompletableFuture.failedFuture(new WeatherException("API Error")));
 
-        mockMvc.perform(get("/locations/search").param("query", query))
+        MvcResult async = mockMvc.perform(get("/locations/search").param("query", query))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(async))
                 .andExpect(status().isOk())
                 .andExpect(view().name("search"))
-                .andExpect(model().attributeExists("errorMessage"))
                 .andExpect(model().attribute("errorMessage", "Unable to search locations"));
     }
 
@@ -187,6 +269,13 @@ class WeatherControllerTest {
                 .andExpect(flash().attribute("successMessage", "Location deleted!"));
     }
 
+    private static void timeOut(MvcResult async) throws Exception {
+        MockAsyncContext asyncContext = (MockAsyncContext) async.getRequest().getAsyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+    }
+
     @Test
     void locationDelete_WhenServiceThrowsException_ShouldShowError() throws Exception {
         Long userId = 1L;
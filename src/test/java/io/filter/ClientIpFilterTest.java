@@ -0,0 +1,70 @@
+package io.filter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ClientIpFilterTest {
+
+    private final ClientIpFilter filter = new ClientIpFilter("10.0.0.0/8, 192.168.1.5");
+
+    @Test
+    void resolve_ShouldTakeClientFromForwardedFor_WhenRequestComesFromLoadBalancer() {
+        assertThat(filter.resolve("10.1.2.3", List.of("203.0.113.7"))).isEqualTo("203.0.113.7");
+        assertThat(filter.resolve("192.168.1.5", List.of("203.0.113.7, 10.0.0.2"))).isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    void resolve_ShouldIgnoreSpoofedEntries_LeftOfTheFirstUntrustedHop() {
+        assertThat(filter.resolve("10.1.2.3", List.of("1.1.1.1, 203.0.113.7"))).isEqualTo("203.0.113.7");
+        assertThat(filter.resolve("10.1.2.3", List.of("1.1.1.1", "203.0.113.7"))).isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    void resolve_ShouldIgnoreHeader_FromUntrustedPeer() {
+        assertThat(filter.resolve("203.0.113.7", List.of("1.1.1.1"))).isEqualTo("203.0.113.7");
+        assertThat(filter.resolve("192.168.1.6", List.of("1.1.1.1"))).isEqualTo("192.168.1.6");
+    }
+
+    @Test
+    void resolve_ShouldStopAtGarbage_AndNeverResolveHostNames() {
+        assertThat(filter.resolve("10.1.2.3", List.of("example.com, 10.0.0.9"))).isEqualTo("10.0.0.9");
+        assertThat(filter.resolve("10.1.2.3", List.of())).isEqualTo("10.1.2.3");
+    }
+
+    @Test
+    void doFilter_ShouldExposeClientAsRemoteAddr() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/login");
+        request.setRemoteAddr("10.1.2.3");
+        request.addHeader("X-Forwarded-For", "203.0.113.7");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest().getRemoteAddr()).isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    void doFilter_ShouldLeaveRequestAlone_WithoutTrustedProxies() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/login");
+        request.setRemoteAddr("10.1.2.3");
+        request.addHeader("X-Forwarded-For", "203.0.113.7");
+        MockFilterChain chain = new MockFilterChain();
+
+        new ClientIpFilter("").doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest().getRemoteAddr()).isEqualTo("10.1.2.3");
+    }
+
+    @Test
+    void constructor_ShouldRejectInvalidProxyList() {
+        assertThatThrownBy(() -> new ClientIpFilter("lb.internal")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ClientIpFilter("10.0.0.0/33")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,50 @@
+package io.mapper;
+
+import io.model.apiweather.WeatherResponse;
+import io.model.dto.WeatherDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WeatherApiMapperTest {
+
+    private final WeatherApiMapper mapper = new WeatherApiMapperImpl();
+
+    @Test
+    void toDTO_ShouldKeepConditionId_InsteadOfUpstreamDescription() {
+        WeatherResponse response = new WeatherResponse(
+                "Moscow",
+                new WeatherResponse.Coord(37.62, 55.75),
+                List.of(new WeatherResponse.Weather(500, "Rain", "небольшой дождь", "10d")),
+                new WeatherResponse.Main(4.4, 1.2, 81),
+                new WeatherResponse.Sys("RU"));
+
+        WeatherDTO dto = mapper.toDTO(response);
+
+        assertThat(dto.getConditionId()).isEqualTo(500);
+        assertThat(dto.getIconUrl()).isEqualTo("https://openweathermap.org/img/wn/10d@2x.png");
+    }
+
+    @Test
+    void describe_ShouldLocalizeConditionId() {
+        assertThat(mapper.describe(800, Locale.ENGLISH)).isEqualTo("clear sky");
+        assertThat(mapper.describe(800, Locale.forLanguageTag("ru"))).isEqualTo("ясно");
+        assertThat(mapper.describe(804, Locale.forLanguageTag("ru-RU"))).isEqualTo("пасмурно");
+    }
+
+    @Test
+    void describe_ShouldFallBackToEnglish_ForLocalesWithoutBundle() {
+        assertThat(mapper.describe(600, Locale.JAPANESE)).isEqualTo("light snow");
+    }
+
+    @Test
+    void describe_ShouldFallBackToGroup_ForUnlistedIds() {
+        assertThat(mapper.describe(599, Locale.ENGLISH)).isEqualTo("rain");
+        assertThat(mapper.describe(599, Locale.forLanguageTag("ru"))).isEqualTo("дождь");
+        assertThat(mapper.describe(999, Locale.ENGLISH)).isNull();
+        assertThat(mapper.describe(null, Locale.ENGLISH)).isNull();
+    }
+}
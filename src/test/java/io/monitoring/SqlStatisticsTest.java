@@ -0,0 +1,52 @@
+package io.monitoring;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlStatisticsTest {
+
+    @Test
+    void normalize_ShouldReplaceLiteralsAndCollapseInLists() {
+        String sql = """
+                select * from locations
+                where user_id = 42 and name = 'O''Hare' and id in (?, ?, ?)
+                """;
+
+        assertThat(SqlStatistics.normalize(sql))
+                .isEqualTo("select * from locations where user_id = ? and name = ? and id in (?...)");
+    }
+
+    @Test
+    void forSql_ShouldAggregateExecutionsOfSameStatement() {
+        SqlStatistics statistics = new SqlStatistics(10, 1_000);
+
+        statistics.forSql("select * from users where id = 1").recordExecution(2_000_000);
+        SqlStatistics.StatementStats stats = statistics.forSql("select * from users where id = 2");
+        stats.recordExecution(4_000_000);
+        stats.addRows(3);
+
+        List<SqlStatistics.Snapshot> snapshot = statistics.snapshot();
+        assertThat(snapshot).hasSize(1);
+        assertThat(snapshot.get(0).executions()).isEqualTo(2);
+        assertThat(snapshot.get(0).totalMs()).isEqualTo(6.0);
+        assertThat(snapshot.get(0).maxMs()).isEqualTo(4.0);
+        assertThat(snapshot.get(0).rows()).isEqualTo(3);
+    }
+
+    @Test
+    void forSql_ShouldFoldOverflowIntoOtherBucket() {
+        SqlStatistics statistics = new SqlStatistics(2, 1_000);
+
+        statistics.forSql("select a from t1").recordExecution(1);
+        statistics.forSql("select b from t2").recordExecution(1);
+        statistics.forSql("select c from t3").recordExecution(1);
+
+        assertThat(statistics.snapshot())
+                .extracting(SqlStatistics.Snapshot::sql)
+                .contains(SqlStatistics.OTHER)
+                .hasSize(3);
+    }
+}
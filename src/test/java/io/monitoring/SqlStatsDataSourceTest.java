@@ -0,0 +1,76 @@
+package io.monitoring;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SqlStatsDataSourceTest {
+
+    private final EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.H2)
+            .generateUniqueName(true)
+            .build();
+    private final SqlStatistics statistics = new SqlStatistics(10, 60_000);
+    private final SqlStatsDataSource dataSource = new SqlStatsDataSource(database, statistics);
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void prepareCall_ShouldReturnCallableStatement() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             CallableStatement call = connection.prepareCall("CALL 1 + 1")) {
+            assertThat(call.execute()).isTrue();
+        }
+
+        assertThat(statistics.snapshot())
+                .singleElement()
+                .satisfies(s -> assertThat(s.executions()).isEqualTo(1));
+    }
+
+    @Test
+    void execute_ShouldCountRows_OfPreparedStatements() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement ddl = connection.createStatement()) {
+            ddl.execute("CREATE TABLE t (id INT)");
+            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO t VALUES (?)")) {
+                insert.setInt(1, 1);
+                assertThat(insert.executeUpdate()).isEqualTo(1);
+            }
+        }
+
+        assertThat(statistics.snapshot())
+                .filteredOn(s -> s.sql().startsWith("INSERT"))
+                .singleElement()
+                .satisfies(s -> assertThat(s.rows()).isEqualTo(1));
+    }
+
+    @Test
+    void execute_ShouldRecordFailedExecutions() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement select = connection.prepareStatement("SELECT 1 / ?")) {
+            select.setInt(1, 0);
+            assertThatThrownBy(select::executeQuery).isInstanceOf(SQLException.class);
+        }
+
+        assertThat(statistics.snapshot())
+                .singleElement()
+                .satisfies(s -> {
+                    assertThat(s.executions()).isEqualTo(1);
+                    assertThat(s.failures()).isEqualTo(1);
+                });
+    }
+}
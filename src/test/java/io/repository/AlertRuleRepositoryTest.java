@@ -0,0 +1,137 @@
+package io.repository;
+
+import io.model.entity.AlertRule;
+import io.model.entity.Location;
+import io.model.entity.TriggeredAlert;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {TestConfig.class})
+@Transactional
+public class AlertRuleRepositoryTest {
+
+    @Autowired
+    private AlertRuleRepository alertRuleRepository;
+
+    @Autowired
+    private LocationRepository locationRepository;
+
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void findDueBatch_ShouldJoinCoordinates_AndSkipRulesInCooldown() {
+        Location moscow = new Location("Moscow", 1L, 55.75, 37.62);
+        locationRepository.save(moscow);
+        AlertRule freezing = new AlertRule(1L, moscow.getId(), AlertRule.Metric.TEMPERATURE, AlertRule.Operator.BELOW, 0);
+        AlertRule humid = new AlertRule(1L, moscow.getId(), AlertRule.Metric.HUMIDITY, AlertRule.Operator.ABOVE, 90);
+        alertRuleRepository.save(freezing);
+        alertRuleRepository.save(humid);
+        Timestamp now = Timestamp.from(Instant.now());
+
+        alertRuleRepository.claimTriggered(List.of(humid.getId()), now, Timestamp.from(now.toInstant().minusSeconds(3600)));
+        sessionFactory.getCurrentSession().clear();
+        List<AlertCandidate> due = alertRuleRepository.findDueBatch(0, Timestamp.from(now.toInstant().minusSeconds(60)), 10);
+
+        assertEquals(1, due.size());
+        assertEquals(freezing.getId(), due.get(0).ruleId());
+        assertEquals(55.75, due.get(0).lat());
+        assertEquals(AlertRule.Operator.BELOW, due.get(0).operator());
+    }
+
+    @Test
+    void claimTriggered_ShouldClaimOnlyRulesOutOfCooldown() {
+        AlertRule fresh = new AlertRule(1L, 1L, AlertRule.Metric.TEMPERATURE, AlertRule.Operator.BELOW, 0);
+        AlertRule cooling = new AlertRule(1L, 1L, AlertRule.Metric.HUMIDITY, AlertRule.Operator.ABOVE, 90);
+        Instant now = Instant.now();
+        cooling.setLastTriggeredAt(Timestamp.from(now.minusSeconds(60)));
+        alertRuleRepository.save(fresh);
+        alertRuleRepository.save(cooling);
+        sessionFactory.getCurrentSession().flush();
+        Timestamp quietSince = Timestamp.from(now.minusSeconds(3600));
+
+        List<Long> first = alertRuleRepository.claimTriggered(
+                List.of(fresh.getId(), cooling.getId()), Timestamp.from(now), quietSince);
+        List<Long> second = alertRuleRepository.claimTriggered(
+                List.of(fresh.getId(), cooling.getId()), Timestamp.from(now), quietSince);
+
+        assertEquals(List.of(fresh.getId()), first);
+        assertEquals(List.of(), second);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void claimTriggered_ShouldLetOnlyOneNodeClaimARule() throws Exception {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        List<Long> ruleIds = new ArrayList<>();
+        tx.executeWithoutResult(s -> {
+            for (int i = 0; i < 5; i++) {
+                AlertRule rule = new AlertRule(42L, 1L, AlertRule.Metric.TEMPERATURE, AlertRule.Operator.BELOW, i);
+                alertRuleRepository.save(rule);
+                ruleIds.add(rule.getId());
+            }
+        });
+
+        Instant now = Instant.now();
+        ExecutorService nodes = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<List<Long>>> claims = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                claims.add(nodes.submit(() -> {
+                    start.await();
+                    return tx.execute(s -> alertRuleRepository.claimTriggered(
+                            ruleIds, Timestamp.from(now), Timestamp.from(now.minusSeconds(3600))));
+                }));
+            }
+            start.countDown();
+
+            List<Long> claimed = new ArrayList<>();
+            for (Future<List<Long>> claim : claims) {
+                claimed.addAll(claim.get(30, TimeUnit.SECONDS));
+            }
+            assertEquals(ruleIds, claimed.stream().sorted().toList());
+        } finally {
+            nodes.shutdownNow();
+            tx.executeWithoutResult(s -> sessionFactory.getCurrentSession()
+                    .createMutationQuery("DELETE FROM AlertRule r WHERE r.userId = 42")
+                    .executeUpdate());
+        }
+    }
+
+    @Test
+    void insertTriggered_ShouldWriteAllAlerts() {
+        Timestamp now = Timestamp.from(Instant.now());
+
+        alertRuleRepository.insertTriggered(List.of(
+                new TriggeredAlert(1L, 7L, -3, now),
+                new TriggeredAlert(2L, 7L, 95, now),
+                new TriggeredAlert(3L, 8L, -1, now)));
+
+        assertEquals(2, alertRuleRepository.countTriggeredByUser(7L));
+    }
+}
@@ -1,15 +1,28 @@
 package io.repository;
 
 import io.model.entity.Location;
+import io.model.entity.User;
 import org.hibernate.SessionFactory;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -24,11 +37,14 @@ public class LocationRepositoryTest {
     @Autowired
     private SessionFactory sessionFactory;
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     private final Long userId1 = 1L;
     private final Long userId2 = 2L;
 
     @Test
-    void saveAndFindAllByUserId_ShouldReturnSavedLocationsForUser() {
+    void saveAndFindPageByUserId_ShouldReturnSavedLocationsForUser() {
 
         Location berlin = new Location("Berlin", userId1, 52.52, 13.40);
         Location paris = new Location("Paris", userId1, 48.85, 2.35);
@@ -38,7 +54,7 @@ public class LocationRepositoryTest {
         locationRepository.save(paris);
         locationRepository.save(tokyo);
 
-        List<Location> user1Locations = locationRepository.findAllByUserId(userId1);
+        List<Location> user1Locations = locationRepository.findPageByUserId(userId1, null, 10);
 
         assertEquals(2, user1Locations.size());
         assertTrue(user1Locations.stream().anyMatch(l -> l.getName().equals("Berlin")));
@@ -46,41 +62,146 @@ public class LocationRepositoryTest {
     }
 
     @Test
-    void countByUser_ShouldReturnCorrectCount() {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void findPageByUserId_ShouldBeServedFromQueryCache_UntilLocationsChange() {
+
+        Long userId = 99L;
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(s -> locationRepository.save(new Location("Berlin", userId, 52.52, 13.40)));
+        Statistics stats = sessionFactory.getStatistics();
+        stats.clear();
+
+        try {
+            tx.executeWithoutResult(s -> locationRepository.findPageByUserId(userId, null, 10));
+            tx.executeWithoutResult(s -> locationRepository.findPageByUserId(userId, null, 10));
+            assertEquals(1, stats.getQueryRegionStatistics(Location.BY_USER_QUERY_REGION).getHitCount());
+
+            tx.executeWithoutResult(s ->
+                    locationRepository.insertIfBelowLimit(new Location("Paris", userId, 48.85, 2.35), 5));
+            List<Location> afterInsert = tx.execute(s -> locationRepository.findPageByUserId(userId, null, 10));
+            assertEquals(2, afterInsert.size());
+
+            Long parisId = afterInsert.stream()
+                    .filter(l -> l.getName().equals("Paris")).findFirst().orElseThrow().getId();
+            tx.executeWithoutResult(s -> locationRepository.deleteLocationByUserId(userId, parisId));
+            assertEquals(1, tx.execute(s -> locationRepository.findPageByUserId(userId, null, 10)).size());
+        } finally {
+            tx.executeWithoutResult(s -> sessionFactory.getCurrentSession()
+                    .createMutationQuery("DELETE FROM Location l WHERE l.userId = :userId")
+                    .setParameter("userId", userId)
+                    .executeUpdate());
+        }
+    }
 
-        locationRepository.save(new Location("City 1", userId1, 1.0, 1.0));
-        locationRepository.save(new Location("City 2", userId1, 2.0, 2.0));
-        locationRepository.save(new Location("City 3", userId1, 3.0, 3.0));
+    @Test
+    void findPageByUserId_ShouldWalkPagesInNameOrder_WithoutSkippingEqualNames() {
 
-        int count = locationRepository.countByUser(userId1);
+        locationRepository.save(new Location("Springfield", userId1, 39.80, -89.64));
+        locationRepository.save(new Location("Berlin", userId1, 52.52, 13.40));
+        locationRepository.save(new Location("Springfield", userId1, 42.10, -72.59));
+        locationRepository.save(new Location("Amsterdam", userId1, 52.37, 4.90));
+        locationRepository.save(new Location("Tokyo", userId2, 35.68, 139.69));
 
-        assertEquals(3, count);
+        List<Location> first = locationRepository.findPageByUserId(userId1, null, 3);
+        List<Location> second = locationRepository.findPageByUserId(userId1, LocationCursor.after(first.get(2)), 3);
 
+        assertEquals(List.of("Amsterdam", "Berlin", "Springfield"), first.stream().map(Location::getName).toList());
+        assertEquals(List.of("Springfield"), second.stream().map(Location::getName).toList());
+        assertNotEquals(first.get(2).getId(), second.get(0).getId());
     }
 
     @Test
-    void existsByUserAndCoords_ShouldReturnTrueIfLocationExists() {
+    void scanCoordinates_ShouldVisitEveryLocation() {
 
-        Location location = new Location("Madrid", userId1, 40.41, -3.70);
-        locationRepository.save(location);
+        locationRepository.save(new Location("Berlin", userId1, 52.52, 13.40));
+        locationRepository.save(new Location("Tokyo", userId2, 35.68, 139.69));
+        List<String> visited = new ArrayList<>();
 
-        assertTrue(locationRepository.existsByUserAndCoords(userId1, 40.41, -3.70));
+        locationRepository.scanCoordinates((locationId, userId, lat, lon) -> visited.add(userId + ":" + lat + "," + lon));
 
+        assertEquals(List.of("1:52.52,13.4", "2:35.68,139.69"), visited.stream().sorted().toList());
     }
 
     @Test
-    void existsByUserAndCoords_ShouldReturnFalseIfLocationDoesNotExist() {
-        assertFalse(locationRepository.existsByUserAndCoords(userId1, 0.0, 0.0));
+    void insertIfBelowLimit_ShouldInsert_WhenBelowLimit() {
+
+        Optional<Long> id = locationRepository.insertIfBelowLimit(new Location("Oslo", userId1, 59.91, 10.75), 2);
+
+        assertTrue(id.isPresent());
+        List<Location> saved = locationRepository.findPageByUserId(userId1, null, 10);
+        assertEquals(1, saved.size());
+        assertEquals(id.get(), saved.get(0).getId());
     }
 
     @Test
-    void existsByUserAndCoords_ShouldReturnFalseForDifferentUser() {
+    void insertIfBelowLimit_ShouldInsertNothing_WhenLimitReached() {
 
-        Location location = new Location("Rome", userId1, 41.90, 12.49);
-        locationRepository.save(location);
+        locationRepository.save(new Location("City 1", userId1, 1.0, 1.0));
+        locationRepository.save(new Location("City 2", userId1, 2.0, 2.0));
+
+        Optional<Long> id = locationRepository.insertIfBelowLimit(new Location("City 3", userId1, 3.0, 3.0), 2);
+
+        assertTrue(id.isEmpty());
+        assertEquals(2, locationRepository.findPageByUserId(userId1, null, 10).size());
+    }
 
-        assertFalse(locationRepository.existsByUserAndCoords(userId2, 41.90, 12.49));
+    @Test
+    void insertIfBelowLimit_ShouldViolateConstraint_WhenCoordsAlreadySaved() {
+
+        locationRepository.save(new Location("Lisbon", userId1, 38.72, -9.14));
+        sessionFactory.getCurrentSession().flush();
 
+        ConstraintViolationException e = assertThrows(ConstraintViolationException.class, () ->
+                locationRepository.insertIfBelowLimit(new Location("Lisbon", userId1, 38.72, -9.14), 5));
+        assertTrue(e.getConstraintName().toLowerCase().contains("uk_locations_user_coords"));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void insertIfBelowLimit_ShouldNeverExceedLimit_UnderConcurrentAdds() throws Exception {
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        User user = new User();
+        user.setLogin("concurrent-adder");
+        user.setPassword("x");
+        tx.executeWithoutResult(s -> sessionFactory.getCurrentSession().persist(user));
+        Long userId = user.getId();
+
+        int max = 3;
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Optional<Long>>> adds = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                Location location = new Location("City " + i, userId, (double) i, (double) i);
+                adds.add(pool.submit(() -> {
+                    start.await();
+                    return tx.execute(s -> locationRepository.insertIfBelowLimit(location, max));
+                }));
+            }
+            start.countDown();
+
+            int inserted = 0;
+            for (Future<Optional<Long>> add : adds) {
+                if (add.get(30, TimeUnit.SECONDS).isPresent()) {
+                    inserted++;
+                }
+            }
+            assertEquals(max, inserted);
+            assertEquals(max, tx.execute(s -> locationRepository.findPageByUserId(userId, null, 100)).size());
+        } finally {
+            pool.shutdownNow();
+            tx.executeWithoutResult(s -> {
+                sessionFactory.getCurrentSession()
+                        .createMutationQuery("DELETE FROM Location l WHERE l.userId = :userId")
+                        .setParameter("userId", userId)
+                        .executeUpdate();
+                sessionFactory.getCurrentSession()
+                        .createMutationQuery("DELETE FROM User u WHERE u.id = :userId")
+                        .setParameter("userId", userId)
+                        .executeUpdate();
+            });
+        }
     }
 
     @Test
@@ -0,0 +1,47 @@
+package io.repository;
+
+import io.model.entity.RevokedToken;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {TestConfig.class})
+@Transactional
+public class RevokedTokenRepositoryTest {
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    @Test
+    void deleteExpiredBatch_ShouldDeleteAtMostLimitExpiredRevocations() {
+        Instant now = Instant.now();
+        for (int i = 1; i <= 5; i++) {
+            revokedTokenRepository.save(new RevokedToken("expired-" + i,
+                    Timestamp.from(now.minus(i, ChronoUnit.HOURS)), Timestamp.from(now)));
+        }
+        revokedTokenRepository.save(new RevokedToken("active",
+                Timestamp.from(now.plus(1, ChronoUnit.HOURS)), Timestamp.from(now)));
+        sessionFactory.getCurrentSession().flush();
+
+        assertEquals(3, revokedTokenRepository.deleteExpiredBatch(3));
+        assertEquals(2, revokedTokenRepository.deleteExpiredBatch(3));
+        assertEquals(0, revokedTokenRepository.deleteExpiredBatch(3));
+
+        sessionFactory.getCurrentSession().clear();
+        assertNotNull(sessionFactory.getCurrentSession().get(RevokedToken.class, "active"));
+    }
+}
@@ -76,7 +76,7 @@ public class SessionRepositoryTest {
     }
 
     @Test
-    void deleteAllExpired_ShouldDeleteOnlyExpiredSessions() {
+    void deleteExpiredBatch_ShouldDeleteOnlyExpiredSessions() {
         Session expiredSession1 = new Session();
         expiredSession1.setUserId(1L);
         expiredSession1.setExpiresAt(Timestamp.from(Instant.now().minus(2, ChronoUnit.HOURS)));
@@ -93,7 +93,7 @@ public class SessionRepositoryTest {
         sessionRepository.save(expiredSession2);
         sessionRepository.save(validSession);
 
-        int deletedCount = sessionRepository.deleteAllExpired();
+        int deletedCount = sessionRepository.deleteExpiredBatch(100);
         assertEquals(2, deletedCount);
 
         sessionFactory.getCurrentSession().clear();
@@ -106,4 +106,43 @@ public class SessionRepositoryTest {
         assertNull(foundExpired2);
         assertNotNull(foundValid);
     }
-}
\ No newline at end of file
+
+    @Test
+    void deleteExpiredBatch_ShouldDeleteAtMostLimitExpiredSessions() {
+        for (int i = 1; i <= 5; i++) {
+            Session expired = new Session();
+            expired.setUserId(1L);
+            expired.setExpiresAt(Timestamp.from(Instant.now().minus(i, ChronoUnit.HOURS)));
+            sessionRepository.save(expired);
+        }
+        Session validSession = new Session();
+        validSession.setUserId(2L);
+        validSession.setExpiresAt(Timestamp.from(Instant.now().plus(1, ChronoUnit.HOURS)));
+        sessionRepository.save(validSession);
+        sessionFactory.getCurrentSession().flush();
+
+        assertEquals(3, sessionRepository.deleteExpiredBatch(3));
+        assertEquals(2, sessionRepository.deleteExpiredBatch(3));
+        assertEquals(0, sessionRepository.deleteExpiredBatch(3));
+
+        sessionFactory.getCurrentSession().clear();
+        assertNotNull(sessionFactory.getCurrentSession().get(Session.class, validSession.getId()));
+    }
+
+    @Test
+    void extendExpiry_ShouldMoveExpiryOfLiveSessionsOnly() {
+        Session live = new Session(1L, Timestamp.from(Instant.now().plus(1, ChronoUnit.HOURS)));
+        Session expired = new Session(2L, Timestamp.from(Instant.now().minus(1, ChronoUnit.HOURS)));
+        sessionRepository.save(live);
+        sessionRepository.save(expired);
+        sessionFactory.getCurrentSession().flush();
+
+        Instant newExpiry = Instant.now().plus(24, ChronoUnit.HOURS);
+        int updated = sessionRepository.extendExpiry(java.util.List.of(live.getId(), expired.getId()), newExpiry);
+
+        assertEquals(1, updated);
+        sessionFactory.getCurrentSession().clear();
+        Session reloaded = sessionFactory.getCurrentSession().get(Session.class, live.getId());
+        assertTrue(reloaded.getExpiresAt().toInstant().isAfter(Instant.now().plus(23, ChronoUnit.HOURS)));
+    }
+}
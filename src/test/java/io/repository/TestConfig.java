@@ -1,6 +1,8 @@
 package io.repository;
 
 
+import io.monitoring.SqlStatistics;
+import io.monitoring.SqlStatsDataSource;
 import org.hibernate.SessionFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
@@ -21,10 +23,15 @@ import java.util.Properties;
 public class TestConfig {
 
     @Bean
-    public DataSource dataSource() {
-        return new EmbeddedDatabaseBuilder()
+    public SqlStatistics sqlStatistics() {
+        return new SqlStatistics(500, 200);
+    }
+
+    @Bean
+    public DataSource dataSource(SqlStatistics sqlStatistics) {
+        return new SqlStatsDataSource(new EmbeddedDatabaseBuilder()
                 .setType(EmbeddedDatabaseType.H2)
-                .build();
+                .build(), sqlStatistics);
     }
 
     @Bean
@@ -37,6 +44,13 @@ public class TestConfig {
         properties.put("hibernate.hbm2ddl.auto", "create-drop");
         properties.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
         properties.put("hibernate.show_sql", "true");
+        properties.put("hibernate.cache.use_second_level_cache", "true");
+        properties.put("hibernate.cache.use_query_cache", "true");
+        properties.put("hibernate.cache.region.factory_class", "jcache");
+        properties.put("hibernate.javax.cache.provider", "org.ehcache.jsr107.EhcacheCachingProvider");
+        properties.put("hibernate.javax.cache.uri", "ehcache.xml");
+        properties.put("hibernate.javax.cache.missing_cache_strategy", "fail");
+        properties.put("hibernate.generate_statistics", "true");
 
         sessionFactory.setHibernateProperties(properties);
         return sessionFactory;
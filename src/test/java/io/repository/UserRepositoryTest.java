@@ -1,6 +1,8 @@
 package io.repository;
 
 import io.model.entity.User;
+import io.monitoring.SqlStatistics;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,6 +22,9 @@ public class UserRepositoryTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private SqlStatistics sqlStatistics;
+
     @Test
     void saveAndFindById_ShouldSaveAndReturnUser() {
 
@@ -37,6 +42,21 @@ public class UserRepositoryTest {
         assertEquals("testuser", foundUserOpt.get().getLogin());
     }
 
+    @Test
+    void save_ShouldViolateConstraint_WhenLoginIsTaken() {
+
+        User first = new User();
+        first.setLogin("taken");
+        first.setPassword("password");
+        userRepository.save(first);
+
+        User second = new User();
+        second.setLogin("taken");
+        second.setPassword("password");
+
+        assertThrows(ConstraintViolationException.class, () -> userRepository.save(second));
+    }
+
     @Test
     void findByLogin_WhenUserExists_ShouldReturnUser() {
 
@@ -51,6 +71,21 @@ public class UserRepositoryTest {
         assertEquals("existing_user", foundUserOpt.get().getLogin());
     }
 
+    @Test
+    void findByLogin_ShouldBeRecordedInSqlStatistics() {
+
+        User user = new User();
+        user.setLogin("measured");
+        user.setPassword("password");
+        userRepository.save(user);
+        sqlStatistics.reset();
+
+        userRepository.findByLogin("measured");
+
+        assertTrue(sqlStatistics.snapshot().stream()
+                .anyMatch(s -> s.sql().contains("from users") && s.executions() == 1 && s.rows() == 1));
+    }
+
     @Test
     void findByLogin_WhenUserDoesNotExist_ShouldReturnEmpty() {
 
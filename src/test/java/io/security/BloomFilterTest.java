@@ -0,0 +1,44 @@
+package io.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    void mightContain_ShouldNeverMissAddedValues() {
+        BloomFilter bloom = new BloomFilter(1_000, 0.01);
+        for (int i = 0; i < 1_000; i++) {
+            bloom.add("token-" + i);
+        }
+
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(bloom.mightContain("token-" + i)).isTrue();
+        }
+    }
+
+    @Test
+    void mightContain_ShouldKeepFalsePositivesNearConfiguredRate() {
+        BloomFilter bloom = new BloomFilter(1_000, 0.01);
+        for (int i = 0; i < 1_000; i++) {
+            bloom.add("token-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (bloom.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(300);
+    }
+
+    @Test
+    void mightContain_ShouldBeFalse_WhenEmpty() {
+        BloomFilter bloom = new BloomFilter(10, 0.01);
+
+        assertThat(bloom.mightContain("token")).isFalse();
+        assertThat(bloom.mightContain("")).isFalse();
+    }
+}
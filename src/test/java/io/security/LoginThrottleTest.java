@@ -0,0 +1,106 @@
+package io.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoginThrottleTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    @Test
+    void tryAcquire_ShouldLimitAttemptsPerNormalizedLogin() {
+        LoginThrottle throttle = new LoginThrottle(3, 1000, 60, 4096);
+
+        assertThat(throttle.tryAcquire("alice", "10.0.0.1", NOW)).isTrue();
+        assertThat(throttle.tryAcquire("Alice ", "10.0.0.2", NOW)).isTrue();
+        assertThat(throttle.tryAcquire(" ALICE", "10.0.0.3", NOW)).isTrue();
+        assertThat(throttle.tryAcquire("alice", "10.0.0.4", NOW)).isFalse();
+
+        assertThat(throttle.tryAcquire("bob", "10.0.0.5", NOW)).isTrue();
+        assertThat(throttle.rejectedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void tryAcquire_ShouldLimitAttemptsPerIp_WhenLoginsAreSprayed() {
+        LoginThrottle throttle = new LoginThrottle(1000, 5, 60, 4096);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(throttle.tryAcquire("user" + i, "10.0.0.1", NOW)).isTrue();
+        }
+
+        assertThat(throttle.tryAcquire("user-next", "10.0.0.1", NOW)).isFalse();
+        assertThat(throttle.tryAcquire("user-next", "10.0.0.2", NOW)).isTrue();
+    }
+
+    @Test
+    void tryAcquire_ShouldAllowAgain_AfterWindowSlidesPast() {
+        LoginThrottle throttle = new LoginThrottle(2, 1000, 60, 4096);
+
+        throttle.tryAcquire("alice", "10.0.0.1", NOW);
+        throttle.tryAcquire("alice", "10.0.0.1", NOW);
+        assertThat(throttle.tryAcquire("alice", "10.0.0.1", NOW)).isFalse();
+
+        assertThat(throttle.tryAcquire("alice", "10.0.0.1", NOW + 125_000)).isTrue();
+    }
+
+    @Test
+    void onSuccess_ShouldNotCountSuccessfulLoginsAgainstLimit() {
+        LoginThrottle throttle = new LoginThrottle(2, 2, 60, 4096);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(throttle.tryAcquire("alice", "10.0.0.1", NOW)).isTrue();
+            throttle.onSuccess("Alice", "10.0.0.1", NOW);
+        }
+
+        assertThat(throttle.tryAcquire("alice", "10.0.0.1", NOW)).isTrue();
+        assertThat(throttle.tryAcquire("alice", "10.0.0.1", NOW)).isTrue();
+        assertThat(throttle.tryAcquire("alice", "10.0.0.1", NOW)).isFalse();
+    }
+
+    @Test
+    void tryAcquire_ShouldNotCountIp_WhenLoginIsThrottled() {
+        LoginThrottle throttle = new LoginThrottle(1, 2, 60, 4096);
+
+        assertThat(throttle.tryAcquire("alice", "10.0.0.1", NOW)).isTrue();
+        assertThat(throttle.tryAcquire("alice", "10.0.0.1", NOW)).isFalse();
+        assertThat(throttle.tryAcquire("alice", "10.0.0.1", NOW)).isFalse();
+
+        assertThat(throttle.tryAcquire("bob", "10.0.0.1", NOW)).isTrue();
+    }
+
+    @Test
+    void tryAcquire_ShouldAdmitExactlyLimit_UnderConcurrentAttempts() throws Exception {
+        LoginThrottle throttle = new LoginThrottle(10, 1000, 60, 4096);
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> attempts = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                attempts.add(pool.submit(() -> {
+                    start.await();
+                    return throttle.tryAcquire("alice", "10.0.0.1", NOW);
+                }));
+            }
+            start.countDown();
+
+            int admitted = 0;
+            for (Future<Boolean> attempt : attempts) {
+                if (attempt.get(10, TimeUnit.SECONDS)) {
+                    admitted++;
+                }
+            }
+            assertThat(admitted).isEqualTo(10);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package io.security;
+
+import io.exception.ServiceBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHasherTest {
+
+    private PasswordHasher hasher;
+
+    @AfterEach
+    void tearDown() {
+        if (hasher != null) {
+            hasher.shutdown();
+        }
+    }
+
+    @Test
+    void hash_ShouldUseConfiguredCost() {
+        hasher = new PasswordHasher(5, 1, 1, 5000);
+
+        String hash = hasher.hash("secret");
+
+        assertThat(hash).startsWith("$2a$05$");
+        assertThat(hasher.matches("secret", hash)).isTrue();
+        assertThat(hasher.matches("other", hash)).isFalse();
+        assertThat(hasher.stats().hashes()).isEqualTo(3);
+    }
+
+    @Test
+    void hash_ShouldRejectFast_WhenPoolAndQueueAreFull() {
+        hasher = new PasswordHasher(12, 1, 1, 30_000);
+        ExecutorService callers = Executors.newFixedThreadPool(6);
+        try {
+            List<CompletableFuture<String>> calls = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                calls.add(CompletableFuture.supplyAsync(() -> hasher.hash("secret"), callers));
+            }
+
+            long busy = calls.stream().filter(call -> {
+                try {
+                    call.join();
+                    return false;
+                } catch (CompletionException e) {
+                    return e.getCause() instanceof ServiceBusyException;
+                }
+            }).count();
+
+            assertThat(busy).isGreaterThan(0);
+            assertThat(hasher.stats().rejected()).isEqualTo(busy);
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void constructor_ShouldRejectInvalidCost() {
+        assertThatThrownBy(() -> new PasswordHasher(3, 1, 1, 1000))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,73 @@
+package io.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SignedSessionTokensTest {
+
+    private static final String KEY = Base64.getEncoder().encodeToString(new byte[32]);
+
+    private final SignedSessionTokens tokens = new SignedSessionTokens(KEY);
+    private final Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+    @Test
+    void verify_ShouldReturnUserId_WhenTokenIsValid() {
+        String token = tokens.issue(42L, now.plus(Duration.ofHours(1)));
+
+        Optional<SignedSessionTokens.SignedToken> verified = tokens.verify(token, now);
+
+        assertThat(verified).isPresent();
+        assertThat(verified.get().userId()).isEqualTo(42L);
+        assertThat(verified.get().tokenId()).isNotBlank();
+    }
+
+    @Test
+    void verify_ShouldReturnEmpty_WhenTokenIsExpired() {
+        String token = tokens.issue(42L, now.plusSeconds(10));
+
+        assertThat(tokens.verify(token, now.plusSeconds(10))).isEmpty();
+    }
+
+    @Test
+    void verify_ShouldReturnEmpty_WhenPayloadIsTampered() {
+        String token = tokens.issue(42L, now.plus(Duration.ofHours(1)));
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("1:" + now.plus(Duration.ofDays(365)).getEpochSecond() + ":abc").getBytes());
+        String forged = forgedPayload + token.substring(token.indexOf('.'));
+
+        assertThat(tokens.verify(forged, now)).isEmpty();
+    }
+
+    @Test
+    void verify_ShouldReturnEmpty_WhenSignedWithAnotherKey() {
+        byte[] otherKey = new byte[32];
+        otherKey[0] = 1;
+        SignedSessionTokens other = new SignedSessionTokens(Base64.getEncoder().encodeToString(otherKey));
+
+        String token = other.issue(42L, now.plus(Duration.ofHours(1)));
+
+        assertThat(tokens.verify(token, now)).isEmpty();
+    }
+
+    @Test
+    void verify_ShouldReturnEmpty_WhenTokenIsGarbage() {
+        assertThat(tokens.verify("8d8b8719-ea64-4823-91b1-22d515a53c61", now)).isEmpty();
+        assertThat(tokens.verify("a.b.c", now)).isEmpty();
+        assertThat(tokens.verify("%%%.###", now)).isEmpty();
+    }
+
+    @Test
+    void constructor_ShouldRejectShortKey() {
+        String shortKey = Base64.getEncoder().encodeToString(new byte[16]);
+
+        assertThatThrownBy(() -> new SignedSessionTokens(shortKey))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,127 @@
+package io.security;
+
+import io.cache.invalidation.InvalidationEvent;
+import io.model.entity.RevokedToken;
+import io.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationListTest {
+
+    private final RevokedTokenRepository repository = mock(RevokedTokenRepository.class);
+    private final TokenRevocationList revocationList = new TokenRevocationList(repository, 16, 30);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(revocationList, "sessionMode", SessionMode.SIGNED);
+    }
+
+    @Test
+    void revoke_ShouldPersistAndRememberTokenId() {
+        revocationList.revoke("abc", Instant.now().plus(Duration.ofHours(1)));
+
+        assertThat(revocationList.isRevoked("abc")).isTrue();
+        assertThat(revocationList.isRevoked("def")).isFalse();
+        verify(repository).save(argThat(t -> t.getTokenId().equals("abc")));
+    }
+
+    @Test
+    void sync_ShouldPickUpRevocationsFromOtherNodes() {
+        Instant expiresAt = Instant.now().plus(Duration.ofHours(1));
+        when(repository.findActiveRevokedSince(any()))
+                .thenReturn(List.of(new RevokedToken("remote", Timestamp.from(expiresAt), Timestamp.from(Instant.now()))));
+
+        revocationList.sync();
+
+        assertThat(revocationList.isRevoked("remote")).isTrue();
+        assertThat(revocationList.size()).isEqualTo(1);
+    }
+
+    @Test
+    void onInvalidate_ShouldRememberTokensRevokedOnOtherNodes() {
+        Instant expiresAt = Instant.now().plus(Duration.ofHours(1));
+
+        revocationList.onInvalidate(List.of(
+                InvalidationEvent.revokedToken("remote", expiresAt),
+                InvalidationEvent.userLocations(7L)));
+
+        assertThat(revocationList.isRevoked("remote")).isTrue();
+        assertThat(revocationList.size()).isEqualTo(1);
+    }
+
+    @Test
+    void sync_ShouldDoNothing_InDbMode() {
+        ReflectionTestUtils.setField(revocationList, "sessionMode", SessionMode.DB);
+
+        revocationList.sync();
+
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void cleanUpExpired_ShouldForgetExpiredIds_AndKeepActiveOnes() {
+        revocationList.revoke("expired", Instant.now().minusSeconds(1));
+        revocationList.revoke("active", Instant.now().plus(Duration.ofHours(1)));
+        when(repository.deleteExpiredBatch(100)).thenReturn(1);
+
+        assertThat(revocationList.cleanUpExpired(100)).isEqualTo(1);
+
+        assertThat(revocationList.isRevoked("expired")).isFalse();
+        assertThat(revocationList.isRevoked("active")).isTrue();
+        assertThat(revocationList.size()).isEqualTo(1);
+    }
+
+    @Test
+    void isRevoked_ShouldHoldForEveryRevokedId_WhileFilterIsRebuilt() throws Exception {
+        Instant active = Instant.now().plus(Duration.ofHours(1));
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            Future<?> purger = pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < 200; i++) {
+                    revocationList.revoke("expired-" + i, Instant.now().minusSeconds(1));
+                    revocationList.cleanUpExpired(100);
+                }
+                return null;
+            });
+            Future<List<String>> revoker = pool.submit(() -> {
+                List<String> missed = new ArrayList<>();
+                start.await();
+                for (int i = 0; i < 2_000; i++) {
+                    String id = "active-" + i;
+                    revocationList.revoke(id, active);
+                    if (!revocationList.isRevoked(id)) {
+                        missed.add(id);
+                    }
+                }
+                return missed;
+            });
+            start.countDown();
+
+            purger.get(30, TimeUnit.SECONDS);
+            assertThat(revoker.get(30, TimeUnit.SECONDS)).isEmpty();
+        } finally {
+            pool.shutdownNow();
+        }
+        for (int i = 0; i < 2_000; i++) {
+            assertThat(revocationList.isRevoked("active-" + i)).isTrue();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package io.service;
+
+import io.model.dto.WeatherDTO;
+import io.model.entity.AlertRule;
+import io.model.entity.TriggeredAlert;
+import io.repository.AlertCandidate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AlertEvaluationServiceTest {
+
+    @Mock
+    private AlertService alertService;
+
+    @Mock
+    private WeatherService weatherService;
+
+    private AlertEvaluationService evaluationService;
+
+    @BeforeEach
+    void setUp() {
+        evaluationService = new AlertEvaluationService(alertService, weatherService, 3, 8, 2);
+    }
+
+    @Test
+    void evaluate_ShouldFetchEachRoundedCoordinateOncePerBatch_AtStoredCoordinates() {
+        when(alertService.findDueBatch(0, 3)).thenReturn(List.of(
+                rule(1, 55.7512, 37.6184, AlertRule.Metric.TEMPERATURE, AlertRule.Operator.BELOW, 0),
+                rule(2, 55.7549, 37.6161, AlertRule.Metric.HUMIDITY, AlertRule.Operator.ABOVE, 90),
+                rule(3, 59.9386, 30.3141, AlertRule.Metric.TEMPERATURE, AlertRule.Operator.BELOW, 0)));
+        when(alertService.findDueBatch(3, 3)).thenReturn(List.of(
+                rule(4, 55.7512, 37.6184, AlertRule.Metric.FEELS_LIKE, AlertRule.Operator.BELOW, -5)));
+        when(weatherService.fetchWeatherAsync(55.7512, 37.6184)).thenReturn(CompletableFuture.completedFuture(weather(-3, -8, 60)));
+        when(weatherService.fetchWeatherAsync(59.9386, 30.3141)).thenReturn(CompletableFuture.completedFuture(weather(2, 0, 95)));
+        when(alertService.recordTriggered(anyList())).thenAnswer(invocation -> invocation.getArgument(0, List.class).size());
+
+        AlertEvaluationService.Run run = evaluationService.evaluate();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<TriggeredAlert>> recorded = ArgumentCaptor.forClass(List.class);
+        verify(alertService, times(2)).recordTriggered(recorded.capture());
+        assertThat(recorded.getAllValues().get(0)).extracting(TriggeredAlert::getRuleId).containsExactly(1L);
+        assertThat(recorded.getAllValues().get(1)).extracting(TriggeredAlert::getRuleId).containsExactly(4L);
+        // fetched at a stored coordinate, so the dashboard's cache entry for that location is shared
+        verify(weatherService, times(2)).fetchWeatherAsync(55.7512, 37.6184);
+        verify(weatherService, times(1)).fetchWeatherAsync(59.9386, 30.3141);
+        verify(weatherService, never()).fetchWeatherAsync(55.75, 37.62);
+        assertThat(run.rules()).isEqualTo(4);
+        assertThat(run.coordinates()).isEqualTo(2);
+        assertThat(run.triggered()).isEqualTo(2);
+        assertThat(evaluationService.lastRun()).isEqualTo(run);
+    }
+
+    @Test
+    void evaluate_ShouldSkipRules_WhenWeatherIsUnavailable() {
+        when(alertService.findDueBatch(0, 3)).thenReturn(List.of(
+                rule(1, 55.75, 37.62, AlertRule.Metric.TEMPERATURE, AlertRule.Operator.BELOW, 0)));
+        when(weatherService.fetchWeatherAsync(55.75, 37.62))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("down")));
+
+        AlertEvaluationService.Run run = evaluationService.evaluate();
+
+        verify(alertService).recordTriggered(List.of());
+        assertThat(run.unavailable()).isEqualTo(1);
+        assertThat(run.triggered()).isZero();
+    }
+
+    @Test
+    void evaluate_ShouldCountOnlyAlertsClaimedByThisNode() {
+        when(alertService.findDueBatch(0, 3)).thenReturn(List.of(
+                rule(1, 55.75, 37.62, AlertRule.Metric.TEMPERATURE, AlertRule.Operator.BELOW, 0)));
+        when(weatherService.fetchWeatherAsync(55.75, 37.62)).thenReturn(CompletableFuture.completedFuture(weather(-3, -8, 60)));
+        when(alertService.recordTriggered(anyList())).thenReturn(0);
+
+        AlertEvaluationService.Run run = evaluationService.evaluate();
+
+        assertThat(run.triggered()).isZero();
+    }
+
+    @Test
+    void evaluate_ShouldNotRun_WhenStopped() {
+        evaluationService.stop();
+
+        evaluationService.evaluate();
+
+        verify(alertService, never()).findDueBatch(anyLong(), anyInt());
+    }
+
+    private static AlertCandidate rule(long id, double lat, double lon,
+                                       AlertRule.Metric metric, AlertRule.Operator operator, double threshold) {
+        return new AlertCandidate(id, 10 + id, lat, lon, metric, operator, threshold);
+    }
+
+    private static WeatherDTO weather(int temperature, int feelsLike, int humidity) {
+        return new WeatherDTO("City", "RU", feelsLike, temperature, humidity, 800, "01d");
+    }
+}
@@ -0,0 +1,68 @@
+package io.service;
+
+import io.cache.LocationCellIndex;
+import io.cache.invalidation.InvalidationEvent;
+import io.repository.LocationRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LocationIndexServiceTest {
+
+    private final LocationRepository locationRepository = mock(LocationRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final LocationCellIndex locationCellIndex = new LocationCellIndex(0.1);
+    private final LocationIndexService service = new LocationIndexService(
+            locationRepository, locationCellIndex, transactionManager);
+
+    @Test
+    void rebuild_ShouldScanInAReadWriteTransaction_SoThatItRunsOnThePrimary() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        doAnswer(invocation -> {
+            invocation.getArgument(0, LocationRepository.CoordinatesConsumer.class).accept(5L, 7L, 55.75, 37.62);
+            return null;
+        }).when(locationRepository).scanCoordinates(any());
+
+        service.rebuild();
+
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertThat(definition.getValue().isReadOnly()).isFalse();
+        assertThat(locationCellIndex.locationIdsAt(55.75, 37.62)).containsExactly(5L);
+    }
+
+    @Test
+    void onInvalidate_ShouldApplyLocationsSavedAndDeletedOnOtherNodes() {
+        locationCellIndex.add(1L, 7L, 55.75, 37.62);
+
+        service.onInvalidate(List.of(
+                InvalidationEvent.userLocations(7L),
+                InvalidationEvent.locationSaved(2L, 7L, -33.8688, 151.2093),
+                InvalidationEvent.locationDeleted(1L)));
+
+        assertThat(locationCellIndex.locationIdsAt(55.75, 37.62)).isEmpty();
+        assertThat(locationCellIndex.userIdsAt(-33.8688, 151.2093)).containsExactly(7L);
+        assertThat(locationCellIndex.size()).isEqualTo(1);
+    }
+
+    @Test
+    void onInvalidate_ShouldSkipMalformedEvents() {
+        service.onInvalidate(List.of(
+                new InvalidationEvent(InvalidationEvent.Type.LOCATION_SAVED, "2:7"),
+                new InvalidationEvent(InvalidationEvent.Type.LOCATION_DELETED, "x"),
+                InvalidationEvent.locationSaved(3L, 8L, 10.0, 20.0)));
+
+        assertThat(locationCellIndex.locationIdsAt(10.0, 20.0)).containsExactly(3L);
+    }
+}
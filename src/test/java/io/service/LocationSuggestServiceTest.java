@@ -0,0 +1,85 @@
+package io.service;
+
+import io.api.openweather.OpenWeatherClient;
+import io.cache.LocationTrie;
+import io.mapper.LocationApiMapper;
+import io.model.apiweather.LocationResponse;
+import io.model.dto.LocationDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class LocationSuggestServiceTest {
+
+    private final OpenWeatherClient client = mock(OpenWeatherClient.class);
+    private final LocationApiMapper locationApiMapper = mock(LocationApiMapper.class);
+    private final TaskScheduler taskScheduler = mock(TaskScheduler.class);
+    private final LocationTrie locationTrie = new LocationTrie(100, 1000);
+
+    private LocationSuggestService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new LocationSuggestService(client, locationApiMapper, locationTrie, taskScheduler, 3, 5, 150);
+    }
+
+    @Test
+    void suggest_ShouldNotCallUpstream_ForShortPrefixes() {
+        assertThat(service.suggest("s1", "lo").join()).contains(List.of());
+
+        verifyNoInteractions(taskScheduler, client);
+    }
+
+    @Test
+    void suggest_ShouldLookUpUnseenPrefix_AfterDebounce_AndAnswerLongerPrefixesFromTrie() {
+        LocationDTO london = LocationDTO.builder().name("London").country("GB").build();
+        List<LocationResponse> responses = List.of(
+                new LocationResponse("London", null, "GB", new BigDecimal("51.5"), new BigDecimal("-0.12")));
+        when(client.geoCodeAsync("lon")).thenReturn(CompletableFuture.completedFuture(responses));
+        when(locationApiMapper.toDto(responses)).thenReturn(List.of(london));
+
+        CompletableFuture<Optional<List<LocationDTO>>> result = service.suggest("s1", "Lon");
+        assertThat(result).isNotDone();
+        runScheduled(1);
+
+        assertThat(result.join()).contains(List.of(london));
+        assertThat(service.suggest("s1", "lon").join()).contains(List.of(london));
+        verify(client, times(1)).geoCodeAsync(any());
+    }
+
+    @Test
+    void suggest_ShouldDropSupersededLookup_BeforeItReachesUpstream() {
+        LocationDTO paris = LocationDTO.builder().name("Paris").country("FR").build();
+        when(client.geoCodeAsync("par")).thenReturn(new CompletableFuture<>());
+        when(client.geoCodeAsync("pari")).thenReturn(CompletableFuture.completedFuture(List.of()));
+        when(locationApiMapper.toDto(List.<LocationResponse>of())).thenReturn(List.of(paris));
+
+        CompletableFuture<Optional<List<LocationDTO>>> first = service.suggest("s1", "par");
+        CompletableFuture<Optional<List<LocationDTO>>> second = service.suggest("s1", "pari");
+        CompletableFuture<Optional<List<LocationDTO>>> otherSession = service.suggest("s2", "par");
+        runScheduled(3);
+
+        assertThat(first.join()).isEmpty();
+        assertThat(second.join()).contains(List.of(paris));
+        assertThat(otherSession).isNotDone();
+        // only the other session's lookup for "par" went upstream
+        verify(client, times(1)).geoCodeAsync("par");
+    }
+
+    private void runScheduled(int times) {
+        ArgumentCaptor<Runnable> tasks = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler, times(times)).schedule(tasks.capture(), any(Instant.class));
+        tasks.getAllValues().forEach(Runnable::run);
+    }
+}
@@ -1,8 +1,8 @@
 package io.service;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -11,19 +11,42 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 public class SessionCleanupServiceTest {
 
+    private static final int BATCH_SIZE = 100;
+
     @Mock
     private SessionService sessionService;
 
-    @InjectMocks
     private SessionCleanupService cleanupService;
 
+    @BeforeEach
+    void setUp() {
+        cleanupService = new SessionCleanupService(sessionService, BATCH_SIZE, 0);
+    }
+
     @Test
     void should_LogStartAndFinish_when_CleanupRuns() {
-        when(sessionService.cleanUpExpiredSession()).thenReturn(7);
+        when(sessionService.cleanUpExpiredBatch(BATCH_SIZE)).thenReturn(7);
+
+        cleanupService.cleanup();
+
+        verify(sessionService, times(1)).cleanUpExpiredBatch(BATCH_SIZE);
+    }
+
+    @Test
+    void should_DeleteInBatches_until_LastBatchIsPartial() {
+        when(sessionService.cleanUpExpiredBatch(BATCH_SIZE)).thenReturn(BATCH_SIZE, BATCH_SIZE, 3);
 
         cleanupService.cleanup();
 
-        verify(sessionService, times(1)).cleanUpExpiredSession();
+        verify(sessionService, times(3)).cleanUpExpiredBatch(BATCH_SIZE);
     }
 
+    @Test
+    void should_NotRunBatches_when_Stopped() {
+        cleanupService.stop();
+
+        cleanupService.cleanup();
+
+        verifyNoInteractions(sessionService);
+    }
 }
@@ -0,0 +1,69 @@
+package io.service;
+
+import io.cache.SessionCache;
+import io.repository.SessionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class SessionExtensionBufferTest {
+
+    private final SessionRepository sessionRepository = mock(SessionRepository.class);
+    private final SessionCache sessionCache = new SessionCache(100, 300);
+    private final SessionExtensionBuffer buffer = new SessionExtensionBuffer(sessionRepository, sessionCache, 2);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(buffer, "sessionTtlHours", 24L);
+    }
+
+    @Test
+    void record_ShouldMoveCachedExpiryForward() {
+        UUID token = UUID.randomUUID();
+        sessionCache.putValid(token, 1L, Instant.now().plus(Duration.ofHours(2)));
+
+        buffer.record(token);
+
+        assertThat(sessionCache.get(token).expiresAt()).isAfter(Instant.now().plus(Duration.ofHours(23)));
+        assertThat(buffer.pendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void flush_ShouldExtendPendingTokensInChunks() {
+        List<UUID> tokens = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        tokens.forEach(buffer::record);
+        when(sessionRepository.extendExpiry(anyCollection(), any())).thenAnswer(inv -> inv.<List<?>>getArgument(0).size());
+
+        buffer.flush();
+
+        verify(sessionRepository, times(2)).extendExpiry(anyCollection(), any());
+        assertThat(buffer.pendingCount()).isZero();
+    }
+
+    @Test
+    void flush_ShouldRequeueTokens_WhenUpdateFails() {
+        UUID token = UUID.randomUUID();
+        buffer.record(token);
+        when(sessionRepository.extendExpiry(anyCollection(), any())).thenThrow(new IllegalStateException("db down"));
+
+        assertThatThrownBy(buffer::flush).isInstanceOf(IllegalStateException.class);
+        assertThat(buffer.pendingCount()).isEqualTo(1);
+
+        reset(sessionRepository);
+        buffer.flush();
+
+        verify(sessionRepository).extendExpiry(eq(List.of(token)), any());
+        assertThat(buffer.pendingCount()).isZero();
+    }
+}
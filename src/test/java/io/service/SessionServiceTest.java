@@ -1,19 +1,29 @@
 package io.service;
 
+import io.cache.RejectedTokenCache;
+import io.cache.SessionCache;
+import io.cache.invalidation.InvalidationBus;
+import io.cache.invalidation.InvalidationEvent;
 import io.model.entity.Session;
+import io.repository.RevokedTokenRepository;
 import io.repository.SessionRepository;
+import io.security.SessionMode;
+import io.security.SignedSessionTokens;
+import io.security.TokenRevocationList;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.sql.Timestamp;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Base64;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -26,9 +36,27 @@ import static org.mockito.Mockito.*;
 @DisplayName("SessionService Unit Tests")
 class SessionServiceTest {
 
+    @Mock
+    private InvalidationBus invalidationBus;
+
     @Mock
     private SessionRepository sessionRepository;
 
+    @Mock
+    private SignedSessionTokens signedSessionTokens;
+
+    @Mock
+    private TokenRevocationList tokenRevocationList;
+
+    @Mock
+    private SessionExtensionBuffer sessionExtensionBuffer;
+
+    @Spy
+    private SessionCache sessionCache = new SessionCache(100, 300);
+
+    @Spy
+    private RejectedTokenCache rejectedTokenCache = new RejectedTokenCache(100, 60);
+
     @InjectMocks
     private SessionService sessionService;
 
@@ -49,7 +77,7 @@ class SessionServiceTest {
             return null;
         }).when(sessionRepository).save(any(Session.class));
 
-        UUID result = sessionService.createForUser(TEST_USER_ID);
+        String result = sessionService.createForUser(TEST_USER_ID);
 
         assertThat(result).isNotNull();
         verify(sessionRepository).save(any(Session.class));
@@ -72,7 +100,7 @@ class SessionServiceTest {
         Session session = new Session(TEST_USER_ID, Timestamp.from(Instant.now().plus(Duration.ofHours(1))));
         when(sessionRepository.findValidSessionById(validToken)).thenReturn(Optional.of(session));
 
-        Optional<Long> result = sessionService.getUserIdByValidToken(validToken);
+        Optional<Long> result = sessionService.getUserIdByValidToken(validToken.toString());
 
         assertThat(result).isPresent().contains(TEST_USER_ID);
         verify(sessionRepository).findValidSessionById(validToken);
@@ -84,12 +112,89 @@ class SessionServiceTest {
         UUID invalidToken = UUID.randomUUID();
         when(sessionRepository.findValidSessionById(invalidToken)).thenReturn(Optional.empty());
 
-        Optional<Long> result = sessionService.getUserIdByValidToken(invalidToken);
+        Optional<Long> result = sessionService.getUserIdByValidToken(invalidToken.toString());
 
         assertThat(result).isEmpty();
         verify(sessionRepository).findValidSessionById(invalidToken);
     }
 
+    @Test
+    void getUserIdByValidToken_ShouldServeRepeatedLookupsFromCache() {
+
+        UUID validToken = UUID.randomUUID();
+        Session session = new Session(TEST_USER_ID, Timestamp.from(Instant.now().plus(Duration.ofHours(1))));
+        when(sessionRepository.findValidSessionById(validToken)).thenReturn(Optional.of(session));
+
+        sessionService.getUserIdByValidToken(validToken.toString());
+        Optional<Long> result = sessionService.getUserIdByValidToken(validToken.toString());
+
+        assertThat(result).contains(TEST_USER_ID);
+        verify(sessionRepository, times(1)).findValidSessionById(validToken);
+    }
+
+    @Test
+    void getUserIdByValidToken_ShouldRememberUnknownToken() {
+
+        UUID unknownToken = UUID.randomUUID();
+        when(sessionRepository.findValidSessionById(unknownToken)).thenReturn(Optional.empty());
+
+        sessionService.getUserIdByValidToken(unknownToken.toString());
+        Optional<Long> result = sessionService.getUserIdByValidToken(unknownToken.toString());
+
+        assertThat(result).isEmpty();
+        verify(sessionRepository, times(1)).findValidSessionById(unknownToken);
+    }
+
+    @Test
+    void getUserIdByValidToken_ShouldRememberMalformedToken() {
+
+        sessionService.getUserIdByValidToken("not-a-uuid");
+        Optional<Long> result = sessionService.getUserIdByValidToken("not-a-uuid");
+
+        assertThat(result).isEmpty();
+        assertThat(rejectedTokenCache.hitCount()).isEqualTo(1);
+        verifyNoInteractions(sessionRepository);
+    }
+
+    @Test
+    void logout_ShouldInvalidateCachedSession() {
+
+        UUID token = UUID.randomUUID();
+        Session session = new Session(TEST_USER_ID, Timestamp.from(Instant.now().plus(Duration.ofHours(1))));
+        when(sessionRepository.findValidSessionById(token)).thenReturn(Optional.of(session));
+
+        sessionService.getUserIdByValidToken(token.toString());
+        sessionService.logout(token.toString());
+        Optional<Long> result = sessionService.getUserIdByValidToken(token.toString());
+
+        assertThat(result).isEmpty();
+        verify(sessionRepository, times(1)).findValidSessionById(token);
+    }
+
+    @Test
+    void extendIfNeeded_ShouldRecordExtension_WhenLessThanHalfOfTtlIsLeft() {
+
+        UUID token = UUID.randomUUID();
+        var session = new SessionService.ActiveSession(TEST_USER_ID, Instant.now().plus(Duration.ofHours(2)));
+
+        boolean extended = sessionService.extendIfNeeded(token.toString(), session);
+
+        assertThat(extended).isTrue();
+        verify(sessionExtensionBuffer).record(token);
+    }
+
+    @Test
+    void extendIfNeeded_ShouldDoNothing_WhenSessionIsFresh() {
+
+        UUID token = UUID.randomUUID();
+        var session = new SessionService.ActiveSession(TEST_USER_ID, Instant.now().plus(Duration.ofHours(23)));
+
+        boolean extended = sessionService.extendIfNeeded(token.toString(), session);
+
+        assertThat(extended).isFalse();
+        verifyNoInteractions(sessionExtensionBuffer);
+    }
+
     @Test
     @DisplayName("Получение userId по null токену - должен вернуть пустой Optional")
     void getUserIdByValidToken_ShouldReturnEmpty_WhenTokenIsNull() {
@@ -106,9 +211,10 @@ class SessionServiceTest {
 
         UUID token = UUID.randomUUID();
 
-        sessionService.logout(token);
+        sessionService.logout(token.toString());
 
         verify(sessionRepository).deleteById(token);
+        verify(invalidationBus).publish(InvalidationEvent.session(token.toString()));
     }
 
     @Test
@@ -125,12 +231,12 @@ class SessionServiceTest {
     void cleanUpExpiredSession_ShouldReturnDeletedCount() {
 
         int expectedDeletedCount = 5;
-        when(sessionRepository.deleteAllExpired()).thenReturn(expectedDeletedCount);
+        when(sessionRepository.deleteExpiredBatch(100)).thenReturn(expectedDeletedCount);
 
-        int result = sessionService.cleanUpExpiredSession();
+        int result = sessionService.cleanUpExpiredBatch(100);
 
         assertThat(result).isEqualTo(expectedDeletedCount);
-        verify(sessionRepository).deleteAllExpired();
+        verify(sessionRepository).deleteExpiredBatch(100);
     }
 
     @Test
@@ -139,6 +245,8 @@ class SessionServiceTest {
 
         Instant beforeCreation = Instant.now();
         doAnswer(invocation -> {
+            Session session = invocation.getArgument(0);
+            session.setId(UUID.randomUUID());
             return null;
 
         }).when(sessionRepository).save(any(Session.class));
@@ -156,4 +264,82 @@ class SessionServiceTest {
                    session.getExpiresAt().toInstant().isBefore(expectedMaxExpiry.plusSeconds(1));
         }));
     }
+
+    @Test
+    void signedMode_createForUser_ShouldIssueVerifiableToken_WithoutTouchingDatabase() {
+
+        SessionService signed = signedSessionService(mock(RevokedTokenRepository.class));
+
+        String token = signed.createForUser(TEST_USER_ID);
+
+        Optional<SessionService.ActiveSession> session = signed.findActiveSession(token);
+        assertThat(session).isPresent();
+        assertThat(session.get().userId()).isEqualTo(TEST_USER_ID);
+        assertThat(session.get().expiresAt()).isAfter(Instant.now().plus(Duration.ofHours(23)));
+        verifyNoInteractions(sessionRepository);
+    }
+
+    @Test
+    void signedMode_findActiveSession_ShouldRejectForgedToken() {
+
+        SessionService signed = signedSessionService(mock(RevokedTokenRepository.class));
+        String token = signed.createForUser(TEST_USER_ID);
+        String forged = token.substring(0, token.indexOf('.') + 1) + "AAAA";
+
+        assertThat(signed.findActiveSession(forged)).isEmpty();
+        assertThat(signed.findActiveSession(UUID.randomUUID().toString())).isEmpty();
+        verifyNoInteractions(sessionRepository);
+    }
+
+    @Test
+    void signedMode_logout_ShouldRevokeToken() {
+
+        RevokedTokenRepository revokedTokenRepository = mock(RevokedTokenRepository.class);
+        SessionService signed = signedSessionService(revokedTokenRepository);
+        String token = signed.createForUser(TEST_USER_ID);
+        String other = signed.createForUser(TEST_USER_ID);
+
+        signed.logout(token);
+
+        assertThat(signed.findActiveSession(token)).isEmpty();
+        assertThat(signed.findActiveSession(other)).isPresent();
+        verify(revokedTokenRepository).save(any());
+        verify(invalidationBus).publish(argThat(e -> e.type() == InvalidationEvent.Type.REVOKED_TOKEN));
+        verifyNoInteractions(sessionRepository);
+    }
+
+    @Test
+    void signedMode_extendIfNeeded_ShouldNeverExtend() {
+
+        SessionService signed = signedSessionService(mock(RevokedTokenRepository.class));
+        String token = signed.createForUser(TEST_USER_ID);
+        var session = new SessionService.ActiveSession(TEST_USER_ID, Instant.now().plusSeconds(60));
+
+        assertThat(signed.extendIfNeeded(token, session)).isFalse();
+        verifyNoInteractions(sessionExtensionBuffer);
+    }
+
+    @Test
+    void signedMode_cleanUpExpiredBatch_ShouldDeleteRevocationsInBoundedBatches() {
+
+        RevokedTokenRepository revokedTokenRepository = mock(RevokedTokenRepository.class);
+        when(revokedTokenRepository.deleteExpiredBatch(100)).thenReturn(100);
+        SessionService signed = signedSessionService(revokedTokenRepository);
+
+        assertThat(signed.cleanUpExpiredBatch(100)).isEqualTo(100);
+        verify(revokedTokenRepository).deleteExpiredBatch(100);
+        verifyNoInteractions(sessionRepository);
+    }
+
+    private SessionService signedSessionService(RevokedTokenRepository revokedTokenRepository) {
+        TokenRevocationList revocationList = new TokenRevocationList(revokedTokenRepository, 16, 30);
+        ReflectionTestUtils.setField(revocationList, "sessionMode", SessionMode.SIGNED);
+        SessionService signed = new SessionService(sessionRepository, sessionCache, rejectedTokenCache,
+                new SignedSessionTokens(Base64.getEncoder().encodeToString(new byte[32])), revocationList,
+                sessionExtensionBuffer, invalidationBus);
+        ReflectionTestUtils.setField(signed, "defaultSessionTtlHours", DEFAULT_SESSION_TTL_HOURS);
+        ReflectionTestUtils.setField(signed, "sessionMode", SessionMode.SIGNED);
+        signed.checkMode();
+        return signed;
+    }
 }
@@ -2,6 +2,8 @@ package io.service;
 
 import io.model.entity.User;
 import io.repository.UserRepository;
+import io.security.PasswordHasher;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -9,8 +11,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mindrot.jbcrypt.BCrypt;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.sql.SQLException;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -25,6 +29,9 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Spy
+    private PasswordHasher passwordHasher = new PasswordHasher(4, 2, 8, 5000);
+
     @InjectMocks
     private UserService userService;
 
@@ -38,7 +45,6 @@ class UserServiceTest {
     @Test
     void create_ShouldReturnSavedUser_WhenValidUserProvided() {
 
-        when(userRepository.findByLogin(TEST_LOGIN)).thenReturn(Optional.empty());
         when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
             User savedUser = invocation.getArgument(0);
             savedUser.setId(1L);
@@ -52,7 +58,6 @@ class UserServiceTest {
         assertThat(result.getPassword()).isNotEqualTo(TEST_PASSWORD);
         assertThat(result.getPassword()).startsWith("$2a$");
 
-        verify(userRepository).findByLogin(TEST_LOGIN);
         verify(userRepository).save(any(User.class));
     }
 
@@ -72,24 +77,30 @@ class UserServiceTest {
     @Test
     void create_ShouldThrowException_WhenLoginAlreadyExists() {
 
-        User userToCreate = new User();
-        userToCreate.setLogin(TEST_LOGIN);
-        userToCreate.setPassword(TEST_PASSWORD);
-
-        when(userRepository.findByLogin(TEST_LOGIN)).thenReturn(Optional.of(userToCreate));
+        when(userRepository.save(any(User.class))).thenThrow(
+                new ConstraintViolationException("duplicate key", new SQLException(), "users_login_key"));
 
         assertThatThrownBy(() -> userService.registerUser(TEST_LOGIN, TEST_PASSWORD, TEST_PASSWORD))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessage("User with this username already exists.");
 
-        verify(userRepository).findByLogin(TEST_LOGIN);
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).findByLogin(TEST_LOGIN);
+    }
+
+    @Test
+    void create_ShouldRethrow_WhenAnotherConstraintIsViolated() {
+
+        ConstraintViolationException notNull =
+                new ConstraintViolationException("null value in column", new SQLException(), "users_password_not_null");
+        when(userRepository.save(any(User.class))).thenThrow(notNull);
+
+        assertThatThrownBy(() -> userService.registerUser(TEST_LOGIN, TEST_PASSWORD, TEST_PASSWORD))
+                .isSameAs(notNull);
     }
 
     @Test
     void registerUser_ShouldReturnUser_WhenPasswordsMatch() {
 
-        when(userRepository.findByLogin(TEST_LOGIN)).thenReturn(Optional.empty());
         when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
             User savedUser = invocation.getArgument(0);
             savedUser.setId(1L);
@@ -102,10 +113,21 @@ class UserServiceTest {
         assertThat(result.getLogin()).isEqualTo(TEST_LOGIN);
         assertThat(result.getPassword()).startsWith("$2a$");
 
-        verify(userRepository).findByLogin(TEST_LOGIN);
         verify(userRepository).save(any(User.class));
     }
 
+    @Test
+    void registerUser_ShouldHashPasswordBeforeInsert() {
+
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        userService.registerUser(TEST_LOGIN, TEST_PASSWORD, TEST_PASSWORD);
+
+        var inOrder = inOrder(passwordHasher, userRepository);
+        inOrder.verify(passwordHasher).hash(TEST_PASSWORD);
+        inOrder.verify(userRepository).save(argThat(u -> u.getPassword().startsWith("$2a$")));
+    }
+
     @Test
     void registerUser_ShouldThrowException_WhenPasswordsDoNotMatch() {
 
@@ -199,7 +221,6 @@ class UserServiceTest {
         String loginWithSpaces = "  TESTUSER  ";
         String normalizedLogin = "testuser";
 
-        when(userRepository.findByLogin(normalizedLogin)).thenReturn(Optional.empty());
         when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
             User savedUser = invocation.getArgument(0);
             savedUser.setId(1L);
@@ -208,7 +229,6 @@ class UserServiceTest {
 
         userService.registerUser(loginWithSpaces, TEST_PASSWORD, TEST_PASSWORD);
 
-        verify(userRepository).findByLogin(normalizedLogin);
         verify(userRepository).save(argThat(user ->
                 normalizedLogin.equals(user.getLogin())
         ));
@@ -217,7 +237,6 @@ class UserServiceTest {
     @Test
     void create_ShouldHashPassword_BeforeSaving() {
 
-        when(userRepository.findByLogin(TEST_LOGIN)).thenReturn(Optional.empty());
         when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
             User savedUser = invocation.getArgument(0);
             savedUser.setId(1L);
@@ -0,0 +1,42 @@
+package io.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class WeatherPrefetcherTest {
+
+    private final WeatherService weatherService = mock(WeatherService.class);
+    private final WeatherPrefetcher prefetcher = new WeatherPrefetcher(weatherService, true, 1, 1);
+
+    @AfterEach
+    void tearDown() {
+        prefetcher.shutdown();
+    }
+
+    @Test
+    void prefetch_ShouldReturnImmediately_AndDropWhenSaturated() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(weatherService.prefetchSavedLocationsWeather(1L)).thenAnswer(inv -> {
+            started.countDown();
+            release.await();
+            return 1;
+        });
+
+        prefetcher.prefetch(1L);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        prefetcher.prefetch(2L);
+        prefetcher.prefetch(3L);
+        release.countDown();
+
+        assertThat(prefetcher.droppedCount()).isEqualTo(1);
+        verify(weatherService, timeout(5_000)).prefetchSavedLocationsWeather(2L);
+        verify(weatherService, never()).prefetchSavedLocationsWeather(3L);
+    }
+}
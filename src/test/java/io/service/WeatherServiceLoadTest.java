@@ -0,0 +1,139 @@
+package io.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.api.openweather.OpenWeatherClient;
+import io.cache.DashboardFragmentCache;
+import io.cache.LocationCellIndex;
+import io.cache.LocationTrie;
+import io.cache.WeatherCache;
+import io.cache.invalidation.InvalidationBus;
+import io.mapper.LocationApiMapper;
+import io.mapper.LocationMapper;
+import io.mapper.WeatherApiMapperImpl;
+import io.model.dto.DashboardDTO;
+import io.model.entity.Location;
+import io.repository.LocationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Dashboard capacity of a node with a fixed number of request threads against a slow OpenWeather:
+ * blocking handlers are capped at threads / latency, async ones are not. Run with {@code gradle loadTest}.
+ */
+@Tag("load")
+class WeatherServiceLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(WeatherServiceLoadTest.class);
+
+    private static final int REQUEST_THREADS = 8;
+    private static final int USERS = 200;
+    private static final long UPSTREAM_LATENCY_MS = 200;
+
+    private static final String WEATHER_JSON = """
+            {"name":"Moscow","coord":{"lon":37.61,"lat":55.75},
+             "weather":[{"id":800,"main":"Clear","description":"clear sky","icon":"01d"}],
+             "main":{"temp":15.0,"feels_like":14.0,"humidity":70},"sys":{"country":"RU"}}""";
+
+    private HttpServer upstream;
+    private ExecutorService upstreamThreads;
+    private ExecutorService requestThreads;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        upstreamThreads = Executors.newCachedThreadPool();
+        upstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), USERS);
+        upstream.setExecutor(upstreamThreads);
+        upstream.createContext("/", exchange -> {
+            try {
+                Thread.sleep(UPSTREAM_LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = WEATHER_JSON.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        upstream.start();
+        requestThreads = Executors.newFixedThreadPool(REQUEST_THREADS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        requestThreads.shutdownNow();
+        upstream.stop(0);
+        upstreamThreads.shutdownNow();
+    }
+
+    @Test
+    void asyncDashboard_ShouldServeManyMoreConcurrentUsersPerRequestThread() throws Exception {
+        long blockingMs = run(false);
+        long asyncMs = run(true);
+
+        double blockingCapacity = USERS * UPSTREAM_LATENCY_MS / (double) blockingMs;
+        double asyncCapacity = USERS * UPSTREAM_LATENCY_MS / (double) asyncMs;
+        log.info("{} users, {} request threads, {} ms upstream: blocking {} ms (~{} concurrent), async {} ms (~{} concurrent)",
+                USERS, REQUEST_THREADS, UPSTREAM_LATENCY_MS, blockingMs, Math.round(blockingCapacity),
+                asyncMs, Math.round(asyncCapacity));
+
+        assertThat(blockingCapacity).isLessThanOrEqualTo(REQUEST_THREADS * 1.1);
+        assertThat(asyncCapacity).isGreaterThan(blockingCapacity * 4);
+    }
+
+    private long run(boolean async) throws Exception {
+        WeatherService service = service();
+        List<Future<CompletableFuture<DashboardDTO>>> submitted = new ArrayList<>(USERS);
+
+        long startedAt = System.nanoTime();
+        for (long userId = 1; userId <= USERS; userId++) {
+            long id = userId;
+            submitted.add(requestThreads.submit(() -> async
+                    ? service.fetchDashboardAsync(id, null)
+                    // the request thread waits for OpenWeather, as a synchronous controller would
+                    : CompletableFuture.completedFuture(service.fetchDashboardAsync(id, null).join())));
+        }
+        for (Future<CompletableFuture<DashboardDTO>> request : submitted) {
+            assertThat(request.get(60, TimeUnit.SECONDS).get(60, TimeUnit.SECONDS).locations()).hasSize(1);
+        }
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+    }
+
+    // every user has a location of their own, so each dashboard needs a fresh upstream call
+    private WeatherService service() {
+        LocationRepository repository = mock(LocationRepository.class);
+        when(repository.findPageByUserId(anyLong(), isNull(), anyInt())).thenAnswer(invocation -> {
+            long userId = invocation.getArgument(0);
+            return List.of(new Location(userId, "City " + userId, userId, userId / 10.0, userId / 10.0));
+        });
+        OpenWeatherClient client = new OpenWeatherClient("http://127.0.0.1:" + upstream.getAddress().getPort(),
+                "test", 10, 5, new ObjectMapper());
+        return new WeatherService(client, repository, new WeatherApiMapperImpl(), mock(LocationApiMapper.class),
+                mock(LocationMapper.class), mock(InvalidationBus.class), new WeatherCache(10_000, 600),
+                new DashboardFragmentCache(10_000), new LocationTrie(10_000, 100_000),
+                mock(LocationLimits.class), new LocationCellIndex(0.1));
+    }
+}
@@ -2,17 +2,29 @@ package io.service;
 
 
 import io.api.openweather.OpenWeatherClient;
+import io.cache.DashboardFragmentCache;
+import io.cache.LocationCellIndex;
+import io.cache.LocationTrie;
+import io.cache.WeatherCache;
+import io.cache.invalidation.InvalidationBus;
+import io.cache.invalidation.InvalidationEvent;
 import io.exception.LocationException;
+import io.exception.WeatherException;
 import io.mapper.LocationApiMapper;
 import io.mapper.LocationMapper;
 import io.mapper.WeatherApiMapper;
+import io.mapper.WeatherApiMapperImpl;
 import io.model.apiweather.LocationResponse;
 import io.model.apiweather.WeatherResponse;
+import io.model.dto.DashboardDTO;
 import io.model.dto.LocationDTO;
+import io.model.dto.PendingLocationDTO;
 import io.model.dto.SavedLocationWeatherDTO;
 import io.model.dto.WeatherDTO;
 import io.model.entity.Location;
+import io.repository.LocationCursor;
 import io.repository.LocationRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -23,19 +35,29 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class WeatherServiceTest {
 
+    @Mock
+    private InvalidationBus invalidationBus;
+
     @Mock
     private OpenWeatherClient client;
 
@@ -45,12 +67,27 @@ public class WeatherServiceTest {
     @Mock
     private LocationApiMapper locationApiMapper;
 
-    @Mock
-    private WeatherApiMapper weatherApiMapper;
+    @Spy
+    private WeatherApiMapper weatherApiMapper = new WeatherApiMapperImpl();
 
     @Mock
     private LocationMapper locationMapper;
 
+    @Mock
+    private LocationLimits locationLimits;
+
+    @Spy
+    private WeatherCache weatherCache = new WeatherCache(100, 600);
+
+    @Spy
+    private DashboardFragmentCache dashboardFragmentCache = new DashboardFragmentCache(100);
+
+    @Spy
+    private LocationTrie locationTrie = new LocationTrie(100, 1000);
+
+    @Spy
+    private LocationCellIndex locationCellIndex = new LocationCellIndex(0.1);
+
     @Spy
     @InjectMocks
     private WeatherService weatherService;
@@ -80,55 +117,55 @@ public class WeatherServiceTest {
 
     @Test
     void shouldSaveLocation_onHappyPath() {
-        when(locationRepository.countByUser(1L)).thenReturn(1);
-        when(locationRepository.existsByUserAndCoords(1L, 57.7522, 37.6156)).thenReturn(false);
-
         Location mappedEntity = new Location();
         when(locationMapper.toEntity(locationDto)).thenReturn(mappedEntity);
+        when(locationLimits.forUser(1L)).thenReturn(100);
+        when(locationRepository.insertIfBelowLimit(mappedEntity, 100)).thenReturn(Optional.of(42L));
 
         weatherService.addLocation(locationDto, 1L);
 
-        verify(locationRepository).countByUser(1L);
-        verify(locationRepository).existsByUserAndCoords(1L, 57.7522, 37.6156);
-        verify(locationRepository).save(mappedEntity);
+        verify(locationRepository).insertIfBelowLimit(argThat(l ->
+                l.getUserId() == 1L && l.getLatitude() == 57.7522 && l.getLongitude() == 37.6156),
+                eq(100));
+        assertThat(locationCellIndex.locationIdsAt(57.7522, 37.6156)).containsExactly(42L);
+        verify(invalidationBus).publish(InvalidationEvent.locationSaved(42L, 1L, 57.7522, 37.6156));
     }
 
     @Test
     void shouldThrowLocationException_whenLocationListIsFull() {
-        when(locationRepository.countByUser(1L)).thenReturn(5);
+        when(locationMapper.toEntity(locationDto)).thenReturn(new Location());
+        when(locationRepository.insertIfBelowLimit(any(Location.class), anyInt())).thenReturn(Optional.empty());
 
-        assertThrows(LocationException.class, () -> weatherService.addLocation(locationDto, 1L));
+        assertThatThrownBy(() -> weatherService.addLocation(locationDto, 1L))
+                .isInstanceOf(LocationException.class)
+                .hasMessage("You can't add more saved locations.");
     }
 
     @Test
     void shouldThrowLocationException_whenLocationAlreadyExists() {
-        when(locationRepository.existsByUserAndCoords(1L, locationDto.getLat(), locationDto.getLon()))
-                .thenReturn(true);
+        when(locationMapper.toEntity(locationDto)).thenReturn(new Location());
+        when(locationRepository.insertIfBelowLimit(any(Location.class), anyInt())).thenThrow(
+                new ConstraintViolationException("duplicate key", new SQLException(), "uk_locations_user_coords"));
 
-        assertThrows(LocationException.class, () -> weatherService.addLocation(locationDto, 1L));
+        assertThatThrownBy(() -> weatherService.addLocation(locationDto, 1L))
+                .isInstanceOf(LocationException.class)
+                .hasMessage("This location has already been added.");
     }
 
     @Test
-    void shouldReturnWeatherForSavedLocations() {
+    void shouldReturnWeatherForSavedLocations() throws Exception {
         Location london = loc(1L, "London", 51.5073219, -0.1276474);
         Location paris = loc(2L, "Paris", 48.8534951, -2.3483915);
-        List<Location> locationFromDB = List.of(london, paris);
+        weatherCache.put(london.getLatitude(), london.getLongitude(), wDTO("London", "GB", 10, 11, 79, 800, "10d"));
+        weatherCache.put(paris.getLatitude(), paris.getLongitude(), wDTO("Paris", "FR", 11, 11, 73, 803, "10d"));
 
-        SavedLocationWeatherDTO weatherLondon =
-                w(1L, "London", 11, "GB", "clear sky", 10, 79, "10d");
-        SavedLocationWeatherDTO weatherParis =
-                w(1L, "Weather", 11, "FR", "broken clouds", 11, 7973, "10d");
+        when(locationRepository.findPageByUserId(eq(1L), isNull(), anyInt())).thenReturn(List.of(london, paris));
 
-        when(locationRepository.findAllByUserId(1L)).thenReturn(locationFromDB);
+        DashboardDTO dashboard = weatherService.fetchDashboardAsync(1L, null).get();
 
-        doReturn(Optional.of(weatherLondon)).when(weatherService).fetchAndMapWeather(london);
-        doReturn(Optional.of(weatherParis)).when(weatherService).fetchAndMapWeather(paris);
-
-        List<SavedLocationWeatherDTO> actualResult =
-                weatherService.fetchSavedLocationsWeather(1L);
-
-        assertThat(actualResult).hasSize(2);
-        assertThat(actualResult).containsExactlyInAnyOrder(weatherLondon, weatherParis);
+        assertThat(dashboard.locations()).extracting(SavedLocationWeatherDTO::id).containsExactly(1L, 2L);
+        assertThat(dashboard.pending()).isEmpty();
+        verifyNoInteractions(client);
     }
 
     @ParameterizedTest
@@ -150,35 +187,204 @@ public class WeatherServiceTest {
 
     @Test
     void shouldIllegalArgumentException_whenUserIsNotNull() {
-        assertThrows(IllegalArgumentException.class, () -> weatherService.fetchSavedLocationsWeather(null));
+        assertThrows(IllegalArgumentException.class, () -> weatherService.fetchDashboardAsync(null, null));
     }
 
     @Test
-    void shouldReturnWeatherDto_whenLocationIsValid() throws InterruptedException {
+    void shouldReturnWeatherDto_whenLocationIsValid() throws Exception {
 
         Location location = new Location(1L, "New York", 1L, 40.7127, -74.006);
 
         WeatherResponse weatherResponse = getWeatherResponse();
 
-        WeatherDTO weatherDTO = wDTO("New York", "US", 23, 23, 68, "clear sky", "2");
+        WeatherDTO weatherDTO = wDTO("New York", "US", 23, 23, 68, 800, "2");
 
         SavedLocationWeatherDTO expectedFinalDto = w(
                 location.getId(),
                 location.getName(),
                 weatherDTO.getTemperature(),
                 weatherDTO.getCountryName(),
-                weatherDTO.getDescription(),
+                "ясно",
                 weatherDTO.getFeelsLike(),
                 weatherDTO.getHumidity(),
                 weatherDTO.getIconUrl()
         );
 
-        when(client.weather(40.7127, -74.006)).thenReturn(weatherResponse);
+        when(locationRepository.findPageByUserId(eq(1L), isNull(), anyInt())).thenReturn(List.of(location));
+        when(client.weatherAsync(40.7127, -74.006)).thenReturn(CompletableFuture.completedFuture(weatherResponse));
         when(weatherApiMapper.toDTO(weatherResponse)).thenReturn(weatherDTO);
 
-        Optional<SavedLocationWeatherDTO> actualResult = weatherService.fetchAndMapWeather(location);
+        DashboardDTO dashboard = weatherService.fetchDashboardAsync(1L, null).get();
+
+        assertThat(dashboard.locations()).containsExactly(expectedFinalDto);
+    }
+
+    @Test
+    void fetchCachedDashboard_ShouldDescribeWeatherInTheRequestLocale() {
+        Location location = new Location(1L, "New York", 1L, 40.7127, -74.006);
+        weatherCache.put(40.7127, -74.006, wDTO("New York", "US", 23, 23, 68, 800, "2"));
+        when(locationRepository.findPageByUserId(eq(1L), isNull(), anyInt())).thenReturn(List.of(location));
+
+        DashboardDTO russian = weatherService.fetchCachedDashboard(1L, null);
+        LocaleContextHolder.setLocale(Locale.ENGLISH);
+        try {
+            DashboardDTO english = weatherService.fetchCachedDashboard(1L, null);
+
+            assertThat(english.locations().get(0).description()).isEqualTo("clear sky");
+            assertThat(english.version()).isNotEqualTo(russian.version())
+                    .isEqualTo(weatherService.dashboardVersion(1L, null));
+        } finally {
+            LocaleContextHolder.resetLocaleContext();
+        }
+        assertThat(russian.locations().get(0).description()).isEqualTo("ясно");
+    }
+
+    @Test
+    void fetchDashboardAsync_ShouldReuseCachedWeather_AndKeepVersionStable() throws Exception {
+        Location location = new Location(1L, "New York", 1L, 40.7127, -74.006);
+        WeatherResponse weatherResponse = getWeatherResponse();
+
+        when(locationRepository.findPageByUserId(eq(1L), isNull(), anyInt())).thenReturn(List.of(location));
+        when(client.weatherAsync(40.7127, -74.006)).thenReturn(CompletableFuture.completedFuture(weatherResponse));
+        when(weatherApiMapper.toDTO(weatherResponse)).thenReturn(wDTO("New York", "US", 23, 23, 68, 800, "2"));
+
+        DashboardDTO first = weatherService.fetchDashboardAsync(1L, null).get();
+        DashboardDTO second = weatherService.fetchDashboardAsync(1L, null).get();
+
+        assertThat(second.version()).isEqualTo(first.version());
+        assertThat(second.locations()).isEqualTo(first.locations()).hasSize(1);
+        verify(client, times(1)).weatherAsync(40.7127, -74.006);
+    }
+
+    @Test
+    void fetchDashboardAsync_ShouldChangeVersion_WhenWeatherIsRefreshed() throws Exception {
+        Location location = new Location(1L, "New York", 1L, 40.7127, -74.006);
+        WeatherResponse weatherResponse = getWeatherResponse();
+
+        when(locationRepository.findPageByUserId(eq(1L), isNull(), anyInt())).thenReturn(List.of(location));
+        when(client.weatherAsync(40.7127, -74.006)).thenReturn(CompletableFuture.completedFuture(weatherResponse));
+        when(weatherApiMapper.toDTO(weatherResponse)).thenReturn(
+                wDTO("New York", "US", 23, 23, 68, 800, "2"),
+                wDTO("New York", "US", 25, 24, 60, 800, "2"));
+
+        DashboardDTO first = weatherService.fetchDashboardAsync(1L, null).get();
+        weatherCache.clear();
+        DashboardDTO second = weatherService.fetchDashboardAsync(1L, null).get();
+
+        assertThat(second.version()).isNotEqualTo(first.version());
+    }
+
+    @Test
+    void fetchDashboardAsync_ShouldLeaveFailedLocationPending_AndKeepTheRest() throws Exception {
+        Location newYork = new Location(1L, "New York", 1L, 40.7127, -74.006);
+        Location boston = new Location(2L, "Boston", 1L, 42.3601, -71.0589);
+        WeatherResponse weatherResponse = getWeatherResponse();
+
+        when(locationRepository.findPageByUserId(eq(1L), isNull(), anyInt())).thenReturn(List.of(newYork, boston));
+        when(client.weatherAsync(40.7127, -74.006)).thenReturn(CompletableFuture.completedFuture(weatherResponse));
+        when(client.weatherAsync(42.3601, -71.0589))
+                .thenReturn(CompletableFuture.failedFuture(new WeatherException("upstream is down")));
+        when(weatherApiMapper.toDTO(weatherResponse)).thenReturn(wDTO("New York", "US", 23, 23, 68, 800, "2"));
+
+        DashboardDTO dashboard = weatherService.fetchDashboardAsync(1L, null).get();
+
+        assertThat(dashboard.locations()).extracting(SavedLocationWeatherDTO::id).containsExactly(1L);
+        assertThat(dashboard.pending()).containsExactly(new PendingLocationDTO(2L, "Boston"));
+        assertThat(dashboard.version()).endsWith("2@0;");
+    }
+
+    @Test
+    void fetchCachedDashboard_ShouldMatchLoadedDashboard() throws Exception {
+        Location location = new Location(1L, "New York", 1L, 40.7127, -74.006);
+        WeatherResponse weatherResponse = getWeatherResponse();
+
+        when(locationRepository.findPageByUserId(eq(1L), isNull(), anyInt())).thenReturn(List.of(location));
+        when(client.weatherAsync(40.7127, -74.006)).thenReturn(CompletableFuture.completedFuture(weatherResponse));
+        when(weatherApiMapper.toDTO(weatherResponse)).thenReturn(wDTO("New York", "US", 23, 23, 68, 800, "2"));
+
+        DashboardDTO async = weatherService.fetchDashboardAsync(1L, null).get();
+        DashboardDTO cached = weatherService.fetchCachedDashboard(1L, null);
+
+        assertThat(cached).isEqualTo(async);
+        verify(client, never()).weather(anyDouble(), anyDouble());
+    }
+
+    @Test
+    void fetchCachedDashboard_ShouldLeaveUncachedLocationsPending_WithoutCallingOpenWeather() {
+        Location cached = new Location(1L, "New York", 1L, 40.7127, -74.006);
+        Location uncached = new Location(2L, "Boston", 1L, 42.3601, -71.0589);
+        weatherCache.put(40.7127, -74.006, wDTO("New York", "US", 23, 23, 68, 800, "2"));
+        when(locationRepository.findPageByUserId(eq(1L), isNull(), anyInt())).thenReturn(List.of(cached, uncached));
+
+        DashboardDTO dashboard = weatherService.fetchCachedDashboard(1L, null);
+
+        assertThat(dashboard.locations()).extracting(SavedLocationWeatherDTO::id).containsExactly(1L);
+        assertThat(dashboard.pending()).containsExactly(new PendingLocationDTO(2L, "Boston"));
+        verifyNoInteractions(client);
+    }
+
+    @Test
+    void prefetchSavedLocationsWeather_ShouldBeJoinedByDashboardStream() {
+        Location location = new Location(1L, "New York", 1L, 40.7127, -74.006);
+        WeatherResponse weatherResponse = getWeatherResponse();
+        CompletableFuture<WeatherResponse> upstream = new CompletableFuture<>();
+
+        when(locationRepository.findPageByUserId(eq(1L), isNull(), anyInt())).thenReturn(List.of(location));
+        when(client.weatherAsync(40.7127, -74.006)).thenReturn(upstream);
+        when(weatherApiMapper.toDTO(weatherResponse)).thenReturn(wDTO("New York", "US", 23, 23, 68, 800, "2"));
+
+        assertThat(weatherService.prefetchSavedLocationsWeather(1L)).isEqualTo(1);
+        CompletableFuture<SavedLocationWeatherDTO> streamed = weatherService.streamSavedLocationsWeather(1L, null).get(1L);
+        upstream.complete(weatherResponse);
+
+        assertThat(streamed.join().name()).isEqualTo("New York");
+        verify(client, times(1)).weatherAsync(40.7127, -74.006);
+        assertThat(weatherService.prefetchSavedLocationsWeather(1L)).isZero();
+    }
+
+    @Test
+    void fetchCachedDashboard_ShouldReturnOnePage_WithCursorOfTheNext() {
+        ReflectionTestUtils.setField(weatherService, "pageSize", 2);
+        Location berlin = new Location(1L, "Berlin", 1L, 52.52, 13.40);
+        Location boston = new Location(2L, "Boston", 1L, 42.3601, -71.0589);
+        Location paris = new Location(3L, "Paris", 1L, 48.85, 2.35);
+        when(locationRepository.findPageByUserId(1L, null, 3)).thenReturn(List.of(berlin, boston, paris));
+
+        DashboardDTO dashboard = weatherService.fetchCachedDashboard(1L, null);
+
+        assertThat(dashboard.pending()).extracting(PendingLocationDTO::id).containsExactly(1L, 2L);
+        assertThat(LocationCursor.decode(dashboard.next())).isEqualTo(new LocationCursor("Boston", 2L));
+    }
+
+    @Test
+    void streamSavedLocationsWeather_ShouldRequestMissingWeatherInBatches() {
+        ReflectionTestUtils.setField(weatherService, "batchSize", 2);
+        List<Location> locations = List.of(
+                new Location(1L, "Berlin", 1L, 52.52, 13.40),
+                new Location(2L, "Boston", 1L, 42.3601, -71.0589),
+                new Location(3L, "Paris", 1L, 48.85, 2.35));
+        List<CompletableFuture<WeatherResponse>> upstream = new ArrayList<>();
+        WeatherResponse weatherResponse = getWeatherResponse();
+
+        when(locationRepository.findPageByUserId(eq(1L), isNull(), anyInt())).thenReturn(locations);
+        when(client.weatherAsync(anyDouble(), anyDouble())).thenAnswer(inv -> {
+            CompletableFuture<WeatherResponse> response = new CompletableFuture<>();
+            upstream.add(response);
+            return response;
+        });
+        when(weatherApiMapper.toDTO(weatherResponse)).thenReturn(wDTO("New York", "US", 23, 23, 68, 800, "2"));
+
+        var streamed = weatherService.streamSavedLocationsWeather(1L, null);
+        assertThat(upstream).hasSize(2);
+
+        upstream.get(0).complete(weatherResponse);
+        assertThat(upstream).hasSize(2);
+        upstream.get(1).completeExceptionally(new IllegalStateException("down"));
 
-        assertThat(actualResult).isPresent().hasValue(expectedFinalDto);
+        assertThat(upstream).hasSize(3);
+        upstream.get(2).complete(weatherResponse);
+        assertThat(streamed.get(3L)).isCompleted();
+        assertThat(streamed.get(2L)).isCompletedExceptionally();
     }
 
     private static @NotNull WeatherResponse getWeatherResponse() {
@@ -186,6 +392,7 @@ public class WeatherServiceTest {
                 -74.006,
                 40.7127);
         WeatherResponse.Weather weather = new WeatherResponse.Weather(
+                800,
                 "Clear",
                 "clear sky",
                 "2");
@@ -210,6 +417,10 @@ public class WeatherServiceTest {
         weatherService.deleteLocationByUser(1L, 1L);
 
         verify(locationRepository).deleteLocationByUserId(1L, 1L);
+        verify(locationCellIndex).remove(1L);
+        verify(dashboardFragmentCache).evict(1L);
+        verify(invalidationBus).publish(InvalidationEvent.userLocations(1L));
+        verify(invalidationBus).publish(InvalidationEvent.locationDeleted(1L));
     }
 
     @Test
@@ -243,8 +454,8 @@ public class WeatherServiceTest {
     }
 
     private static WeatherDTO wDTO(
-            String city, String country, Integer feels, Integer t, Integer hum, String desc, String icon) {
-        return new WeatherDTO(city, country, feels, t, hum, desc, icon);
+            String city, String country, Integer feels, Integer t, Integer hum, Integer conditionId, String icon) {
+        return new WeatherDTO(city, country, feels, t, hum, conditionId, icon);
     }
 
 }
\ No newline at end of file
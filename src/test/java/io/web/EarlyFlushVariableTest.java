@@ -0,0 +1,66 @@
+package io.web;
+
+import io.model.dto.DashboardDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.FileTemplateResolver;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EarlyFlushVariableTest {
+
+    @Test
+    void dashboard_ShouldFlushHeadBeforeLoadingLocations() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/locations/dashboard");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<String> sentBeforeLoading = new AtomicReference<>();
+
+        EarlyFlushVariable<DashboardDTO> dashboard = new EarlyFlushVariable<>(response, () -> {
+            assertThat(response.isCommitted()).isTrue();
+            sentBeforeLoading.set(contentOf(response));
+            return new DashboardDTO(List.of(), List.of(), "", null);
+        });
+
+        WebContext context = new WebContext(
+                JakartaServletWebApplication.buildApplication(request.getServletContext())
+                        .buildExchange(request, response),
+                request.getLocale(),
+                Map.of("dashboard", dashboard, "locationCards", ""));
+        engine().process("index", context, response.getWriter());
+        response.getWriter().flush();
+
+        assertThat(sentBeforeLoading.get())
+                .contains("</head>", "/webjars/bootstrap/css/bootstrap.min.css")
+                .doesNotContain("saved locations yet");
+        assertThat(contentOf(response)).contains("You don't have any saved locations yet.", "</html>");
+    }
+
+    private static String contentOf(MockHttpServletResponse response) {
+        try {
+            return response.getContentAsString();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static SpringTemplateEngine engine() {
+        FileTemplateResolver resolver = new FileTemplateResolver();
+        resolver.setPrefix("src/main/webapp/WEB-INF/views/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        return engine;
+    }
+}
@@ -0,0 +1,87 @@
+package io.web;
+
+import io.cache.DashboardFragmentCache;
+import io.model.dto.DashboardDTO;
+import io.model.dto.PendingLocationDTO;
+import io.model.dto.SavedLocationWeatherDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.FileTemplateResolver;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.anyString;
+
+class LocationCardsRendererTest {
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/locations/dashboard");
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    private SpringTemplateEngine templateEngine;
+    private LocationCardsRenderer renderer;
+
+    @BeforeEach
+    void setUp() {
+        FileTemplateResolver resolver = new FileTemplateResolver();
+        resolver.setPrefix("src/main/webapp/WEB-INF/views/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+
+        templateEngine = spy(new SpringTemplateEngine());
+        templateEngine.setTemplateResolver(resolver);
+        renderer = new LocationCardsRenderer(templateEngine, new DashboardFragmentCache(10));
+    }
+
+    @Test
+    void render_ShouldRenderCards_AndReuseThemForTheSameVersion() {
+        DashboardDTO dashboard = new DashboardDTO(
+                List.of(new SavedLocationWeatherDTO(7L, "Moscow", 15.0, "RU", "<b>Sunny</b>", 14, 70, "10d")),
+                List.of(),
+                "7@1;",
+                null);
+
+        String first = renderer.render(1L, null, dashboard, request, response);
+        String second = renderer.render(1L, null, dashboard, request, response);
+
+        assertThat(first)
+                .contains("Moscow, RU")
+                .contains("/locations/7/delete")
+                .contains("&lt;b&gt;Sunny&lt;/b&gt;");
+        assertThat(second).isSameAs(first);
+        verify(templateEngine, times(1)).process(anyString(), anySet(), any());
+    }
+
+    @Test
+    void render_ShouldRenderSkeletons_ForPendingLocations() {
+        DashboardDTO dashboard = new DashboardDTO(List.of(), List.of(new PendingLocationDTO(8L, "Kazan")), "8@0;", null);
+
+        String html = renderer.render(1L, null, dashboard, request, response);
+
+        assertThat(html)
+                .contains("data-location-id=\"8\"")
+                .contains("Kazan")
+                .contains("/locations/8/delete");
+    }
+
+    @Test
+    void render_ShouldRenderAgain_WhenVersionChanges() {
+        List<SavedLocationWeatherDTO> locations =
+                List.of(new SavedLocationWeatherDTO(7L, "Moscow", 15.0, "RU", "Sunny", 14, 70, "10d"));
+
+        renderer.render(1L, null, new DashboardDTO(locations, List.of(), "7@1;", null), request, response);
+        renderer.render(1L, null, new DashboardDTO(locations, List.of(), "7@2;", null), request, response);
+
+        verify(templateEngine, times(2)).process(anyString(), anySet(), any());
+    }
+}